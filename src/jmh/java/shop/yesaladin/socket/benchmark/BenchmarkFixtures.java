@@ -0,0 +1,133 @@
+package shop.yesaladin.socket.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Field;
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import shop.yesaladin.socket.config.CouponAckProperties;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.persistence.MapCouponInFlightMessageRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponSessionRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.service.impl.CouponAcknowledgementServiceImpl;
+import shop.yesaladin.socket.coupon.service.impl.CouponResultMessageEncoder;
+import shop.yesaladin.socket.coupon.service.impl.CouponWebsocketMessageServiceImpl;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+/**
+ * 벤치마크에서 사용하는 설정과 객체를 기본값으로 생성합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+final class BenchmarkFixtures {
+
+    static final String GIVE_TOPIC_PREFIX = "/ws/topic/coupon/give/";
+    static final String USE_TOPIC_PREFIX = "/ws/topic/coupon/use/";
+
+    private BenchmarkFixtures() {
+    }
+
+    static CouponExpiryProperties expiryProperties() {
+        CouponExpiryProperties properties = new CouponExpiryProperties();
+        setField(properties, "timeToLive", Duration.ofMinutes(30));
+        setField(properties, "tickDuration", Duration.ofSeconds(1));
+        setField(properties, "wheelSize", 4096);
+        setField(properties, "batchSize", 1000);
+        setField(properties, "sweepTimeBudget", Duration.ofMillis(50));
+        return properties;
+    }
+
+    static CouponAckProperties ackProperties() {
+        CouponAckProperties properties = new CouponAckProperties();
+        setField(properties, "enabled", true);
+        setField(properties, "initialBackoff", Duration.ofSeconds(2));
+        setField(properties, "maxBackoff", Duration.ofSeconds(30));
+        setField(properties, "maxAttempts", 3);
+        return properties;
+    }
+
+    static SocketProperties socketProperties() {
+        SocketProperties properties = new SocketProperties();
+        setField(properties, "couponGiveResultTopicPrefix", GIVE_TOPIC_PREFIX);
+        setField(properties, "couponUseResultTopicPrefix", USE_TOPIC_PREFIX);
+        return properties;
+    }
+
+    static CouponResultMessageEncoder messageEncoder() {
+        return new CouponResultMessageEncoder(
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                socketProperties()
+        );
+    }
+
+    /**
+     * 전송된 메시지를 버리는 채널에 연결된 메시지 템플릿을 생성합니다.
+     */
+    static SimpMessagingTemplate discardingMessagingTemplate() {
+        return new SimpMessagingTemplate((message, timeout) -> true);
+    }
+
+    /**
+     * {@code @Value} 로 주입되는 설정 필드에 값을 채웁니다.
+     */
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set field " + name, e);
+        }
+    }
+
+    static CouponWebsocketMessageServiceImpl messageService(Clock clock) {
+        CouponExpiryProperties expiryProperties = expiryProperties();
+        MapCouponResultMessageRepository resultRepository = new MapCouponResultMessageRepository(
+                clock,
+                expiryProperties
+        );
+        MapCouponSocketConnectionRepository connectionRepository =
+                new MapCouponSocketConnectionRepository(clock, expiryProperties);
+        SimpMessagingTemplate messagingTemplate = discardingMessagingTemplate();
+        CouponResultMessageEncoder encoder = messageEncoder();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // 재전송 서비스가 메시지 서비스를 나중에 가져오도록 빈 팩토리를 거친다.
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+
+        CouponWebsocketMessageServiceImpl messageService = new CouponWebsocketMessageServiceImpl(
+                resultRepository,
+                connectionRepository,
+                messagingTemplate,
+                encoder,
+                clock,
+                new CouponAcknowledgementServiceImpl(
+                        new MapCouponInFlightMessageRepository(clock, expiryProperties),
+                        beanFactory.getBeanProvider(CouponWebsocketMessageService.class),
+                        new MapCouponSessionRepository(),
+                        messagingTemplate,
+                        encoder,
+                        ackProperties(),
+                        expiryProperties,
+                        clock,
+                        meterRegistry
+                ),
+                new CouponMessageMetrics(
+                        clock,
+                        socketProperties(),
+                        resultRepository,
+                        connectionRepository,
+                        meterRegistry
+                )
+        );
+        beanFactory.addBean("couponWebsocketMessageService", messageService);
+        return messageService;
+    }
+}
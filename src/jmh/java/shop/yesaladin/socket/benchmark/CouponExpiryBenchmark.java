@@ -0,0 +1,90 @@
+package shop.yesaladin.socket.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+import shop.yesaladin.socket.coupon.persistence.MapCouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponSocketConnectionRepository;
+
+/**
+ * 저장된 항목 수에 따른 만료 처리 비용을 측정합니다.
+ * <p>
+ * 반복마다 최근 60분 동안 고르게 분포된 {@code entryCount}개의 항목을 저장하므로 절반이 만료 대상입니다. 한 번의 호출로 만료
+ * 대상을 모두 제거하는 시간을 측정합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponExpiryBenchmark {
+
+    private static final int WINDOW_SECONDS = 3600;
+    private static final byte[] PAYLOAD = new byte[128];
+
+    @Param({"10000", "100000", "1000000"})
+    private int entryCount;
+
+    private Clock clock;
+    private LocalDateTime now;
+    private MapCouponResultMessageRepository resultRepository;
+    private MapCouponSocketConnectionRepository connectionRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        clock = Clock.fixed(Instant.parse("2023-02-19T12:00:00Z"), ZoneId.of("UTC"));
+        now = LocalDateTime.now(clock);
+
+        CouponExpiryProperties expiryProperties = BenchmarkFixtures.expiryProperties();
+        Clock populateClock = Clock.offset(clock, Duration.ofSeconds(-WINDOW_SECONDS));
+        resultRepository = new MapCouponResultMessageRepository(populateClock, expiryProperties);
+        connectionRepository = new MapCouponSocketConnectionRepository(
+                populateClock,
+                expiryProperties
+        );
+
+        for (int i = 0; i < entryCount; i++) {
+            String requestId = "requestId" + i;
+            LocalDateTime dateTime = now.minusSeconds(i % WINDOW_SECONDS);
+            resultRepository.save(new CouponResultMessage(
+                    requestId,
+                    BenchmarkFixtures.GIVE_TOPIC_PREFIX + requestId,
+                    dateTime,
+                    PAYLOAD
+            ));
+            connectionRepository.save(new CouponSocketConnection(requestId, dateTime));
+        }
+    }
+
+    @Benchmark
+    public int expireResults() {
+        return resultRepository.deleteAllExpired(now, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int expireConnections() {
+        return connectionRepository.deleteAllExpired(now, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,101 @@
+package shop.yesaladin.socket.benchmark;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.coupon.service.impl.CouponWebsocketMessageServiceImpl;
+
+/**
+ * 결과 메시지가 먼저 도착하는 경우와 소켓이 먼저 연결되는 경우의 전송 처리량을 측정합니다.
+ * <p>
+ * {@code *Contended} 벤치마크는 가용한 모든 스레드에서 같은 서비스와 레포지토리를 동시에 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponMessageDeliveryBenchmark {
+
+    private CouponWebsocketMessageServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = BenchmarkFixtures.messageService(Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    public void resultFirst(RequestIds requestIds) {
+        deliverResultFirst(requestIds.next());
+    }
+
+    @Benchmark
+    public void connectFirst(RequestIds requestIds) {
+        deliverConnectFirst(requestIds.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void resultFirstContended(RequestIds requestIds) {
+        deliverResultFirst(requestIds.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void connectFirstContended(RequestIds requestIds) {
+        deliverConnectFirst(requestIds.next());
+    }
+
+    private void deliverResultFirst(String requestId) {
+        service.trySendGiveCouponResultMessage(createResult(requestId));
+        service.registerConnection(requestId);
+    }
+
+    private void deliverConnectFirst(String requestId) {
+        service.registerConnection(requestId);
+        service.trySendGiveCouponResultMessage(createResult(requestId));
+    }
+
+    private static CouponResultDto createResult(String requestId) {
+        return new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                requestId,
+                true,
+                null,
+                LocalDateTime.now()
+        );
+    }
+
+    /**
+     * 스레드마다 겹치지 않는 request id 를 발급합니다.
+     */
+    @State(Scope.Thread)
+    public static class RequestIds {
+
+        private final String prefix = UUID.randomUUID().toString().substring(0, 24);
+        private long sequence;
+
+        String next() {
+            return prefix + sequence++;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package shop.yesaladin.socket.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 블로킹 작업을 플랫폼 스레드 풀과 가상 스레드에서 실행하는 비용을 비교합니다.
+ * <p>
+ * {@code platform} 은 현재 스케쥴러와 같이 코어 수의 2배 크기의 플랫폼 스레드 풀을, {@code virtual} 은 작업마다 가상 스레드를
+ * 사용합니다. 각 작업은 브로커 전송을 기다리는 것처럼 {@code blockMicros} 동안 멈추며, {@code taskCount}개의 작업이 모두
+ * 끝나는 시간을 측정합니다.
+ * <p>
+ * {@code virtual} 은 JDK 21 이상에서만 실행할 수 있으므로 기본 실행에서는 {@code platform} 만 측정합니다. JDK 21 에서
+ * {@code -Djmh.args="ThreadingModelBenchmark -p threading=platform,virtual"} 로 두 방식을 함께 측정합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingModelBenchmark {
+
+    @Param({"platform"})
+    private String threading;
+
+    @Param({"1000", "10000"})
+    private int taskCount;
+
+    @Param({"100", "1000"})
+    private long blockMicros;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threading)
+                ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public void runBlockingTasks() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            executor.execute(() -> {
+                block();
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    private void block() {
+        try {
+            TimeUnit.MICROSECONDS.sleep(blockMicros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        // jdk21 프로필 없이는 Java 11 로 컴파일되므로 JDK 21 API 는 리플렉션으로 호출한다.
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require JDK 21 or later", e);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package shop.yesaladin.socket.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.SocketApplication;
+import shop.yesaladin.socket.config.VirtualThreadSupport;
+
+/**
+ * 소켓 서버를 임의의 포트로 띄우고 STOMP 클라이언트와 결과 메시지 등록 요청으로 부하를 주는 부하 테스트입니다.
+ * <p>
+ * 클라이언트는 쿠폰 지급 결과 토픽을 구독하고 연결 메시지를 보낸 뒤 결과를 기다리며, 등록 스레드는 목표 속도에 맞추어 예정된
+ * 시각마다 결과 메시지를 등록합니다. 지연 시간은 실제로 보낸 시각이 아니라 예정된 시각부터 측정하여, 서버가 느려져 요청이 밀린
+ * 시간이 결과에서 빠지지 않도록 합니다(coordinated omission 보정).
+ * <ul>
+ *     <li>{@code register} : 예정 시각부터 등록 요청의 응답을 받기까지</li>
+ *     <li>{@code delivery} : 예정 시각부터 클라이언트가 결과 메시지를 받기까지</li>
+ * </ul>
+ * 외부 서비스 없이 JVM 내부 브로커와 로컬 저장소만 사용합니다. {@code virtual=true} 로 가상 스레드 모드와 기존 플랫폼
+ * 스레드 모드를 같은 부하로 비교할 수 있습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public final class CouponLoadTest {
+
+    private static final String GIVE_TOPIC_PREFIX = "/ws/topic/coupon/give/";
+    private static final String USE_TOPIC_PREFIX = "/ws/topic/coupon/use/";
+    private static final String CONNECT_DESTINATION = "/shop/coupon/give/result/connect/";
+
+    private final LoadTestOptions options;
+    private final String[] requestIds;
+    private final AtomicLongArray scheduledNanos;
+    private final CountDownLatch delivered;
+    private final AtomicInteger duplicates = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong lastDeliveryNanos = new AtomicLong();
+    private final LatencyReport registerLatency = new LatencyReport("register");
+    private final LatencyReport deliveryLatency = new LatencyReport("delivery");
+
+    private CouponLoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.requestIds = new String[options.getClients()];
+        for (int i = 0; i < requestIds.length; i++) {
+            requestIds[i] = UUID.randomUUID().toString();
+        }
+        this.scheduledNanos = new AtomicLongArray(options.getClients());
+        this.delivered = new CountDownLatch(options.getClients());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SocketApplication.class
+        ).run(
+                "--server.port=0",
+                // 설정 서버를 가져오는 application.yml 대신 아래 설정만 사용한다.
+                "--spring.config.name=loadtest",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.config.import-check.enabled=false",
+                "--spring.profiles.active=loadtest",
+                "--socket.topic-prefix.coupon-give-result=" + GIVE_TOPIC_PREFIX,
+                "--socket.topic-prefix.coupon-use-result=" + USE_TOPIC_PREFIX,
+                "--logging.level.shop.yesaladin=WARN",
+                "--" + VirtualThreadSupport.ENABLED_PROPERTY + "=" + options.isVirtualThreads()
+        );
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new CouponLoadTest(options).run(port, context.getBean(ObjectMapper.class));
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(int port, ObjectMapper objectMapper) throws Exception {
+        System.out.println("Load test: " + options);
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        // 결과 본문은 JSON 이지만 지연 시간만 재므로 바이트 배열 그대로 받는다.
+        stompClient.setMessageConverter(new SimpleMessageConverter());
+        stompClient.setInboundMessageSizeLimit(64 * 1024);
+
+        List<StompSession> sessions = connectAll(stompClient, "ws://localhost:" + port + "/ws");
+        try {
+            long startNanos = System.nanoTime();
+            produceAll(
+                    URI.create("http://localhost:" + port + "/v1/coupon-messages"),
+                    objectMapper
+            );
+            boolean completed = delivered.await(
+                    options.getTimeout().toNanos(),
+                    TimeUnit.NANOSECONDS
+            );
+            report(startNanos, completed);
+        } finally {
+            sessions.forEach(StompSession::disconnect);
+            stompClient.stop();
+        }
+    }
+
+    private List<StompSession> connectAll(WebSocketStompClient stompClient, String url)
+            throws InterruptedException {
+        List<StompSession> sessions = new ArrayList<>(requestIds.length);
+        CountDownLatch connected = new CountDownLatch(requestIds.length);
+
+        for (int i = 0; i < requestIds.length; i++) {
+            stompClient.connect(url, new ClientHandler(i, connected)).addCallback(
+                    session -> {
+                        synchronized (sessions) {
+                            sessions.add(session);
+                        }
+                    },
+                    e -> {
+                        failures.incrementAndGet();
+                        connected.countDown();
+                    }
+            );
+        }
+        if (!connected.await(options.getTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException(connected.getCount() + " clients did not connect");
+        }
+        System.out.println(sessions.size() + " clients connected, " + failures.get() + " failed");
+        return sessions;
+    }
+
+    private void produceAll(URI uri, ObjectMapper objectMapper) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ExecutorService producers = Executors.newFixedThreadPool(options.getProducers());
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long startNanos = System.nanoTime();
+
+        for (int producer = 0; producer < options.getProducers(); producer++) {
+            int first = producer;
+            producers.execute(() -> {
+                for (int i = first; i < requestIds.length; i += options.getProducers()) {
+                    long scheduled = startNanos + i * intervalNanos;
+                    waitUntil(scheduled);
+                    scheduledNanos.set(i, scheduled);
+                    register(httpClient, uri, objectMapper, requestIds[i]);
+                    registerLatency.record(System.nanoTime() - scheduled);
+                }
+            });
+        }
+        producers.shutdown();
+        producers.awaitTermination(options.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void register(
+            HttpClient httpClient,
+            URI uri,
+            ObjectMapper objectMapper,
+            String requestId
+    ) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new CouponResultDto(
+                    CouponSocketRequestKind.GIVE,
+                    requestId,
+                    true,
+                    null,
+                    LocalDateTime.now()
+            ));
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(
+                    request,
+                    HttpResponse.BodyHandlers.discarding()
+            );
+            if (response.statusCode() >= 300) {
+                failures.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private void report(long startNanos, boolean completed) throws Exception {
+        long received = requestIds.length - delivered.getCount();
+        double seconds = (lastDeliveryNanos.get() - startNanos)
+                / (double) TimeUnit.SECONDS.toNanos(1);
+
+        System.out.println((completed ? "All" : "Only " + received + " of " + requestIds.length)
+                + " results delivered"
+                + ", duplicates=" + duplicates.get()
+                + ", failures=" + failures.get());
+        System.out.printf("throughput=%.1f results/s%n", seconds > 0 ? received / seconds : 0);
+        registerLatency.print(System.out, options.getOutputDirectory());
+        deliveryLatency.print(System.out, options.getOutputDirectory());
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * 결과 토픽을 구독하고 연결 메시지를 보낸 뒤 결과 메시지를 받으면 지연 시간을 기록하는 클라이언트입니다.
+     */
+    private final class ClientHandler extends StompSessionHandlerAdapter {
+
+        private final int index;
+        private final CountDownLatch connected;
+        private final AtomicInteger received = new AtomicInteger();
+
+        private ClientHandler(int index, CountDownLatch connected) {
+            this.index = index;
+            this.connected = connected;
+        }
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            session.subscribe(GIVE_TOPIC_PREFIX + requestIds[index], new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    onResult();
+                }
+            });
+            session.send(CONNECT_DESTINATION + requestIds[index], new byte[0]);
+            connected.countDown();
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            failures.incrementAndGet();
+        }
+
+        private void onResult() {
+            long nowNanos = System.nanoTime();
+            if (received.incrementAndGet() > 1) {
+                duplicates.incrementAndGet();
+                return;
+            }
+            deliveryLatency.record(nowNanos - scheduledNanos.get(index));
+            lastDeliveryNanos.accumulateAndGet(nowNanos, Math::max);
+            delivered.countDown();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package shop.yesaladin.socket.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 한 구간의 지연 시간을 HdrHistogram 으로 기록하고 출력합니다.
+ * <p>
+ * 값은 요청을 보내기로 예정했던 시각부터 측정하므로, 서버가 느려져 요청이 밀려도 밀린 시간까지 지연 시간에 포함됩니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+final class LatencyReport {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+
+    LatencyReport(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos) {
+        recorder.recordValue(Math.max(0, latencyNanos));
+    }
+
+    /**
+     * 요약을 출력하고 전체 분포를 {@code loadtest-<name>.hgrm} 파일로 저장합니다.
+     *
+     * @param out             요약을 출력할 스트림
+     * @param outputDirectory 분포 파일을 저장할 디렉터리
+     * @throws IOException 분포 파일을 저장하지 못한 경우
+     */
+    void print(PrintStream out, Path outputDirectory) throws IOException {
+        Histogram histogram = recorder.getIntervalHistogram();
+        StringBuilder summary = new StringBuilder(name)
+                .append(": count=").append(histogram.getTotalCount());
+        for (double percentile : PERCENTILES) {
+            summary.append(", p").append(percentile).append('=')
+                    .append(toMillis(histogram.getValueAtPercentile(percentile))).append("ms");
+        }
+        summary.append(", max=").append(toMillis(histogram.getMaxValue())).append("ms");
+        out.println(summary);
+
+        Files.createDirectories(outputDirectory);
+        Path file = outputDirectory.resolve("loadtest-" + name + ".hgrm");
+        try (OutputStream stream = Files.newOutputStream(file);
+                PrintStream printStream = new PrintStream(stream, true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(printStream, NANOS_PER_MILLI);
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", nanos / NANOS_PER_MILLI);
+    }
+}
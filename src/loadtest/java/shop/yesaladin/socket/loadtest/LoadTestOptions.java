@@ -0,0 +1,81 @@
+package shop.yesaladin.socket.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * 부하 테스트 실행 옵션입니다. {@code clients=2000 rate=1000} 과 같이 {@code 이름=값} 형식으로 전달합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+final class LoadTestOptions {
+
+    /**
+     * 동시에 연결하는 STOMP 클라이언트 수. 클라이언트마다 결과 메시지를 하나씩 받습니다.
+     */
+    private final int clients;
+
+    /**
+     * 결과 메시지를 등록하는 목표 속도(초당 요청 수).
+     */
+    private final int rate;
+
+    /**
+     * 결과 메시지를 등록하는 스레드 수.
+     */
+    private final int producers;
+
+    /**
+     * 모든 클라이언트의 연결을 기다리는 시간과 모든 메시지의 전송을 기다리는 시간.
+     */
+    private final Duration timeout;
+
+    /**
+     * 지연 시간 분포(.hgrm)를 저장할 디렉터리.
+     */
+    private final Path outputDirectory;
+
+    /**
+     * 서버를 가상 스레드 모드로 실행할지 여부. {@code jdk21} 프로필로 빌드해야 적용됩니다.
+     */
+    private final boolean virtualThreads;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.clients = Integer.parseInt(values.getOrDefault("clients", "2000"));
+        this.rate = Integer.parseInt(values.getOrDefault("rate", "1000"));
+        this.producers = Integer.parseInt(values.getOrDefault("producers", "4"));
+        this.timeout = Duration.parse(values.getOrDefault("timeout", "PT60S"));
+        this.outputDirectory = Paths.get(values.getOrDefault("output", "target"));
+        this.virtualThreads = Boolean.parseBoolean(values.getOrDefault("virtual", "false"));
+        if (clients <= 0 || rate <= 0 || producers <= 0) {
+            throw new IllegalArgumentException("clients, rate and producers must be positive");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value but was " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    @Override
+    public String toString() {
+        return "clients=" + clients
+                + ", rate=" + rate + "/s"
+                + ", producers=" + producers
+                + ", timeout=" + timeout
+                + ", virtual=" + virtualThreads;
+    }
+}
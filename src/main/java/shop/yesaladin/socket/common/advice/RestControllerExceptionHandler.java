@@ -1,12 +1,15 @@
 package shop.yesaladin.socket.common.advice;
 
 import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import shop.yesaladin.common.dto.ResponseDto;
 import shop.yesaladin.common.exception.ClientException;
 import shop.yesaladin.common.exception.ServerException;
+import shop.yesaladin.socket.coupon.exception.CouponMessageQueueFullException;
 
 @RestControllerAdvice
 public class RestControllerExceptionHandler {
@@ -31,4 +34,19 @@ public class RestControllerExceptionHandler {
         return ResponseEntity.status(e.getResponseStatus()).body(responseDto);
     }
 
+    @ExceptionHandler(CouponMessageQueueFullException.class)
+    public ResponseEntity<ResponseDto<Void>> handleCouponMessageQueueFullException(
+            CouponMessageQueueFullException e
+    ) {
+        ResponseDto<Void> responseDto = ResponseDto.<Void>builder()
+                .success(false)
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .errorMessages(List.of(e.getMessage()))
+                .build();
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(responseDto);
+    }
+
 }
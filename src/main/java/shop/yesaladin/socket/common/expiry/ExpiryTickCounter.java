@@ -0,0 +1,103 @@
+package shop.yesaladin.socket.common.expiry;
+
+/**
+ * 만료 시각을 tick 단위로 세어, 저장소를 훑지 않고 만료된 항목 수를 구하는 카운터입니다.
+ * <p>
+ * 아직 지나지 않은 tick 별 항목 수를 링 배열에 세고, tick 이 지나면 그 수를 만료된 항목 수에 더합니다. 링 배열보다 먼
+ * 만료 시각은 링 배열의 마지막 tick 으로 셉니다. 항목마다 {@link #add(long, long)} 가 반환한 tick 을 보관했다가 항목을
+ * 삭제할 때 {@link #remove(long)} 에 전달해야 합니다.
+ * <p>
+ * 스레드 안전하지 않으므로 저장소의 잠금 안에서 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public class ExpiryTickCounter {
+
+    private static final int MAXIMUM_RING_SIZE = 1 << 20;
+
+    private final long tickMillis;
+    private final int[] dueCounts;
+    private final int mask;
+    private long foldedTick;
+    private int expired;
+
+    /**
+     * 카운터를 생성합니다.
+     *
+     * @param tickMillis    tick 한 칸의 길이(ms)
+     * @param horizonMillis 링 배열로 구분할 가장 먼 만료 시각까지의 길이(ms). 보통 만료 기간입니다.
+     * @param startMillis   카운터가 시작하는 시각(epoch ms)
+     */
+    public ExpiryTickCounter(long tickMillis, long horizonMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        int ticks = (int) Math.min(horizonMillis / tickMillis + 2, MAXIMUM_RING_SIZE);
+        int size = Integer.highestOneBit(ticks);
+        if (size < ticks) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.dueCounts = new int[size];
+        this.mask = size - 1;
+        this.foldedTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * 만료 시각을 가진 항목을 셉니다.
+     *
+     * @param deadlineMillis 항목의 만료 시각(epoch ms)
+     * @param nowMillis      현재 시각(epoch ms)
+     * @return 항목을 센 tick. 항목을 삭제할 때 {@link #remove(long)} 에 전달합니다.
+     */
+    public long add(long deadlineMillis, long nowMillis) {
+        fold(Math.floorDiv(nowMillis, tickMillis));
+        long tick = Math.floorDiv(deadlineMillis, tickMillis);
+        if (tick <= foldedTick) {
+            expired++;
+            return tick;
+        }
+        long countedTick = Math.min(tick, foldedTick + dueCounts.length);
+        dueCounts[(int) (countedTick & mask)]++;
+        return countedTick;
+    }
+
+    /**
+     * 삭제한 항목을 셈에서 뺍니다.
+     *
+     * @param countedTick 항목을 셀 때 {@link #add(long, long)} 가 반환한 tick
+     */
+    public void remove(long countedTick) {
+        if (countedTick <= foldedTick) {
+            expired--;
+        } else {
+            dueCounts[(int) (countedTick & mask)]--;
+        }
+    }
+
+    /**
+     * 현재 시각까지 만료된 항목 수를 반환합니다.
+     * <p>
+     * tick 단위로 세므로 현재 tick 안에서 아직 만료되지 않은 항목도 포함한 상한값입니다.
+     *
+     * @param nowMillis 현재 시각(epoch ms)
+     * @return 만료된 항목 수
+     */
+    public int countExpired(long nowMillis) {
+        fold(Math.floorDiv(nowMillis, tickMillis));
+        return expired;
+    }
+
+    private void fold(long nowTick) {
+        if (nowTick <= foldedTick) {
+            return;
+        }
+        for (long tick = Math.max(foldedTick + 1, nowTick - mask); tick <= nowTick; tick++) {
+            int bucket = (int) (tick & mask);
+            expired += dueCounts[bucket];
+            dueCounts[bucket] = 0;
+        }
+        foldedTick = nowTick;
+    }
+}
@@ -0,0 +1,175 @@
+package shop.yesaladin.socket.common.expiry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 키마다 만료 시각을 가지는 해시 타이밍 휠입니다.
+ * <p>
+ * 만료 시각을 tick 단위로 나누어 버킷에 배치하고, {@link #expire(long, int, Consumer)} 호출 시 마지막으로 처리한 tick 이후의 버킷만
+ * 확인합니다. 휠 한 바퀴보다 먼 만료 시각을 가진 키는 같은 버킷에 남아 있다가 만료 시각이 지난 뒤 처리됩니다.
+ * <p>
+ * 키 단위의 등록 / 취소는 여러 스레드에서 동시에 호출할 수 있으며, 만료 처리는 한 번에 하나의 스레드만 수행합니다.
+ *
+ * @param <K> 만료 대상 키의 타입
+ * @author 김홍대
+ * @since 1.0
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Set<K>[] buckets;
+    private final Map<K, Timeout> timeoutMap = new ConcurrentHashMap<>();
+    private volatile long lastExpiredTick;
+
+    /**
+     * 타이밍 휠을 생성합니다.
+     *
+     * @param tickMillis  tick 한 칸의 길이(ms)
+     * @param wheelSize   버킷 수. 2의 거듭제곱으로 올림됩니다.
+     * @param startMillis 휠이 시작하는 시각(epoch ms)
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be positive: " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Set[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.lastExpiredTick = startMillis / tickMillis - 1;
+    }
+
+    /**
+     * 키의 만료 시각을 등록합니다. 이미 등록된 키라면 만료 시각을 갱신합니다.
+     *
+     * @param key            만료 대상 키
+     * @param deadlineMillis 만료 시각(epoch ms)
+     */
+    public void schedule(K key, long deadlineMillis) {
+        timeoutMap.compute(key, (k, previous) -> {
+            if (Objects.nonNull(previous)) {
+                buckets[previous.bucket].remove(k);
+            }
+            Timeout timeout = new Timeout(deadlineMillis, bucketIndexOf(deadlineMillis));
+            buckets[timeout.bucket].add(k);
+            return timeout;
+        });
+    }
+
+    /**
+     * 키의 만료 등록을 취소합니다.
+     *
+     * @param key 만료 대상 키
+     */
+    public void cancel(K key) {
+        timeoutMap.computeIfPresent(key, (k, previous) -> {
+            buckets[previous.bucket].remove(k);
+            return null;
+        });
+    }
+
+    /**
+     * 현재 시각까지 만료된 키를 최대 {@code limit}개까지 휠에서 제거하고 콜백에 전달합니다.
+     * <p>
+     * 한도에 도달하면 처리 중이던 tick부터 다음 호출에서 이어서 처리합니다.
+     *
+     * @param nowMillis 현재 시각(epoch ms)
+     * @param limit     한 번에 만료 처리할 최대 키의 수
+     * @param action    만료된 키를 전달받을 콜백
+     * @return 만료 처리된 키의 수
+     */
+    public synchronized int expire(long nowMillis, int limit, Consumer<K> action) {
+        long nowTick = nowMillis / tickMillis;
+        int expired = 0;
+
+        for (long tick = firstDueTick(nowTick); tick <= nowTick; tick++) {
+            for (K key : buckets[(int) (tick & mask)]) {
+                if (expired >= limit) {
+                    lastExpiredTick = tick - 1;
+                    return expired;
+                }
+                if (removeIfExpired(key, nowMillis)) {
+                    action.accept(key);
+                    expired++;
+                }
+            }
+        }
+        lastExpiredTick = Math.max(lastExpiredTick, nowTick);
+        return expired;
+    }
+
+    /**
+     * 아직 처리되지 않은 만료 대상 버킷에 남아 있는 키의 수를 반환합니다.
+     * <p>
+     * 휠 한 바퀴 뒤에 만료될 키도 같은 버킷에 있다면 함께 세므로 상한값입니다.
+     *
+     * @param nowMillis 현재 시각(epoch ms)
+     * @return 처리 대기 중인 키의 수
+     */
+    public int countDue(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        int count = 0;
+
+        for (long tick = firstDueTick(nowTick); tick <= nowTick; tick++) {
+            count += buckets[(int) (tick & mask)].size();
+        }
+        return count;
+    }
+
+    /**
+     * 만료 등록된 키의 수를 반환합니다.
+     *
+     * @return 등록된 키의 수
+     */
+    public int size() {
+        return timeoutMap.size();
+    }
+
+    private long firstDueTick(long nowTick) {
+        return Math.max(lastExpiredTick + 1, nowTick - mask);
+    }
+
+    private boolean removeIfExpired(K key, long nowMillis) {
+        boolean[] removed = new boolean[1];
+        timeoutMap.computeIfPresent(key, (k, timeout) -> {
+            if (timeout.deadlineMillis > nowMillis) {
+                return timeout;
+            }
+            buckets[timeout.bucket].remove(k);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private int bucketIndexOf(long deadlineMillis) {
+        // 이미 지나간 tick의 버킷에 넣으면 휠이 한 바퀴 돌 때까지 처리되지 않으므로 다음 처리 대상 tick으로 당긴다.
+        // 만료 처리와 경합하여 방금 처리된 버킷에 들어가더라도 최대 휠 한 바퀴 뒤에는 처리된다.
+        long tick = Math.max(deadlineMillis / tickMillis, lastExpiredTick + 1);
+        return (int) (tick & mask);
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Timeout {
+
+        private final long deadlineMillis;
+        private final int bucket;
+    }
+}
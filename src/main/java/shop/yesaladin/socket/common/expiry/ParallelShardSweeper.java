@@ -0,0 +1,102 @@
+package shop.yesaladin.socket.common.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * 여러 shard 의 만료 처리를 병렬로 수행하는 클래스입니다.
+ * <p>
+ * 한도를 아직 만료 대상이 남아 있을 수 있는 shard 에 나누어 만료 처리 전용 실행기에서 동시에 처리하고, 배정받은 몫을 모두 채운
+ * shard 에만 남은 한도를 다시 나누어 줍니다. 따라서 전체 만료 처리 수는 한도를 넘지 않으며, 한도와 같다면 만료 대상이 남아 있을
+ * 수 있습니다. 한도가 shard 수보다 작으면 일부 shard 만 처리하므로, 호출할 때마다 첫 shard 를 하나씩 옮겨 모든 shard 가 차례로
+ * 처리되도록 합니다.
+ * <p>
+ * 실행기가 작업을 거부하면(종료 중 등) 호출한 스레드에서 처리합니다. shard 의 값을 더하는 작업은 가벼우므로 호출한 스레드에서
+ * 차례로 수행합니다.
+ *
+ * @param <S> shard 의 타입
+ * @author 김홍대
+ * @since 1.0
+ */
+public final class ParallelShardSweeper<S> {
+
+    private final List<S> shards;
+    private final Executor executor;
+    private final AtomicInteger nextStart = new AtomicInteger();
+
+    public ParallelShardSweeper(List<S> shards, Executor executor) {
+        this.shards = List.copyOf(shards);
+        this.executor = executor;
+    }
+
+    /**
+     * 모든 shard 에서 만료된 항목을 최대 {@code limit}개까지 제거합니다.
+     *
+     * @param limit       한 번에 만료 처리할 최대 항목 수
+     * @param deleteBatch shard 와 그 shard 의 한도를 받아 만료 처리한 항목 수를 반환하는 함수
+     * @return 만료 처리된 항목 수
+     */
+    public int sweep(int limit, ToIntBiFunction<S, Integer> deleteBatch) {
+        List<S> saturated = rotatedShards();
+        int remaining = limit;
+
+        while (remaining > 0 && !saturated.isEmpty()) {
+            List<S> candidates = saturated.size() > remaining
+                    ? saturated.subList(0, remaining)
+                    : saturated;
+            int share = remaining / candidates.size();
+
+            List<CompletableFuture<Integer>> deleted = new ArrayList<>(candidates.size());
+            for (S shard : candidates) {
+                deleted.add(submit(() -> deleteBatch.applyAsInt(shard, share)));
+            }
+
+            saturated = new ArrayList<>();
+            for (int i = 0; i < deleted.size(); i++) {
+                int shardDeleted = deleted.get(i).join();
+                remaining -= shardDeleted;
+                if (shardDeleted == share) {
+                    saturated.add(candidates.get(i));
+                }
+            }
+        }
+        return limit - remaining;
+    }
+
+    /**
+     * 모든 shard 의 값을 구해 더합니다.
+     *
+     * @param count shard 의 값을 구하는 함수
+     * @return 모든 shard 의 값의 합
+     */
+    public int sum(ToIntFunction<S> count) {
+        int sum = 0;
+        for (S shard : shards) {
+            sum += count.applyAsInt(shard);
+        }
+        return sum;
+    }
+
+    private List<S> rotatedShards() {
+        int start = Math.floorMod(nextStart.getAndIncrement(), shards.size());
+        List<S> rotated = new ArrayList<>(shards.size());
+        rotated.addAll(shards.subList(start, shards.size()));
+        rotated.addAll(shards.subList(0, start));
+        return rotated;
+    }
+
+    private CompletableFuture<Integer> submit(Supplier<Integer> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+    }
+}
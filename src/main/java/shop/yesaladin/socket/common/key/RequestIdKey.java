@@ -0,0 +1,171 @@
+package shop.yesaladin.socket.common.key;
+
+import java.util.Objects;
+
+/**
+ * 저장소의 키로 사용하는 request id 입니다.
+ * <p>
+ * {@link java.util.UUID#toString()} 과 같은 소문자 UUID 형식의 request id 는 두 개의 {@code long}(16 바이트)으로 바꾸어
+ * 보관하고, 그 외의 request id 는 문자열로 보관합니다. 해시는 생성 시 한 번만 계산하며, 문자열로 되돌리면 원래의 request id
+ * 와 같습니다. 대문자가 섞인 UUID 는 소문자 UUID 와 다른 request id 이므로 문자열로 보관합니다.
+ * <p>
+ * 연결 시각만 기본형 배열에 보관하고 request id 는 키에서 되살리는 저장소처럼, request id 문자열을 따로 보관하지 않는 곳에서
+ * 사용합니다. 값이 request id 문자열을 함께 가지는 저장소에서는 키 객체만큼 메모리가 늘어날 뿐이므로 문자열을 그대로 키로 씁니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public final class RequestIdKey {
+
+    private static final int UUID_LENGTH = 36;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final String stringKey;
+    private final int hash;
+
+    private RequestIdKey(
+            long mostSignificantBits,
+            long leastSignificantBits,
+            String stringKey,
+            int hash
+    ) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.stringKey = stringKey;
+        this.hash = hash;
+    }
+
+    /**
+     * request id 를 키로 바꿉니다.
+     *
+     * @param requestId 바꿀 request id
+     * @return request id 의 키
+     * @since 1.0
+     */
+    public static RequestIdKey of(String requestId) {
+        if (isUuid(requestId)) {
+            long most = parseHex(requestId, 0, 18);
+            long least = parseHex(requestId, 19, UUID_LENGTH);
+            return new RequestIdKey(most, least, null, spread(Long.hashCode(most ^ least)));
+        }
+        return new RequestIdKey(0L, 0L, requestId, spread(requestId.hashCode()));
+    }
+
+    /**
+     * 키가 UUID 형식의 request id 인지 확인합니다.
+     *
+     * @return UUID 형식이면 true, 문자열로 보관한 키이면 false
+     * @since 1.0
+     */
+    public boolean isUuid() {
+        return Objects.isNull(stringKey);
+    }
+
+    /**
+     * UUID 키의 상위 64비트를 반환합니다. 문자열 키이면 0 입니다.
+     *
+     * @return UUID 의 상위 64비트
+     * @since 1.0
+     */
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    /**
+     * UUID 키의 하위 64비트를 반환합니다. 문자열 키이면 0 입니다.
+     *
+     * @return UUID 의 하위 64비트
+     * @since 1.0
+     */
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RequestIdKey)) {
+            return false;
+        }
+        RequestIdKey other = (RequestIdKey) o;
+        return hash == other.hash
+                && mostSignificantBits == other.mostSignificantBits
+                && leastSignificantBits == other.leastSignificantBits
+                && Objects.equals(stringKey, other.stringKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * 원래의 request id 를 반환합니다.
+     *
+     * @return request id
+     */
+    @Override
+    public String toString() {
+        return isUuid() ? toUuidString() : stringKey;
+    }
+
+    private String toUuidString() {
+        char[] chars = new char[UUID_LENGTH];
+        writeHex(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, leastSignificantBits, 12);
+        return new String(chars);
+    }
+
+    private static int spread(int hashCode) {
+        int spread = hashCode * 0x9E3779B9;
+        return spread ^ (spread >>> 16);
+    }
+
+    private static boolean isUuid(String requestId) {
+        if (requestId.length() != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = requestId.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !isLowerHexDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLowerHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+    }
+
+    private static long parseHex(String value, int from, int to) {
+        long bits = 0L;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c != '-') {
+                bits = (bits << 4) | Character.digit(c, 16);
+            }
+        }
+        return bits;
+    }
+
+    private static void writeHex(char[] chars, int offset, long bits, int digits) {
+        long remaining = bits;
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX_DIGITS[(int) remaining & 0xF];
+            remaining >>>= 4;
+        }
+    }
+}
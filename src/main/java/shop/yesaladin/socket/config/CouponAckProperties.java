@@ -0,0 +1,33 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 쿠폰 결과 메시지의 수신 확인(ack)과 재전송 설정을 가져옵니다.
+ * <p>
+ * {@code socket.coupon.ack.enabled} 가 {@code true} 이면 전송한 메시지를 클라이언트의 ack 가 올 때까지 보관하고,
+ * {@code initial-backoff} 부터 두 배씩 늘린 간격({@code max-backoff} 이하)으로 최대 {@code max-attempts} 번까지
+ * 전송합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class CouponAckProperties {
+
+    @Value("${socket.coupon.ack.enabled:false}")
+    private boolean enabled;
+
+    @Value("${socket.coupon.ack.initial-backoff:PT2S}")
+    private Duration initialBackoff;
+
+    @Value("${socket.coupon.ack.max-backoff:PT30S}")
+    private Duration maxBackoff;
+
+    @Value("${socket.coupon.ack.max-attempts:5}")
+    private int maxAttempts;
+}
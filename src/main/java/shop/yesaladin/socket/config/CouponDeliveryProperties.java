@@ -0,0 +1,35 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 쿠폰 결과 메시지 전송 파이프라인 설정을 가져옵니다.
+ * <p>
+ * {@code socket.coupon.delivery.mode} 가 {@code sync}(기본값)이면 요청 스레드에서 바로 전송하고, {@code async} 이면 크기가
+ * 제한된 큐에 넣은 뒤 전송 전용 스레드가 묶음 단위로 꺼내 전송합니다. 스레드 수가 0 이면 코어 수를 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class CouponDeliveryProperties {
+
+    @Value("${socket.coupon.delivery.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${socket.coupon.delivery.worker-count:0}")
+    private int workerCount;
+
+    @Value("${socket.coupon.delivery.batch-size:256}")
+    private int batchSize;
+
+    @Value("${socket.coupon.delivery.retry-after:PT1S}")
+    private Duration retryAfter;
+
+    @Value("${socket.coupon.delivery.shutdown-timeout:PT10S}")
+    private Duration shutdownTimeout;
+}
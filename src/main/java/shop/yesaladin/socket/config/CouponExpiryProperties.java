@@ -0,0 +1,32 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 쿠폰 결과 메시지와 소켓 연결 정보의 만료 설정을 가져옵니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class CouponExpiryProperties {
+
+    @Value("${socket.coupon.expiry.time-to-live:PT30M}")
+    private Duration timeToLive;
+
+    @Value("${socket.coupon.expiry.tick-duration:PT1S}")
+    private Duration tickDuration;
+
+    @Value("${socket.coupon.expiry.wheel-size:4096}")
+    private int wheelSize;
+
+    @Value("${socket.coupon.expiry.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${socket.coupon.expiry.sweep-time-budget:PT0.05S}")
+    private Duration sweepTimeBudget;
+}
@@ -0,0 +1,38 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 전송되지 않은 쿠폰 결과 메시지를 기록하는 저널 설정을 가져옵니다.
+ * <p>
+ * {@code socket.coupon.journal.enabled} 가 {@code true} 이면 결과 메시지를 저장할 때마다 저널 파일 끝에 기록하고, 서버가 다시
+ * 시작될 때 마지막 스냅숏과 그 이후의 저널만 읽어 만료되지 않은 메시지를 복원합니다. {@code fsync} 가 {@code true} 이면 저장 요청은
+ * 디스크에 기록될 때까지 기다리며, 동시에 들어온 요청은 한 번의 fsync 로 함께 기록됩니다. 스냅숏은 주기마다 확인하여 마지막 스냅숏 이후의
+ * 저널이 최소 크기를 넘었을 때 만듭니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class CouponJournalProperties {
+
+    @Value("${socket.coupon.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${socket.coupon.journal.directory:data/coupon-journal}")
+    private String directory;
+
+    @Value("${socket.coupon.journal.fsync:true}")
+    private boolean fsync;
+
+    @Value("${socket.coupon.journal.snapshot-min-journal-size:16MB}")
+    private DataSize snapshotMinJournalSize;
+
+    @Value("${socket.coupon.journal.snapshot-interval:PT1M}")
+    private Duration snapshotInterval;
+}
@@ -0,0 +1,39 @@
+package shop.yesaladin.socket.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 쿠폰 결과 메시지 저장소의 용량 설정을 가져옵니다.
+ * <p>
+ * {@code socket.coupon.result-store.type} 이 {@code bounded} 일 때 사용됩니다. 최대 용량(byte)이 0보다 크면 항목의
+ * 예상 크기를 기준으로, 그렇지 않으면 항목 수를 기준으로 제한합니다.
+ * <p>
+ * {@code off-heap.*} 설정은 {@code socket.coupon.result-store.type} 이 {@code off-heap} 일 때 사용됩니다.
+ * 세그먼트 수는 2의 거듭제곱으로 올림되며, 세그먼트마다 초기 크기의 direct 버퍼와 인덱스를 가지고 필요에 따라 두 배씩
+ * 늘립니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class CouponResultStoreProperties {
+
+    @Value("${socket.coupon.result-store.maximum-size:1000000}")
+    private long maximumSize;
+
+    @Value("${socket.coupon.result-store.maximum-weight-bytes:0}")
+    private long maximumWeightBytes;
+
+    @Value("${socket.coupon.result-store.off-heap.segments:64}")
+    private int offHeapSegments;
+
+    @Value("${socket.coupon.result-store.off-heap.initial-segment-size:64KB}")
+    private DataSize offHeapInitialSegmentSize;
+
+    @Value("${socket.coupon.result-store.off-heap.initial-segment-capacity:1024}")
+    private int offHeapInitialSegmentCapacity;
+}
@@ -0,0 +1,33 @@
+package shop.yesaladin.socket.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 결과 메시지와 소켓 연결 정보를 나누어 저장하는 shard 설정을 가져옵니다.
+ * <p>
+ * {@code socket.coupon.result-store.type} 혹은 {@code socket.coupon.connection-store.type} 이
+ * {@code sharded} 일 때 사용됩니다. shard 수는 2의 거듭제곱으로 올림되며, 0 이면 코어 수를 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class CouponShardingProperties {
+
+    @Value("${socket.coupon.sharding.shard-count:0}")
+    private int shardCount;
+
+    /**
+     * 실제로 사용할 shard 수를 반환합니다.
+     *
+     * @return 2의 거듭제곱으로 올림한 shard 수
+     */
+    public int resolveShardCount() {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        int size = Integer.highestOneBit(count);
+        return size < count ? size << 1 : size;
+    }
+}
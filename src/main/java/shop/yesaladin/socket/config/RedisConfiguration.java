@@ -0,0 +1,74 @@
+package shop.yesaladin.socket.config;
+
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration.LettuceClientConfigurationBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 쿠폰 결과 메시지 혹은 소켓 연결 정보를 Redis 에 저장할 때 사용하는 Configuration 클래스입니다.
+ * <p>
+ * 로컬 저장소만 사용하는 노드가 Redis 연결과 health check 에 의존하지 않도록 Redis 자동 설정 대신 저장소 종류가
+ * {@code redis} 일 때만 연결을 생성합니다. 연결 정보는 {@code spring.redis.*} 설정을 사용합니다.
+ * <p>
+ * Redis 저장소는 여러 노드가 함께 사용하므로 {@code socket.websocket.broker.type} 을 {@code relay} 로 함께 설정해야 합니다.
+ * JVM 내부 브로커를 사용하면 다른 노드에 연결된 클라이언트의 메시지를 GETDEL 로 가져간 노드가 자신의 구독자에게만 전송하므로
+ * 메시지가 유실됩니다. 노드가 하나뿐인 경우에만 의미가 있으므로 시작할 때 경고를 남깁니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("'${socket.coupon.result-store.type:map}' == 'redis'"
+        + " or '${socket.coupon.connection-store.type:map}' == 'redis'")
+@EnableConfigurationProperties(RedisProperties.class)
+public class RedisConfiguration {
+
+    public RedisConfiguration(WebSocketBrokerProperties brokerProperties) {
+        if (!brokerProperties.isRelay()) {
+            log.warn(
+                    "Redis coupon stores are shared across nodes but {} is not {}. "
+                            + "Messages taken by a node the client is not connected to "
+                            + "will be lost.",
+                    WebSocketBrokerProperties.TYPE_PROPERTY,
+                    WebSocketBrokerProperties.RELAY
+            );
+        }
+    }
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory(RedisProperties redisProperties) {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                redisProperties.getHost(),
+                redisProperties.getPort()
+        );
+        configuration.setDatabase(redisProperties.getDatabase());
+        configuration.setUsername(redisProperties.getUsername());
+        configuration.setPassword(RedisPassword.of(redisProperties.getPassword()));
+
+        LettuceClientConfigurationBuilder clientConfiguration = LettuceClientConfiguration.builder();
+        if (Objects.nonNull(redisProperties.getTimeout())) {
+            clientConfiguration.commandTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.isSsl()) {
+            clientConfiguration.useSsl();
+        }
+        return new LettuceConnectionFactory(configuration, clientConfiguration.build());
+    }
+
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        return new StringRedisTemplate(redisConnectionFactory);
+    }
+}
@@ -0,0 +1,24 @@
+package shop.yesaladin.socket.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * 웹소켓 메시지 브로커가 relay 모드일 때만 빈을 등록하는 조건입니다.
+ * <p>
+ * {@link WebSocketBrokerProperties#isRelay()} 와 같은 기준으로 판단하므로 relay 브로커 설정과 relay 자원의 생성 여부가
+ * 어긋나지 않습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+class RelayBrokerCondition implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        return WebSocketBrokerProperties.isRelay(
+                context.getEnvironment().getProperty(WebSocketBrokerProperties.TYPE_PROPERTY)
+        );
+    }
+}
@@ -1,16 +1,37 @@
 package shop.yesaladin.socket.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
 /**
  * 스케쥴러와 관련된 설정을 정의하는 configuration 클래스입니다.
+ * <p>
+ * {@code @Scheduled} 작업은 플랫폼 스레드 스케쥴러 빈에서, {@code @Async} 작업은 큐 크기가 제한된 별도의 실행기 빈에서
+ * 실행합니다. 두 빈은 Spring 이 초기화하고 종료하며, 종료 시 실행 중인 작업이 끝나기를 기다립니다. 비동기 실행기의 큐 길이,
+ * 실행 중인 스레드 수, 거부된 작업 수는 메트릭으로 노출합니다. 크기와 종료 대기 시간은 {@link SchedulerProperties} 를
+ * 따릅니다.
+ * <p>
+ * {@link VirtualThreadSupport} 빈이 있으면 {@code @Async} 작업은 작업마다 가상 스레드에서 실행합니다.
+ * <p>
+ * shard 로 나눈 저장소의 만료 처리는 공용 ForkJoinPool 을 다른 작업과 나누어 쓰지 않도록 별도의 실행기 빈에서 실행합니다.
  *
  * @author 김홍대
  * @since 1.0
@@ -18,23 +39,106 @@ import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 @Configuration
 @EnableAsync
 @EnableScheduling
+@RequiredArgsConstructor
 public class SchedulerConfiguration implements AsyncConfigurer, SchedulingConfigurer {
 
-    public ThreadPoolTaskScheduler threadPoolTaskScheduler() {
+    public static final String EXPIRY_SWEEP_EXECUTOR = "couponExpirySweepExecutor";
+
+    private final SchedulerProperties schedulerProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<VirtualThreadSupport> virtualThreadSupportProvider;
+
+    @Bean
+    public ThreadPoolTaskScheduler socketTaskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        scheduler.setPoolSize(schedulerProperties.getSchedulerPoolSize());
         scheduler.setThreadNamePrefix("SOCKET-SCHEDULER-");
-        scheduler.initialize();
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationMillis(
+                schedulerProperties.getSchedulerAwaitTermination().toMillis()
+        );
         return scheduler;
     }
 
+    @Bean
+    public ThreadPoolTaskExecutor socketAsyncExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int corePoolSize = schedulerProperties.getAsyncCorePoolSize() > 0
+                ? schedulerProperties.getAsyncCorePoolSize()
+                : cores;
+        int maxPoolSize = schedulerProperties.getAsyncMaxPoolSize() > 0
+                ? schedulerProperties.getAsyncMaxPoolSize()
+                : cores * 2;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("SOCKET-ASYNC-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        executor.setQueueCapacity(schedulerProperties.getAsyncQueueCapacity());
+        executor.setKeepAliveSeconds(
+                Math.toIntExact(schedulerProperties.getAsyncKeepAlive().getSeconds())
+        );
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(
+                schedulerProperties.getAsyncAwaitTermination().toMillis()
+        );
+
+        Counter rejected = Counter.builder("socket.async.rejected")
+                .description("작업 큐가 가득 차 비동기 실행기가 거부한 작업 수")
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = schedulerProperties.isAsyncAbortOnRejection()
+                ? new AbortPolicy()
+                : new CallerRunsPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, pool);
+        });
+        Gauge.builder("socket.async.queue.depth", executor, SchedulerConfiguration::queueDepthOf)
+                .description("비동기 실행기의 큐에서 대기 중인 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("socket.async.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("비동기 작업을 실행 중인 스레드 수")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    @Bean(EXPIRY_SWEEP_EXECUTOR)
+    public ThreadPoolTaskExecutor couponExpirySweepExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("SOCKET-EXPIRY-");
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(
+                schedulerProperties.getSchedulerAwaitTermination().toMillis()
+        );
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
-        return this.threadPoolTaskScheduler();
+        VirtualThreadSupport virtualThreadSupport = virtualThreadSupportProvider.getIfAvailable();
+        if (Objects.nonNull(virtualThreadSupport)) {
+            return new TaskExecutorAdapter(
+                    virtualThreadSupport.newThreadPerTaskExecutor("SOCKET-ASYNC-")
+            );
+        }
+        return socketAsyncExecutor();
     }
 
     @Override
     public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
-        taskRegistrar.setTaskScheduler(this.threadPoolTaskScheduler());
+        taskRegistrar.setTaskScheduler(socketTaskScheduler());
+    }
+
+    private static double queueDepthOf(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException e) {
+            return 0;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code @Scheduled} 스케쥴러와 {@code @Async} 실행기의 크기와 종료 설정을 가져옵니다.
+ * <p>
+ * 스케쥴러 스레드 수의 기본값은 등록된 {@code @Scheduled} 작업 수와 같은 4 입니다. 비동기 실행기는 {@code core-pool-size}
+ * 개의 스레드로 시작해 큐가 가득 차면 {@code max-pool-size} 까지 늘린 뒤 거부 정책({@code caller-runs} 또는
+ * {@code abort})을 적용하며, 스레드 수가 0 이면 각각 코어 수와 코어 수의 2배를 사용합니다. 종료 시에는 실행 중인 작업을
+ * {@code await-termination} 동안 기다립니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class SchedulerProperties {
+
+    public static final String ABORT = "abort";
+
+    @Value("${socket.scheduler.pool-size:4}")
+    private int schedulerPoolSize;
+
+    @Value("${socket.scheduler.await-termination:PT30S}")
+    private Duration schedulerAwaitTermination;
+
+    @Value("${socket.async.core-pool-size:0}")
+    private int asyncCorePoolSize;
+
+    @Value("${socket.async.max-pool-size:0}")
+    private int asyncMaxPoolSize;
+
+    @Value("${socket.async.queue-capacity:1000}")
+    private int asyncQueueCapacity;
+
+    @Value("${socket.async.keep-alive:PT60S}")
+    private Duration asyncKeepAlive;
+
+    @Value("${socket.async.rejection-policy:caller-runs}")
+    private String asyncRejectionPolicy;
+
+    @Value("${socket.async.await-termination:PT30S}")
+    private Duration asyncAwaitTermination;
+
+    public boolean isAsyncAbortOnRejection() {
+        return ABORT.equalsIgnoreCase(asyncRejectionPolicy);
+    }
+}
@@ -0,0 +1,74 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+
+/**
+ * 외부 STOMP 브로커로 중계할 때 사용하는 연결 풀과 이벤트 루프를 만들고 종료하는 클래스입니다.
+ * <p>
+ * {@link ReactorNettyTcpClient} 는 외부에서 받은 {@link TcpClient} 의 자원을 해제하지 않으므로, 브로커 relay 가 종료된 뒤
+ * 빈이 소멸될 때 연결 풀과 이벤트 루프를 직접 해제합니다. {@code relay.max-connections} 가 0 이하이면 풀 없는 연결을
+ * 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+@Conditional(RelayBrokerCondition.class)
+public class StompBrokerRelayResources implements DisposableBean {
+
+    private static final String NAME = "stomp-broker-relay";
+    private static final Duration DISPOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebSocketBrokerProperties brokerProperties;
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+
+    public StompBrokerRelayResources(WebSocketBrokerProperties brokerProperties) {
+        this.brokerProperties = brokerProperties;
+        this.connectionProvider = createConnectionProvider(brokerProperties);
+        int ioWorkerCount = brokerProperties.getIoWorkerCount() > 0
+                ? brokerProperties.getIoWorkerCount()
+                : Runtime.getRuntime().availableProcessors();
+        this.loopResources = LoopResources.create(NAME, ioWorkerCount, true);
+    }
+
+    /**
+     * 연결 풀과 이벤트 루프를 사용하는 브로커 relay 용 TCP 클라이언트를 만듭니다.
+     *
+     * @return 브로커 relay 용 TCP 클라이언트
+     * @since 1.0
+     */
+    public ReactorNettyTcpClient<byte[]> createTcpClient() {
+        TcpClient tcpClient = TcpClient.create(connectionProvider)
+                .host(brokerProperties.getRelayHost())
+                .port(brokerProperties.getRelayPort())
+                .runOn(loopResources, false);
+        return new ReactorNettyTcpClient<>(tcpClient, new StompReactorNettyCodec());
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block(DISPOSE_TIMEOUT);
+        loopResources.disposeLater(Duration.ZERO, DISPOSE_TIMEOUT).block(DISPOSE_TIMEOUT);
+    }
+
+    private static ConnectionProvider createConnectionProvider(
+            WebSocketBrokerProperties brokerProperties
+    ) {
+        if (brokerProperties.getMaxConnections() <= 0) {
+            return ConnectionProvider.newConnection();
+        }
+        return ConnectionProvider.builder(NAME)
+                .maxConnections(brokerProperties.getMaxConnections())
+                .pendingAcquireTimeout(brokerProperties.getPendingAcquireTimeout())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package shop.yesaladin.socket.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 가상 스레드를 만드는 인터페이스입니다.
+ * <p>
+ * 구현체는 JDK 21 이상으로 빌드하는 {@code jdk21} 프로필의 {@code src/main/java21} 에만 있으며
+ * {@code socket.virtual-threads.enabled=true} 일 때 빈으로 등록됩니다. 빈이 없으면 각 설정은 기존의 플랫폼 스레드 풀을
+ * 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public interface VirtualThreadSupport {
+
+    String ENABLED_PROPERTY = "socket.virtual-threads.enabled";
+
+    /**
+     * 이름이 {@code namePrefix} 와 순번으로 정해지는 가상 스레드 팩토리를 만듭니다.
+     *
+     * @param namePrefix 스레드 이름 접두사
+     * @return 가상 스레드 팩토리
+     * @since 1.0
+     */
+    ThreadFactory threadFactory(String namePrefix);
+
+    /**
+     * 작업마다 새 가상 스레드를 시작하는 실행기를 만듭니다.
+     *
+     * @param namePrefix 스레드 이름 접두사
+     * @return 작업마다 가상 스레드를 사용하는 실행기
+     * @since 1.0
+     */
+    ExecutorService newThreadPerTaskExecutor(String namePrefix);
+}
@@ -0,0 +1,80 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 웹소켓 메시지 브로커 설정을 가져옵니다.
+ * <p>
+ * {@code socket.websocket.broker.type} 이 {@code simple}(기본값)이면 JVM 내부 브로커를, {@code relay} 이면 외부 STOMP
+ * 브로커로 메시지를 중계하여 모든 노드의 구독자에게 전달합니다. 값은 대소문자를 구분하지 않으며, {@code relay.*} 설정은 relay
+ * 모드에서만 사용됩니다. 결과 메시지나 연결 정보를 Redis 에 저장하여 여러 노드가 공유한다면 relay 모드를 사용해야 합니다.
+ * <p>
+ * 클라이언트 STOMP 세션마다 브로커와 TCP 연결이 하나씩 생기므로 {@code relay.max-connections} 는 노드당 동시 세션 수의
+ * 상한이 됩니다. 기본값 0 은 풀 없이 연결 수를 제한하지 않으며, 양수로 설정하면 그 크기의 연결 풀을 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class WebSocketBrokerProperties {
+
+    public static final String RELAY = "relay";
+    static final String TYPE_PROPERTY = "socket.websocket.broker.type";
+
+    @Value("${socket.websocket.broker.type:simple}")
+    private String type;
+
+    @Value("${socket.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${socket.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${socket.websocket.broker.relay.virtual-host:}")
+    private String virtualHost;
+
+    @Value("${socket.websocket.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${socket.websocket.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${socket.websocket.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${socket.websocket.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${socket.websocket.broker.relay.system-heartbeat-send-interval:PT10S}")
+    private Duration systemHeartbeatSendInterval;
+
+    @Value("${socket.websocket.broker.relay.system-heartbeat-receive-interval:PT10S}")
+    private Duration systemHeartbeatReceiveInterval;
+
+    @Value("${socket.websocket.broker.relay.max-connections:0}")
+    private int maxConnections;
+
+    @Value("${socket.websocket.broker.relay.pending-acquire-timeout:PT5S}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${socket.websocket.broker.relay.io-worker-count:0}")
+    private int ioWorkerCount;
+
+    public boolean isRelay() {
+        return isRelay(type);
+    }
+
+    /**
+     * 브로커 종류 설정값이 relay 모드인지 확인합니다. relay 자원을 만드는 빈의 조건도 이 메소드로 판단합니다.
+     *
+     * @param type {@code socket.websocket.broker.type} 설정값
+     * @return relay 모드이면 true
+     */
+    static boolean isRelay(String type) {
+        return RELAY.equalsIgnoreCase(type);
+    }
+}
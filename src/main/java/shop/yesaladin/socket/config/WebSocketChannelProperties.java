@@ -0,0 +1,72 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 웹소켓 STOMP 채널 executor 와 전송 제한 설정을 가져옵니다.
+ * <p>
+ * {@code socket.websocket.channel.executor-type} 이 {@code unbounded}(기본값)이면 Spring 기본값과 같이 큐 크기 제한 없이
+ * core 스레드만 사용하고, {@code bounded} 이면 큐 크기를 제한하여 큐가 가득 찼을 때 최대 스레드 수까지 늘린 뒤 거부 정책을
+ * 적용합니다. 스레드 수가 0 이면 코어 수의 2배를 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@Configuration
+public class WebSocketChannelProperties {
+
+    public static final String BOUNDED = "bounded";
+    public static final String ABORT = "abort";
+
+    @Value("${socket.websocket.channel.executor-type:unbounded}")
+    private String executorType;
+
+    @Value("${socket.websocket.channel.rejection-policy:caller-runs}")
+    private String rejectionPolicy;
+
+    @Value("${socket.websocket.channel.inbound.core-pool-size:0}")
+    private int inboundCorePoolSize;
+
+    @Value("${socket.websocket.channel.inbound.max-pool-size:0}")
+    private int inboundMaxPoolSize;
+
+    @Value("${socket.websocket.channel.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${socket.websocket.channel.outbound.core-pool-size:0}")
+    private int outboundCorePoolSize;
+
+    @Value("${socket.websocket.channel.outbound.max-pool-size:0}")
+    private int outboundMaxPoolSize;
+
+    @Value("${socket.websocket.channel.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${socket.websocket.channel.keep-alive:PT60S}")
+    private Duration keepAlive;
+
+    @Value("${socket.websocket.transport.send-time-limit:PT10S}")
+    private Duration sendTimeLimit;
+
+    @Value("${socket.websocket.transport.send-buffer-size-limit:512KB}")
+    private DataSize sendBufferSizeLimit;
+
+    @Value("${socket.websocket.transport.message-size-limit:64KB}")
+    private DataSize messageSizeLimit;
+
+    @Value("${socket.websocket.transport.time-to-first-message:PT60S}")
+    private Duration timeToFirstMessage;
+
+    public boolean isBounded() {
+        return BOUNDED.equalsIgnoreCase(executorType);
+    }
+
+    public boolean isAbortOnRejection() {
+        return ABORT.equalsIgnoreCase(rejectionPolicy);
+    }
+}
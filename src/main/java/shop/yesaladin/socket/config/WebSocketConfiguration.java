@@ -1,21 +1,55 @@
 package shop.yesaladin.socket.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import shop.yesaladin.socket.coupon.listener.CouponSubscriptionInterceptor;
 
 /**
  * 웹소켓을 사용하기 위한 Configuration 클래스입니다.
+ * <p>
+ * 기본적으로 JVM 내부의 simple broker 를 사용하며, {@code socket.websocket.broker.type=relay} 이면 외부 STOMP 브로커로
+ * 중계하여 어느 노드에서 발행한 메시지든 모든 노드의 구독자에게 전달합니다. 중계에 쓰는 연결 풀과 이벤트 루프는
+ * {@link StompBrokerRelayResources} 빈이 관리합니다.
+ * <p>
+ * 클라이언트 inbound / outbound 채널의 executor 와 전송 제한은 {@link WebSocketChannelProperties} 를 따르며, 채널별 큐 길이와
+ * 거부된 작업 수를 메트릭으로 노출합니다. {@link VirtualThreadSupport} 빈이 있으면 채널 executor 의 스레드를
+ * 가상 스레드로 만듭니다.
+ * <p>
+ * 쿠폰 결과 토픽의 구독은 브로커가 처리한 뒤 {@link CouponSubscriptionInterceptor} 가 기록합니다.
  *
  * @author 김홍대
  * @since 1.0
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer {
 
+    private static final String TOPIC_PREFIX = "/ws/topic";
+
+    private final WebSocketBrokerProperties brokerProperties;
+    private final WebSocketChannelProperties channelProperties;
+    private final MeterRegistry meterRegistry;
+    private final CouponSubscriptionInterceptor couponSubscriptionInterceptor;
+    private final ObjectProvider<VirtualThreadSupport> virtualThreadSupportProvider;
+    private final ObjectProvider<StompBrokerRelayResources> relayResourcesProvider;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns(
@@ -36,6 +70,126 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/shop");
-        registry.enableSimpleBroker("/ws/topic");
+        if (brokerProperties.isRelay()) {
+            enableStompBrokerRelay(registry);
+            return;
+        }
+        registry.enableSimpleBroker(TOPIC_PREFIX);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(
+                        Math.toIntExact(channelProperties.getSendTimeLimit().toMillis())
+                )
+                .setSendBufferSizeLimit(
+                        Math.toIntExact(channelProperties.getSendBufferSizeLimit().toBytes())
+                )
+                .setMessageSizeLimit(
+                        Math.toIntExact(channelProperties.getMessageSizeLimit().toBytes())
+                )
+                .setTimeToFirstMessage(
+                        Math.toIntExact(channelProperties.getTimeToFirstMessage().toMillis())
+                );
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(createChannelExecutor(
+                "inbound",
+                channelProperties.getInboundCorePoolSize(),
+                channelProperties.getInboundMaxPoolSize(),
+                channelProperties.getInboundQueueCapacity()
+        ));
+        registration.interceptors(couponSubscriptionInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(createChannelExecutor(
+                "outbound",
+                channelProperties.getOutboundCorePoolSize(),
+                channelProperties.getOutboundMaxPoolSize(),
+                channelProperties.getOutboundQueueCapacity()
+        ));
+    }
+
+    private ThreadPoolTaskExecutor createChannelExecutor(
+            String channel,
+            int corePoolSize,
+            int maxPoolSize,
+            int queueCapacity
+    ) {
+        int core = corePoolSize > 0 ? corePoolSize : Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("websocket-" + channel + "-");
+        VirtualThreadSupport virtualThreadSupport = virtualThreadSupportProvider.getIfAvailable();
+        if (Objects.nonNull(virtualThreadSupport)) {
+            // 풀의 크기와 큐 제한은 그대로 두고 스레드만 가상 스레드로 바꾸어 브로커 전송 중 블로킹을 견딘다.
+            executor.setThreadFactory(
+                    virtualThreadSupport.threadFactory("websocket-" + channel + "-")
+            );
+        }
+        executor.setCorePoolSize(core);
+        executor.setKeepAliveSeconds(
+                Math.toIntExact(channelProperties.getKeepAlive().getSeconds())
+        );
+        executor.setAllowCoreThreadTimeOut(true);
+        if (channelProperties.isBounded()) {
+            executor.setMaxPoolSize(Math.max(core, maxPoolSize));
+            executor.setQueueCapacity(queueCapacity);
+        } else {
+            executor.setMaxPoolSize(Integer.MAX_VALUE);
+            executor.setQueueCapacity(Integer.MAX_VALUE);
+        }
+
+        Counter rejected = Counter.builder("websocket.channel.rejected")
+                .description("작업 큐가 가득 차 client 채널 실행기가 거부한 작업 수")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = channelProperties.isAbortOnRejection()
+                ? new AbortPolicy()
+                : new CallerRunsPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, pool);
+        });
+        Gauge.builder(
+                        "websocket.channel.queue.depth",
+                        executor,
+                        WebSocketConfiguration::queueDepthOf
+                )
+                .description("client 채널 실행기의 큐에서 대기 중인 작업 수")
+                .tag("channel", channel)
+                .register(meterRegistry);
+
+        // 실행기의 초기화와 종료는 Spring 이 채널 executor 빈으로 등록하여 관리한다.
+        return executor;
+    }
+
+    private static double queueDepthOf(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException e) {
+            return 0;
+        }
+    }
+
+    private void enableStompBrokerRelay(MessageBrokerRegistry registry) {
+        registry.enableStompBrokerRelay(TOPIC_PREFIX)
+                .setClientLogin(brokerProperties.getClientLogin())
+                .setClientPasscode(brokerProperties.getClientPasscode())
+                .setSystemLogin(brokerProperties.getSystemLogin())
+                .setSystemPasscode(brokerProperties.getSystemPasscode())
+                .setSystemHeartbeatSendInterval(
+                        brokerProperties.getSystemHeartbeatSendInterval().toMillis()
+                )
+                .setSystemHeartbeatReceiveInterval(
+                        brokerProperties.getSystemHeartbeatReceiveInterval().toMillis()
+                )
+                .setVirtualHost(StringUtils.hasText(brokerProperties.getVirtualHost())
+                        ? brokerProperties.getVirtualHost()
+                        : null)
+                .setTcpClient(relayResourcesProvider.getObject().createTcpClient());
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,19 @@
 package shop.yesaladin.socket.coupon.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,7 +21,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import shop.yesaladin.common.dto.ResponseDto;
 import shop.yesaladin.coupon.message.CouponResultDto;
-import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.service.inter.CouponMessageDispatcher;
 
 /**
  * 소켓 서버에 쿠폰 관련 메시지를 등록하기 위한 컨트롤러 클래스입니다.
@@ -24,10 +37,16 @@ import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
 @RequestMapping("/v1/coupon-messages")
 public class CommandCouponMessageController {
 
-    private final CouponWebsocketMessageService couponWebsocketMessageService;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final CouponMessageDispatcher couponMessageDispatcher;
+    private final ObjectMapper objectMapper;
+    private final CouponMessageMetrics couponMessageMetrics;
 
     /**
      * 쿠폰 지급 / 사용 결과 메시지를 소켓 서버에 등록하고 전송을 시도합니다.
+     * <p>
+     * 비동기 전송 모드에서는 메시지가 전송 큐에 들어가면 응답하며, 큐가 가득 찼다면 503 과 Retry-After 헤더로 응답합니다.
      *
      * @param message 전송을 시도할 메시지
      * @return 전송 / 등록 결과
@@ -36,10 +55,79 @@ public class CommandCouponMessageController {
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseDto<Void> registerMessage(@RequestBody CouponResultDto message) {
         log.info("requestId {} result message received", message.getRequestId());
+        couponMessageMetrics.recordIngest(message);
 
-        couponWebsocketMessageService.trySendGiveCouponResultMessage(message);
+        couponMessageDispatcher.dispatch(message);
 
         return ResponseDto.<Void>builder().status(HttpStatus.CREATED).success(true).build();
     }
 
+    /**
+     * 쿠폰 지급 / 사용 결과 메시지 목록(JSON 배열)을 소켓 서버에 등록하고 전송을 시도합니다.
+     * <p>
+     * 비동기 전송 모드에서는 메시지마다 전송 큐에 넣은 결과(QUEUED / REJECTED)로 응답하며, 하나도 넣지 못했다면 503 과
+     * Retry-After 헤더로 응답합니다.
+     *
+     * @param messages 전송을 시도할 메시지 목록
+     * @return 요청 순서와 같은 순서의 메시지별 처리 결과
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseDto<List<CouponMessageOutcomeDto>> registerMessages(
+            @RequestBody List<CouponResultDto> messages
+    ) {
+        return registerAll(messages);
+    }
+
+    /**
+     * 한 줄에 하나씩 JSON 으로 작성된(NDJSON) 쿠폰 지급 / 사용 결과 메시지를 소켓 서버에 등록하고 전송을 시도합니다.
+     * <p>
+     * 읽을 수 없는 줄은 해당 메시지만 REJECTED 로 응답합니다.
+     *
+     * @param body 메시지 스트림
+     * @return 요청 순서와 같은 순서의 메시지별 처리 결과
+     * @throws IOException 요청 본문을 읽지 못한 경우
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseDto<List<CouponMessageOutcomeDto>> registerMessageStream(InputStream body)
+            throws IOException {
+        return registerAll(readLines(body));
+    }
+
+    private ResponseDto<List<CouponMessageOutcomeDto>> registerAll(List<CouponResultDto> messages) {
+        log.info("{} result messages received", messages.size());
+        messages.forEach(couponMessageMetrics::recordIngest);
+
+        List<CouponMessageOutcomeDto> outcomes = couponMessageDispatcher.dispatchAll(messages);
+
+        return ResponseDto.<List<CouponMessageOutcomeDto>>builder()
+                .status(HttpStatus.OK)
+                .success(true)
+                .data(outcomes)
+                .build();
+    }
+
+    private List<CouponResultDto> readLines(InputStream body) throws IOException {
+        List<CouponResultDto> messages = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                body,
+                StandardCharsets.UTF_8
+        ));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (StringUtils.hasText(line)) {
+                messages.add(readMessage(line));
+            }
+        }
+        return messages;
+    }
+
+    private CouponResultDto readMessage(String line) {
+        try {
+            return objectMapper.readValue(line, CouponResultDto.class);
+        } catch (JsonProcessingException e) {
+            // 서비스에서 REJECTED 로 응답하도록 null 로 전달한다.
+            return null;
+        }
+    }
 }
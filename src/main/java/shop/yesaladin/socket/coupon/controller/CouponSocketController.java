@@ -3,9 +3,12 @@ package shop.yesaladin.socket.coupon.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
-import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+import shop.yesaladin.socket.coupon.service.inter.CouponAcknowledgementService;
+import shop.yesaladin.socket.coupon.service.inter.CouponSessionService;
 
 /**
  * 쿠폰 지급 관련 소켓 메시지를 수신하는 컨트롤러 클래스입니다.
@@ -18,16 +21,32 @@ import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
 @Controller
 public class CouponSocketController {
 
-    private final CouponWebsocketMessageService websocketMessageSendService;
+    private final CouponSessionService couponSessionService;
+    private final CouponAcknowledgementService couponAcknowledgementService;
 
     /**
-     * 소켓 연결 확인 메시지를 수신합니다.
+     * 소켓 연결 확인 메시지를 수신합니다. 결과 토픽을 구독한 세션이 있을 때만 연결 정보를 등록하며, 연결 정보는 구독한
+     * STOMP 세션이 종료되면 삭제됩니다.
      *
      * @param requestId 연결된 클라이언트의 request id
+     * @param sessionId 메시지를 보낸 STOMP 세션 id
      */
     @MessageMapping("/coupon/{kind}/result/connect/{requestId}")
-    public void receiveConnectMessage(@DestinationVariable String requestId) {
-        websocketMessageSendService.registerConnection(requestId);
+    public void receiveConnectMessage(
+            @DestinationVariable String requestId,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId
+    ) {
+        couponSessionService.connect(sessionId, requestId);
         log.info("Request id {} socket connected.", requestId);
     }
+
+    /**
+     * 쿠폰 결과 메시지의 수신 확인(ack) 메시지를 수신합니다.
+     *
+     * @param requestId 메시지를 받은 클라이언트의 request id
+     */
+    @MessageMapping("/coupon/{kind}/result/ack/{requestId}")
+    public void receiveAckMessage(@DestinationVariable String requestId) {
+        couponAcknowledgementService.acknowledge(requestId);
+    }
 }
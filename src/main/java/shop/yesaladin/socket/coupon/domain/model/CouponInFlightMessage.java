@@ -0,0 +1,33 @@
+package shop.yesaladin.socket.coupon.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 전송했지만 클라이언트의 수신 확인(ack)을 받지 못한 쿠폰 결과 메시지입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class CouponInFlightMessage {
+
+    private final CouponResultMessage message;
+
+    private final int attempts;
+
+    private final long firstSentMillis;
+
+    private final long redeliverAtMillis;
+
+    /**
+     * 한 번 더 전송한 뒤의 상태를 반환합니다.
+     *
+     * @param redeliverAtMillis 다음 재전송 시각(epoch ms)
+     * @return 전송 횟수가 하나 늘어난 메시지
+     */
+    public CouponInFlightMessage redelivered(long redeliverAtMillis) {
+        return new CouponInFlightMessage(message, attempts + 1, firstSentMillis, redeliverAtMillis);
+    }
+}
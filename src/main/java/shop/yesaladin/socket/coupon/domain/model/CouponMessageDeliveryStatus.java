@@ -0,0 +1,27 @@
+package shop.yesaladin.socket.coupon.domain.model;
+
+/**
+ * 쿠폰 결과 메시지 등록 요청의 처리 결과입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public enum CouponMessageDeliveryStatus {
+
+    /**
+     * 연결된 클라이언트에게 메시지를 전송했습니다.
+     */
+    DELIVERED,
+    /**
+     * 연결된 클라이언트가 없어 메시지를 저장했습니다. 클라이언트가 연결되면 전송됩니다.
+     */
+    PARKED,
+    /**
+     * 비동기 전송 모드에서 메시지를 전송 큐에 넣었습니다. 전송 스레드가 전송합니다.
+     */
+    QUEUED,
+    /**
+     * 메시지가 올바르지 않거나 처리 중 오류가 발생하여 등록하지 못했습니다.
+     */
+    REJECTED
+}
@@ -0,0 +1,42 @@
+package shop.yesaladin.socket.coupon.domain.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 전송할 준비가 끝난 쿠폰 결과 메시지입니다.
+ * <p>
+ * 메시지를 등록할 때 전송할 토픽과 JSON 으로 직렬화한 본문을 한 번만 만들어 두고, 전송 시에는 그대로 사용합니다.
+ * <p>
+ * 수신 시각은 지표 기록에만 사용하며 저장소에 기록하지 않으므로, 외부 저장소나 저널에서 복원한 메시지는 수신 시각을 알 수
+ * 없습니다({@link #UNKNOWN_RECEIVED_MILLIS}).
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class CouponResultMessage {
+
+    public static final long UNKNOWN_RECEIVED_MILLIS = 0L;
+
+    private final String requestId;
+
+    private final String destination;
+
+    private final LocalDateTime issuedDateTime;
+
+    private final byte[] payload;
+
+    private final long receivedMillis;
+
+    public CouponResultMessage(
+            String requestId,
+            String destination,
+            LocalDateTime issuedDateTime,
+            byte[] payload
+    ) {
+        this(requestId, destination, issuedDateTime, payload, UNKNOWN_RECEIVED_MILLIS);
+    }
+}
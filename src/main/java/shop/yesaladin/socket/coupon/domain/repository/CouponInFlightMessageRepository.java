@@ -0,0 +1,39 @@
+package shop.yesaladin.socket.coupon.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import shop.yesaladin.socket.coupon.domain.model.CouponInFlightMessage;
+
+/**
+ * 수신 확인(ack)을 기다리는 쿠폰 결과 메시지를 저장 / 조회 / 삭제하는 레포지토리 인터페이스입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public interface CouponInFlightMessageRepository {
+
+    void save(CouponInFlightMessage message);
+
+    Optional<CouponInFlightMessage> findAndDeleteByRequestId(String requestId);
+
+    /**
+     * 재전송 시각이 지난 메시지를 최대 {@code limit}개까지 {@code nextState} 에 전달합니다.
+     * <p>
+     * {@code nextState} 가 반환한 메시지로 교체하며, null 을 반환하면 삭제합니다. 같은 request id 의 ack 와 원자적으로
+     * 처리되도록 잠금을 잡은 채 호출하므로, {@code nextState} 는 다음 상태만 결정하고 전송이나 저장 같은 I/O 는 이 메서드가
+     * 반환된 뒤에 수행해야 합니다.
+     *
+     * @param now       현재 시각
+     * @param limit     한 번에 처리할 최대 메시지 수
+     * @param nextState 재전송할지 결정하고 다음 상태를 반환하는 함수
+     * @return 처리한 메시지 수
+     */
+    int redeliverAllDue(
+            LocalDateTime now,
+            int limit,
+            UnaryOperator<CouponInFlightMessage> nextState
+    );
+
+    int count();
+}
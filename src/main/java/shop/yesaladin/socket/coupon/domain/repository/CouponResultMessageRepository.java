@@ -2,8 +2,8 @@ package shop.yesaladin.socket.coupon.domain.repository;
 
 
 import java.time.LocalDateTime;
-import java.util.List;
-import shop.yesaladin.coupon.message.CouponResultDto;
+import java.util.Optional;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
 
 /**
  * 쿠폰 지급 결과 메시지를 저장 / 수정 / 삭제하는 레포지토리 인터페이스입니다.
@@ -13,13 +13,29 @@ import shop.yesaladin.coupon.message.CouponResultDto;
  */
 public interface CouponResultMessageRepository {
 
-    void save(CouponResultDto result);
+    /**
+     * 메시지를 실제로 보관하는 저장소 구현체에 붙는 qualifier 입니다. 저장소를 감싸는 구현체가 감싸는 대상을 주입받을 때 사용합니다.
+     */
+    String STORE_QUALIFIER = "couponResultStore";
+
+    /**
+     * 저장된 메시지 수를 셀 수 없는 저장소가 {@link #count()} 에서 반환하는 값입니다.
+     */
+    int UNKNOWN_COUNT = -1;
+
+    void save(CouponResultMessage message);
 
     boolean existsByRequestId(String requestId);
 
-    CouponResultDto getByRequestId(String requestId);
+    CouponResultMessage getByRequestId(String requestId);
 
     void deleteByRequestId(String requestId);
 
-    List<CouponResultDto> findAllOver30MinFromIssued(LocalDateTime now);
+    Optional<CouponResultMessage> findAndDeleteByRequestId(String requestId);
+
+    int deleteAllExpired(LocalDateTime now, int limit);
+
+    int countExpiredBacklog(LocalDateTime now);
+
+    int count();
 }
@@ -0,0 +1,31 @@
+package shop.yesaladin.socket.coupon.domain.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * STOMP 세션과 그 세션이 구독한 쿠폰 결과 토픽의 request id 관계를 저장 / 삭제하는 레포지토리 인터페이스입니다.
+ * <p>
+ * 같은 request id 를 다른 세션에서 다시 구독하면 마지막으로 구독한 세션이 request id 를 가집니다. 이전 세션의 구독 해제나 연결
+ * 종료로는 그 request id 가 반환되지 않습니다.
+ * <p>
+ * 구독은 {@link #openSession(String)} 으로 등록한 세션에만 기록합니다. 세션이 종료된 뒤에 늦게 도착한 구독은 기록하지 않으므로
+ * 종료된 세션의 정보가 다시 생기지 않습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public interface CouponSessionRepository {
+
+    void openSession(String sessionId);
+
+    boolean bindSubscription(String sessionId, String subscriptionId, String requestId);
+
+    Optional<String> unbindSubscription(String sessionId, String subscriptionId);
+
+    List<String> unbindSession(String sessionId);
+
+    boolean isSubscribed(String requestId);
+
+    int countSessions();
+}
@@ -1,7 +1,6 @@
 package shop.yesaladin.socket.coupon.domain.repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
 
 /**
@@ -12,12 +11,20 @@ import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
  */
 public interface CouponSocketConnectionRepository {
 
+    /**
+     * 저장된 연결 정보 수를 셀 수 없는 저장소가 {@link #count()} 에서 반환하는 값입니다.
+     */
+    int UNKNOWN_COUNT = -1;
+
     void save(CouponSocketConnection connection);
 
     boolean existsByRequestId(String requestId);
 
     void deleteByRequestId(String requestId);
 
-    List<CouponSocketConnection> findAllOver30MinFromConnected(LocalDateTime now);
+    int deleteAllExpired(LocalDateTime now, int limit);
+
+    int countExpiredBacklog(LocalDateTime now);
 
+    int count();
 }
@@ -0,0 +1,39 @@
+package shop.yesaladin.socket.coupon.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+
+/**
+ * 일괄 등록된 쿠폰 결과 메시지 하나의 처리 결과를 담는 DTO 클래스입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CouponMessageOutcomeDto {
+
+    private final int index;
+    private final String requestId;
+    private final CouponMessageDeliveryStatus status;
+    private final String reason;
+
+    public static CouponMessageOutcomeDto of(
+            int index,
+            String requestId,
+            CouponMessageDeliveryStatus status
+    ) {
+        return new CouponMessageOutcomeDto(index, requestId, status, null);
+    }
+
+    public static CouponMessageOutcomeDto rejected(int index, String requestId, String reason) {
+        return new CouponMessageOutcomeDto(
+                index,
+                requestId,
+                CouponMessageDeliveryStatus.REJECTED,
+                reason
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package shop.yesaladin.socket.coupon.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * 쿠폰 결과 메시지 전송 큐가 가득 차 메시지를 받을 수 없을 때 발생하는 예외입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Getter
+public class CouponMessageQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CouponMessageQueueFullException(String requestId, Duration retryAfter) {
+        super("Coupon message queue cannot accept more messages. requestId: " + requestId);
+        this.retryAfter = retryAfter;
+    }
+}
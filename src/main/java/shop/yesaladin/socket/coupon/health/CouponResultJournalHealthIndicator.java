@@ -0,0 +1,38 @@
+package shop.yesaladin.socket.coupon.health;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.socket.coupon.persistence.JournalingCouponResultMessageRepository;
+
+/**
+ * 전송되지 않은 쿠폰 결과 메시지의 복원 상태를 알려주는 health indicator 입니다.
+ * <p>
+ * 복원이 끝나기 전에는 {@code OUT_OF_SERVICE} 를 반환합니다. readiness probe 에 포함하려면
+ * {@code management.endpoint.health.group.readiness.include=readinessState,couponResultJournal} 을
+ * 설정합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "socket.coupon.journal.enabled", havingValue = "true")
+public class CouponResultJournalHealthIndicator implements HealthIndicator {
+
+    private final JournalingCouponResultMessageRepository repository;
+
+    @Override
+    public Health health() {
+        if (!repository.isRestored()) {
+            return Health.outOfService().build();
+        }
+        return Health.up()
+                .withDetail("restoredMessages", repository.getRestoredCount())
+                .withDetail("restoreDuration", repository.getRestoreDuration().toString())
+                .withDetail("journalBytes", repository.getJournalBytes())
+                .build();
+    }
+}
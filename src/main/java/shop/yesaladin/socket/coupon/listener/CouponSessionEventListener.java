@@ -0,0 +1,56 @@
+package shop.yesaladin.socket.coupon.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import shop.yesaladin.socket.coupon.service.inter.CouponSessionService;
+
+/**
+ * STOMP 세션의 연결 / 구독 해제 / 종료 이벤트를 받아 쿠폰 소켓 연결 정보에 반영하는 클래스입니다.
+ * <p>
+ * 구독은 브로커가 등록한 뒤에 반영해야 하므로 {@link CouponSubscriptionInterceptor} 에서 처리합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponSessionEventListener {
+
+    private final CouponSessionService couponSessionService;
+
+    /**
+     * 연결된 세션을 등록합니다. CONNECT 프레임을 처리할 때 발행되므로 같은 세션의 구독보다 먼저 등록됩니다.
+     *
+     * @param event 세션 연결 이벤트
+     */
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        couponSessionService.open(StompHeaderAccessor.wrap(event.getMessage()).getSessionId());
+    }
+
+    /**
+     * 구독이 해제된 request id 의 연결 정보를 삭제합니다.
+     *
+     * @param event 구독 해제 이벤트
+     */
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        couponSessionService.unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    /**
+     * 종료된 세션의 연결 정보를 삭제합니다.
+     *
+     * @param event 세션 종료 이벤트
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        couponSessionService.disconnect(event.getSessionId());
+    }
+}
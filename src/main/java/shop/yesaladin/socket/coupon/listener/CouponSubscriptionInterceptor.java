@@ -0,0 +1,52 @@
+package shop.yesaladin.socket.coupon.listener;
+
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.socket.coupon.service.inter.CouponSessionService;
+
+/**
+ * 브로커가 처리한 SUBSCRIBE 메시지를 받아 쿠폰 결과 토픽의 구독을 기록하는 client inbound 채널 인터셉터입니다.
+ * <p>
+ * {@code SessionSubscribeEvent} 는 브로커가 구독을 등록하기 전에 발행되므로, 그 시점에 저장된 메시지를 전송하면 구독자에게
+ * 전달되지 않을 수 있습니다. 브로커 핸들러의 처리가 끝난 뒤에 구독을 기록하여 전송한 메시지가 구독자에게 전달되도록 합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponSubscriptionInterceptor implements ExecutorChannelInterceptor {
+
+    // 채널 설정 중에 생성되므로 메시지 템플릿에 의존하는 서비스는 메시지를 처리할 때 가져온다.
+    private final ObjectProvider<CouponSessionService> couponSessionService;
+
+    @Override
+    public void afterMessageHandled(
+            Message<?> message,
+            MessageChannel channel,
+            MessageHandler handler,
+            Exception ex
+    ) {
+        if (Objects.nonNull(ex) || !(handler instanceof AbstractBrokerMessageHandler)) {
+            return;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return;
+        }
+        couponSessionService.getObject().subscribe(
+                accessor.getSessionId(),
+                accessor.getSubscriptionId(),
+                accessor.getDestination()
+        );
+    }
+}
@@ -0,0 +1,173 @@
+package shop.yesaladin.socket.coupon.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+
+/**
+ * 쿠폰 결과 메시지가 발행된 뒤 클라이언트에게 전송되기까지의 구간별 소요 시간을 기록하는 클래스입니다.
+ * <p>
+ * 요청 종류(kind)별 타이머를 미리 등록해 두고 기록 시에는 조회만 하므로, 메시지마다 태그나 타이머를 만들지 않습니다. 타이머는
+ * Prometheus 히스토그램과 백분위수를 함께 노출합니다.
+ * <ul>
+ *     <li>{@code coupon.result.ingest.latency} : 발행 시각부터 소켓 서버가 수신하기까지</li>
+ *     <li>{@code coupon.result.park.duration} : 수신 후 클라이언트가 연결될 때까지 저장되어 있던 시간</li>
+ *     <li>{@code coupon.result.delivery.latency} : 발행 시각부터 전송까지. 클라이언트가 먼저 연결되어 있었다면
+ *     {@code path=direct}, 메시지가 클라이언트의 연결을 기다렸다면 {@code path=parked} 이며, 후자는 발행부터 연결까지의
+ *     시간입니다.</li>
+ * </ul>
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+public class CouponMessageMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Clock clock;
+    private final SocketProperties socketProperties;
+    private final Map<CouponSocketRequestKind, Timer> ingestTimers;
+    private final Map<CouponSocketRequestKind, Timer> parkTimers;
+    private final Map<CouponSocketRequestKind, Timer> directDeliveryTimers;
+    private final Map<CouponSocketRequestKind, Timer> parkedDeliveryTimers;
+
+    public CouponMessageMetrics(
+            Clock clock,
+            SocketProperties socketProperties,
+            CouponResultMessageRepository couponResultMessageRepository,
+            CouponSocketConnectionRepository couponSocketConnectionRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.clock = clock;
+        this.socketProperties = socketProperties;
+        this.ingestTimers = registerTimers(
+                "coupon.result.ingest.latency",
+                "발행 시각부터 소켓 서버가 결과 메시지를 수신하기까지 걸린 시간",
+                null,
+                meterRegistry
+        );
+        this.parkTimers = registerTimers(
+                "coupon.result.park.duration",
+                "결과 메시지가 클라이언트의 연결을 기다리며 저장되어 있던 시간",
+                null,
+                meterRegistry
+        );
+        this.directDeliveryTimers = registerTimers(
+                "coupon.result.delivery.latency",
+                "발행 시각부터 결과 메시지를 전송하기까지 걸린 시간",
+                "direct",
+                meterRegistry
+        );
+        this.parkedDeliveryTimers = registerTimers(
+                "coupon.result.delivery.latency",
+                "발행 시각부터 결과 메시지를 전송하기까지 걸린 시간",
+                "parked",
+                meterRegistry
+        );
+        Gauge.builder(
+                        "coupon.result.parked",
+                        couponResultMessageRepository,
+                        repository -> knownOrNaN(repository.count())
+                )
+                .description("전송을 기다리며 저장된 결과 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder(
+                        "coupon.connection.registered",
+                        couponSocketConnectionRepository,
+                        repository -> knownOrNaN(repository.count())
+                )
+                .description("결과 메시지를 기다리는 소켓 연결 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 결과 메시지를 수신한 시점에 발행부터 수신까지의 시간을 기록합니다.
+     *
+     * @param resultDto 수신한 메시지
+     */
+    public void recordIngest(CouponResultDto resultDto) {
+        if (Objects.isNull(resultDto)
+                || Objects.isNull(resultDto.getRequestKind())
+                || Objects.isNull(resultDto.getIssuedDateTime())) {
+            return;
+        }
+        record(
+                ingestTimers.get(resultDto.getRequestKind()),
+                clock.millis() - toEpochMillis(resultDto.getIssuedDateTime())
+        );
+    }
+
+    /**
+     * 결과 메시지를 전송한 시점에 발행부터 전송까지의 시간과, 저장되어 있던 메시지라면 저장된 시간을 기록합니다.
+     *
+     * @param message 전송한 메시지
+     * @param parked  메시지가 클라이언트의 연결을 기다리며 저장되어 있었다면 {@code true}
+     */
+    public void recordDelivery(CouponResultMessage message, boolean parked) {
+        CouponSocketRequestKind kind = kindOf(message);
+        long nowMillis = clock.millis();
+        Map<CouponSocketRequestKind, Timer> deliveryTimers = parked
+                ? parkedDeliveryTimers
+                : directDeliveryTimers;
+
+        record(deliveryTimers.get(kind), nowMillis - toEpochMillis(message.getIssuedDateTime()));
+        if (parked && message.getReceivedMillis() != CouponResultMessage.UNKNOWN_RECEIVED_MILLIS) {
+            record(parkTimers.get(kind), nowMillis - message.getReceivedMillis());
+        }
+    }
+
+    private CouponSocketRequestKind kindOf(CouponResultMessage message) {
+        String givePrefix = socketProperties.getCouponGiveResultTopicPrefix();
+        return message.getDestination().startsWith(givePrefix)
+                ? CouponSocketRequestKind.GIVE
+                : CouponSocketRequestKind.USE;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static void record(Timer timer, long millis) {
+        // 발행 서버와 시계가 어긋나 음수가 되면 0 으로 기록한다.
+        timer.record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+    }
+
+    private static double knownOrNaN(int count) {
+        return count < 0 ? Double.NaN : count;
+    }
+
+    private static Map<CouponSocketRequestKind, Timer> registerTimers(
+            String name,
+            String description,
+            String path,
+            MeterRegistry meterRegistry
+    ) {
+        Map<CouponSocketRequestKind, Timer> timers = new EnumMap<>(CouponSocketRequestKind.class);
+        for (CouponSocketRequestKind kind : CouponSocketRequestKind.values()) {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag("kind", kind.name())
+                    .publishPercentileHistogram()
+                    .publishPercentiles(PERCENTILES);
+            if (Objects.nonNull(path)) {
+                builder.tag("path", path);
+            }
+            timers.put(kind, builder.register(meterRegistry));
+        }
+        return timers;
+    }
+}
@@ -0,0 +1,175 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponResultStoreProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+
+/**
+ * 쿠폰 지급 결과 메시지를 저장 / 수정 / 삭제하는 레포지토리 인터페이스의 크기 제한이 있는 Caffeine 캐시를 사용한 구현체입니다.
+ * <p>
+ * 최대 항목 수 혹은 예상 크기를 넘으면 W-TinyLFU 정책으로 메시지를 제거하고, 발행 시각에 만료 기간을 더한 시각이 지나면 만료합니다.
+ * 제거 사유 별 건수는 {@code coupon.result.store.evictions} 지표로 기록합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+@Qualifier(CouponResultMessageRepository.STORE_QUALIFIER)
+@ConditionalOnProperty(name = "socket.coupon.result-store.type", havingValue = "bounded")
+public class BoundedCouponResultMessageRepository implements CouponResultMessageRepository {
+
+    private static final long BASE_ENTRY_WEIGHT_BYTES = 160;
+
+    private final Cache<String, CouponResultMessage> couponResultMessageCache;
+    private final Map<RemovalCause, Counter> evictionCounters = new EnumMap<>(RemovalCause.class);
+    private final Clock clock;
+    private final long timeToLiveMillis;
+
+    public BoundedCouponResultMessageRepository(
+            Clock clock,
+            CouponExpiryProperties expiryProperties,
+            CouponResultStoreProperties storeProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+
+        for (RemovalCause cause : RemovalCause.values()) {
+            if (cause.wasEvicted()) {
+                evictionCounters.put(cause, Counter.builder("coupon.result.store.evictions")
+                        .description("용량 초과 혹은 만료로 제거된 결과 메시지 수")
+                        .tag("cause", cause.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+        }
+
+        Caffeine<String, CouponResultMessage> builder = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .expireAfter(new IssuedDateTimeExpiry())
+                .evictionListener((
+                        String requestId,
+                        CouponResultMessage message,
+                        RemovalCause cause
+                ) -> evictionCounters.get(cause).increment());
+        if (storeProperties.getMaximumWeightBytes() > 0) {
+            builder.maximumWeight(storeProperties.getMaximumWeightBytes())
+                    .weigher((String requestId, CouponResultMessage message) -> weightOf(message));
+        } else {
+            builder.maximumSize(storeProperties.getMaximumSize());
+        }
+        this.couponResultMessageCache = builder.build();
+
+        Gauge.builder("coupon.result.store.size", couponResultMessageCache, Cache::estimatedSize)
+                .description("저장된 결과 메시지 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(CouponResultMessage message) {
+        couponResultMessageCache.put(message.getRequestId(), message);
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        return Objects.nonNull(couponResultMessageCache.getIfPresent(requestId));
+    }
+
+    @Override
+    public CouponResultMessage getByRequestId(String requestId) {
+        return couponResultMessageCache.getIfPresent(requestId);
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        couponResultMessageCache.invalidate(requestId);
+    }
+
+    @Override
+    public Optional<CouponResultMessage> findAndDeleteByRequestId(String requestId) {
+        return Optional.ofNullable(couponResultMessageCache.asMap().remove(requestId));
+    }
+
+    /**
+     * 만료된 메시지는 캐시가 직접 제거하므로 밀린 정리 작업만 수행합니다. 제거된 메시지 수는 eviction 지표로 집계됩니다.
+     */
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        couponResultMessageCache.cleanUp();
+        return 0;
+    }
+
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        return 0;
+    }
+
+    @Override
+    public int count() {
+        return Math.toIntExact(couponResultMessageCache.estimatedSize());
+    }
+
+    private static int weightOf(CouponResultMessage message) {
+        long weight = BASE_ENTRY_WEIGHT_BYTES
+                + 2L * message.getRequestId().length()
+                + 2L * message.getDestination().length()
+                + message.getPayload().length;
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 메시지 발행 시각에 만료 기간을 더한 시각까지 남은 시간을 만료 시간으로 사용합니다.
+     */
+    private class IssuedDateTimeExpiry implements Expiry<String, CouponResultMessage> {
+
+        @Override
+        public long expireAfterCreate(
+                String requestId,
+                CouponResultMessage message,
+                long currentTime
+        ) {
+            long deadlineMillis = message.getIssuedDateTime()
+                    .atZone(clock.getZone())
+                    .toInstant()
+                    .toEpochMilli() + timeToLiveMillis;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, deadlineMillis - clock.millis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String requestId,
+                CouponResultMessage message,
+                long currentTime,
+                long currentDuration
+        ) {
+            return expireAfterCreate(requestId, message, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+                String requestId,
+                CouponResultMessage message,
+                long currentTime,
+                long currentDuration
+        ) {
+            return currentDuration;
+        }
+    }
+}
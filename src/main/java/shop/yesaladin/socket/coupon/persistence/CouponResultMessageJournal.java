@@ -0,0 +1,553 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+/**
+ * 쿠폰 결과 메시지의 저장 / 삭제를 파일 끝에 이어 쓰는 저널입니다.
+ * <p>
+ * 레코드는 [본문 길이, 본문의 CRC32, 본문] 으로 기록하며, 읽는 중 길이가 모자라거나 CRC 가 맞지 않는 레코드를 만나면 그 파일의 나머지는
+ * 버립니다. 기록은 {@link FileChannel} 에 바로 쓰고, {@link #sync(long)} 을 호출한 스레드 중 하나가 그 시점까지 기록된 레코드를 한
+ * 번의 fsync 로 함께 디스크에 반영합니다.
+ * <p>
+ * 저널은 번호가 붙은 세그먼트 파일로 나뉩니다. 스냅숏을 만들 때는 기록 중인 세그먼트를 닫고 새 세그먼트로 넘긴 뒤, 이전 스냅숏과 닫힌
+ * 세그먼트를 합쳐 남아 있는 메시지만 새 스냅숏에 씁니다. 그동안의 기록은 새 세그먼트에 이어집니다. 시작할 때는 스냅숏과 그 이후의
+ * 세그먼트만 메모리 매핑하여 읽습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Slf4j
+class CouponResultMessageJournal implements AutoCloseable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int FRAME_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int SNAPSHOT_MAGIC = 0x43524A53;
+    private static final int SNAPSHOT_HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+    private static final String SNAPSHOT_FILE_NAME = "coupon-result.snapshot";
+    private static final String SEGMENT_FILE_PREFIX = "coupon-result.journal.";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final ZoneId zone;
+    private final Object snapshotLock = new Object();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private volatile FileChannel channel;
+    private volatile long writtenSequence;
+    private volatile long closedSegmentBytes;
+    private long durableSequence;
+    private boolean syncing;
+    private long activeGeneration;
+    private long snapshotGeneration;
+
+    CouponResultMessageJournal(Path directory, ZoneId zone) {
+        this.directory = directory;
+        this.zone = zone;
+    }
+
+    /**
+     * 스냅숏과 그 이후의 세그먼트를 읽어 마지막 상태의 메시지를 순서대로 반환하고, 이후 기록을 위해 새 세그먼트를 엽니다.
+     *
+     * @param expired 발행 시각(epoch ms)으로 만료 여부를 판단하는 조건
+     * @return 복원할 메시지 목록
+     */
+    List<CouponResultMessage> open(LongPredicate expired) {
+        // 스냅숏을 만들 때와 같은 순서로 잠근다.
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                return openSegments(expired);
+            }
+        }
+    }
+
+    /**
+     * 메시지 저장 레코드를 기록합니다.
+     *
+     * @param message 저장할 메시지
+     * @return 기록 순번. {@link #sync(long)} 에 전달하여 디스크 반영을 기다릴 수 있습니다.
+     */
+    long appendPut(CouponResultMessage message) {
+        byte[] key = message.getRequestId().getBytes(StandardCharsets.UTF_8);
+        byte[] destination = message.getDestination().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = message.getPayload();
+        long issuedMillis = message.getIssuedDateTime()
+                .atZone(zone)
+                .toInstant()
+                .toEpochMilli();
+
+        ByteBuffer body = ByteBuffer.allocate(
+                1 + Long.BYTES + 3 * Integer.BYTES + key.length + destination.length
+                        + payload.length
+        );
+        body.put(PUT)
+                .putLong(issuedMillis)
+                .putInt(key.length)
+                .put(key)
+                .putInt(destination.length)
+                .put(destination)
+                .putInt(payload.length)
+                .put(payload);
+        return append(body);
+    }
+
+    /**
+     * 메시지 삭제 레코드를 기록합니다.
+     *
+     * @param requestId 삭제된 메시지의 request id
+     * @return 기록 순번
+     */
+    long appendDelete(String requestId) {
+        byte[] key = requestId.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer body = ByteBuffer.allocate(1 + Integer.BYTES + key.length);
+        body.put(DELETE).putInt(key.length).put(key);
+        return append(body);
+    }
+
+    /**
+     * 주어진 순번까지의 레코드가 디스크에 반영될 때까지 기다립니다.
+     * <p>
+     * 진행 중인 fsync 가 없으면 호출한 스레드가 그 시점까지 기록된 모든 레코드를 반영하고, 진행 중이라면 끝날 때까지 기다린 뒤 다시
+     * 확인합니다.
+     *
+     * @param sequence 기다릴 기록 순번
+     */
+    void sync(long sequence) {
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = writtenSequence;
+                FileChannel current = channel;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    current.force(false);
+                    forced = true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to sync coupon result journal", e);
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        durableSequence = Math.max(durableSequence, target);
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 마지막 스냅숏 이후 기록된 세그먼트가 최소 크기 이상이라면 새 스냅숏을 만들고 반영된 세그먼트를 지웁니다.
+     * <p>
+     * 기록 중인 세그먼트를 넘기는 동안만 기록을 멈추며, 스냅숏을 쓰는 동안의 기록은 새 세그먼트에 이어집니다.
+     *
+     * @param minimumBytes 스냅숏을 만들 최소 세그먼트 크기(byte)
+     * @param expired      발행 시각(epoch ms)으로 만료 여부를 판단하는 조건
+     * @return 스냅숏을 만들었다면 {@code true}
+     */
+    boolean snapshotIfNecessary(long minimumBytes, LongPredicate expired) {
+        synchronized (snapshotLock) {
+            try {
+                if (journalBytes() < minimumBytes) {
+                    return false;
+                }
+                long lastGeneration = rollSegment();
+
+                Map<String, Entry> entries = new LinkedHashMap<>();
+                readSnapshot(entries);
+                for (long generation : segmentGenerations()) {
+                    if (generation > snapshotGeneration && generation <= lastGeneration) {
+                        readSegment(generation, entries);
+                    }
+                }
+                entries.values().removeIf(entry -> expired.test(entry.issuedMillis));
+                writeSnapshot(entries, lastGeneration);
+
+                for (long generation : segmentGenerations()) {
+                    if (generation <= lastGeneration) {
+                        Files.deleteIfExists(segmentOf(generation));
+                    }
+                }
+                snapshotGeneration = lastGeneration;
+                closedSegmentBytes = 0;
+                log.info(
+                        "Wrote coupon result snapshot of {} messages up to segment {}",
+                        entries.size(),
+                        lastGeneration
+                );
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to snapshot coupon result journal", e);
+            }
+        }
+    }
+
+    /**
+     * 마지막 스냅숏 이후 기록된 세그먼트의 크기를 반환합니다.
+     *
+     * @return 세그먼트 크기(byte)
+     */
+    long journalBytes() {
+        FileChannel current = channel;
+        try {
+            return closedSegmentBytes + (current == null ? 0L : current.size());
+        } catch (IOException e) {
+            return closedSegmentBytes;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private List<CouponResultMessage> openSegments(LongPredicate expired) {
+        try {
+            Files.createDirectories(directory);
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            snapshotGeneration = readSnapshot(entries);
+
+            long lastGeneration = snapshotGeneration;
+            for (long generation : segmentGenerations()) {
+                if (generation <= snapshotGeneration) {
+                    // 스냅숏에 반영된 뒤 지우지 못한 세그먼트이다.
+                    Files.deleteIfExists(segmentOf(generation));
+                    continue;
+                }
+                closedSegmentBytes += readSegment(generation, entries);
+                lastGeneration = generation;
+            }
+            entries.values().removeIf(entry -> expired.test(entry.issuedMillis));
+
+            activeGeneration = lastGeneration + 1;
+            channel = openSegment(activeGeneration);
+
+            List<CouponResultMessage> messages = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                messages.add(decode(entry.getKey(), entry.getValue()));
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Failed to open coupon result journal in " + directory,
+                    e
+            );
+        }
+    }
+
+    private synchronized long append(ByteBuffer body) {
+        if (channel == null || !channel.isOpen()) {
+            throw new IllegalStateException("Coupon result journal is not open");
+        }
+        body.flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        header.putInt(body.remaining()).putInt((int) crc.getValue()).flip();
+        long frameStart = -1L;
+        try {
+            frameStart = channel.size();
+            writeFully(channel, header, body);
+        } catch (IOException e) {
+            if (frameStart >= 0) {
+                discardTornFrame(frameStart, e);
+            }
+            throw new UncheckedIOException("Failed to append to coupon result journal", e);
+        }
+        return ++writtenSequence;
+    }
+
+    /**
+     * 기록하다 실패한 레코드를 잘라냅니다.
+     * <p>
+     * 잘린 레코드가 남으면 복원할 때 그 뒤에 기록된 레코드를 모두 버리게 되므로, 레코드를 쓰기 전의 크기로 되돌립니다. 되돌리지
+     * 못하면 세그먼트를 넘겨 이후의 레코드를 새 세그먼트에 기록합니다.
+     *
+     * @param frameStart 레코드를 쓰기 전의 세그먼트 크기
+     * @param cause      기록 실패 원인. 정리 중 발생한 예외를 덧붙입니다.
+     */
+    private void discardTornFrame(long frameStart, IOException cause) {
+        try {
+            channel.truncate(frameStart);
+        } catch (IOException truncateFailure) {
+            cause.addSuppressed(truncateFailure);
+            try {
+                rollSegment();
+            } catch (IOException rollFailure) {
+                cause.addSuppressed(rollFailure);
+            }
+        }
+    }
+
+    /**
+     * 기록 중인 세그먼트를 디스크에 반영하고 닫은 뒤 다음 세그먼트를 엽니다.
+     *
+     * @return 닫은 세그먼트 번호
+     */
+    private synchronized long rollSegment() throws IOException {
+        syncLock.lock();
+        try {
+            while (syncing) {
+                synced.awaitUninterruptibly();
+            }
+            channel.force(false);
+            closedSegmentBytes += channel.size();
+            channel.close();
+            durableSequence = writtenSequence;
+
+            long closedGeneration = activeGeneration++;
+            channel = openSegment(activeGeneration);
+            return closedGeneration;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private FileChannel openSegment(long generation) throws IOException {
+        return openChannel(segmentOf(generation));
+    }
+
+    /**
+     * 레코드를 이어 쓸 세그먼트 파일을 엽니다.
+     *
+     * @param segment 세그먼트 파일
+     * @return 파일 끝에 이어 쓰는 채널
+     * @throws IOException 파일을 열 수 없는 경우
+     */
+    FileChannel openChannel(Path segment) throws IOException {
+        return FileChannel.open(
+                segment,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        );
+    }
+
+    private Path segmentOf(long generation) {
+        return directory.resolve(SEGMENT_FILE_PREFIX + generation);
+    }
+
+    private List<Long> segmentGenerations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_FILE_PREFIX))
+                    .map(name -> name.substring(SEGMENT_FILE_PREFIX.length()))
+                    .filter(suffix -> suffix.matches("\\d+"))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 세그먼트를 읽어 반영하고 세그먼트 크기를 반환합니다.
+     */
+    private long readSegment(long generation, Map<String, Entry> entries) throws IOException {
+        Path segment = segmentOf(generation);
+        ByteBuffer buffer = map(segment);
+
+        while (applyNext(buffer, entries)) {
+            // 온전한 레코드가 남아 있는 동안 반영한다.
+        }
+        if (buffer.hasRemaining()) {
+            log.warn(
+                    "Discarding {} bytes of incomplete records in {}",
+                    buffer.remaining(),
+                    segment
+            );
+        }
+        return buffer.capacity();
+    }
+
+    /**
+     * 스냅숏을 읽어 반영하고 스냅숏에 포함된 마지막 세그먼트 번호를 반환합니다.
+     */
+    private long readSnapshot(Map<String, Entry> entries) throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE_NAME);
+        if (Files.notExists(snapshot)) {
+            return 0L;
+        }
+        ByteBuffer buffer = map(snapshot);
+        if (buffer.remaining() < SNAPSHOT_HEADER_BYTES || buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalStateException("Invalid coupon result snapshot " + snapshot);
+        }
+        long generation = buffer.getLong();
+        int count = buffer.getInt();
+
+        for (int i = 0; i < count; i++) {
+            if (!applyNext(buffer, entries)) {
+                throw new IllegalStateException("Corrupted coupon result snapshot " + snapshot);
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * 남은 메시지를 임시 파일에 쓰고 디스크에 반영한 뒤 스냅숏 파일과 바꿉니다.
+     * <p>
+     * 파일 이름의 변경은 디렉토리에 기록되므로 디렉토리도 디스크에 반영합니다. 그래야 스냅숏에 반영된 세그먼트를 지운 뒤
+     * 장애가 나더라도 이전 스냅숏으로 되돌아가지 않습니다.
+     */
+    private void writeSnapshot(Map<String, Entry> entries, long generation) throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE_NAME);
+        Path temporary = directory.resolve(SNAPSHOT_FILE_NAME + TEMPORARY_SUFFIX);
+
+        try (FileChannel target = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+            header.putInt(SNAPSHOT_MAGIC).putLong(generation).putInt(entries.size()).flip();
+            writeFully(target, header);
+
+            for (Entry entry : entries.values()) {
+                ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+                frameHeader.putInt(entry.body.remaining()).putInt(entry.checksum).flip();
+                writeFully(target, frameHeader, entry.body.duplicate());
+            }
+            target.force(true);
+        }
+        Files.move(
+                temporary,
+                snapshot,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+        );
+        forceDirectory();
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel target = FileChannel.open(directory, StandardOpenOption.READ)) {
+            target.force(true);
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer... buffers) throws IOException {
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            target.write(buffers);
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            return source.map(FileChannel.MapMode.READ_ONLY, 0, source.size());
+        }
+    }
+
+    /**
+     * 버퍼의 현재 위치에서 레코드 하나를 읽어 반영합니다. 본문은 복사하지 않고 버퍼를 나누어 가리킵니다.
+     *
+     * @return 온전한 레코드를 반영했다면 {@code true}. 그렇지 않으면 위치를 옮기지 않습니다.
+     */
+    private static boolean applyNext(ByteBuffer buffer, Map<String, Entry> entries) {
+        int start = buffer.position();
+        if (buffer.remaining() < FRAME_HEADER_BYTES) {
+            return false;
+        }
+        int length = buffer.getInt(start);
+        int checksum = buffer.getInt(start + Integer.BYTES);
+        if (length <= 0 || length > buffer.remaining() - FRAME_HEADER_BYTES) {
+            return false;
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.limit(start + FRAME_HEADER_BYTES + length).position(start + FRAME_HEADER_BYTES);
+        body = body.slice();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return false;
+        }
+        buffer.position(start + FRAME_HEADER_BYTES + length);
+
+        ByteBuffer reader = body.duplicate();
+        byte type = reader.get();
+        if (type == PUT) {
+            long issuedMillis = reader.getLong();
+            String requestId = readString(reader);
+            // 같은 request id 를 다시 저장하면 마지막 기록 위치로 옮긴다.
+            entries.remove(requestId);
+            entries.put(requestId, new Entry(body, issuedMillis, checksum));
+        } else if (type == DELETE) {
+            entries.remove(readString(reader));
+        }
+        return true;
+    }
+
+    private CouponResultMessage decode(String requestId, Entry entry) {
+        ByteBuffer body = entry.body.duplicate();
+        body.position(1 + Long.BYTES);
+        readString(body);
+        String destination = readString(body);
+        byte[] payload = new byte[body.getInt()];
+        body.get(payload);
+
+        return new CouponResultMessage(
+                requestId,
+                destination,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.issuedMillis), zone),
+                payload
+        );
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getInt()];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 저장 레코드의 본문과 발행 시각입니다. 본문은 읽어 들인 파일의 매핑을 그대로 가리킵니다.
+     */
+    private static final class Entry {
+
+        private final ByteBuffer body;
+        private final long issuedMillis;
+        private final int checksum;
+
+        private Entry(ByteBuffer body, long issuedMillis, int checksum) {
+            this.body = body;
+            this.issuedMillis = issuedMillis;
+            this.checksum = checksum;
+        }
+    }
+}
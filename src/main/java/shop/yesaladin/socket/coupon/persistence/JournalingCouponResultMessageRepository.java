@@ -0,0 +1,221 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponJournalProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+
+/**
+ * 선택된 결과 메시지 저장소를 감싸 저장 / 삭제를 저널에 기록하는 구현체입니다.
+ * <p>
+ * 메시지는 저널에 먼저 기록한 뒤 저장소에 저장하며, fsync 가 설정되어 있으면 디스크에 반영된 뒤 반환합니다. 삭제 기록은 기다리지
+ * 않으므로 서버가 비정상 종료되면 이미 전송된 메시지가 다시 복원될 수 있습니다. 만료는 저널에 기록하지 않고 복원 / 정리 시점에 발행
+ * 시각으로 판단합니다.
+ * <p>
+ * 애플리케이션이 시작될 때 웹 서버를 포함한 다른 컴포넌트보다 먼저 스냅숏과 그 이후의 저널을 읽어 만료되지 않은 메시지를 저장소에
+ * 복원하므로, 복원이 끝나기 전에는 readiness 가 {@code ACCEPTING_TRAFFIC} 으로 바뀌지 않습니다. 종료될 때는 가장 나중에 저널을
+ * 닫습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "socket.coupon.journal.enabled", havingValue = "true")
+public class JournalingCouponResultMessageRepository
+        implements CouponResultMessageRepository, SmartLifecycle {
+
+    private final CouponResultMessageRepository delegate;
+    private final CouponJournalProperties journalProperties;
+    private final CouponResultMessageJournal journal;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+    private final Timer syncTimer;
+    private volatile boolean running;
+    private volatile boolean restored;
+    private volatile int restoredCount;
+    private volatile Duration restoreDuration = Duration.ZERO;
+
+    public JournalingCouponResultMessageRepository(
+            @Qualifier(STORE_QUALIFIER) CouponResultMessageRepository delegate,
+            CouponJournalProperties journalProperties,
+            CouponExpiryProperties expiryProperties,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.journalProperties = journalProperties;
+        this.journal = new CouponResultMessageJournal(
+                Path.of(journalProperties.getDirectory()),
+                clock.getZone()
+        );
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+        this.syncTimer = Timer.builder("coupon.journal.sync")
+                .description("저장 요청이 저널 fsync 를 기다린 시간")
+                .register(meterRegistry);
+        Gauge.builder(
+                        "coupon.journal.size",
+                        journal,
+                        CouponResultMessageJournal::journalBytes
+                )
+                .description("마지막 스냅숏 이후 기록된 저널 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        TimeGauge.builder(
+                        "coupon.journal.restore.duration",
+                        this,
+                        TimeUnit.MILLISECONDS,
+                        repository -> repository.restoreDuration.toMillis()
+                )
+                .description("시작할 때 스냅숏과 저널에서 메시지를 복원하는 데 걸린 시간")
+                .register(meterRegistry);
+        Gauge.builder(
+                        "coupon.journal.restore.messages",
+                        this,
+                        repository -> repository.restoredCount
+                )
+                .description("시작할 때 복원한 메시지 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(CouponResultMessage message) {
+        long sequence = journal.appendPut(message);
+        delegate.save(message);
+        if (journalProperties.isFsync()) {
+            syncTimer.record(() -> journal.sync(sequence));
+        }
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        return delegate.existsByRequestId(requestId);
+    }
+
+    @Override
+    public CouponResultMessage getByRequestId(String requestId) {
+        return delegate.getByRequestId(requestId);
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        delegate.deleteByRequestId(requestId);
+        journal.appendDelete(requestId);
+    }
+
+    @Override
+    public Optional<CouponResultMessage> findAndDeleteByRequestId(String requestId) {
+        Optional<CouponResultMessage> message = delegate.findAndDeleteByRequestId(requestId);
+        message.ifPresent(found -> journal.appendDelete(requestId));
+        return message;
+    }
+
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        return delegate.deleteAllExpired(now, limit);
+    }
+
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        return delegate.countExpiredBacklog(now);
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    /**
+     * 마지막 스냅숏 이후의 저널이 충분히 커졌다면 전송되었거나 만료된 메시지를 제외한 새 스냅숏을 만듭니다.
+     *
+     * @return 스냅숏을 만들었다면 {@code true}
+     */
+    public boolean snapshot() {
+        return journal.snapshotIfNecessary(
+                journalProperties.getSnapshotMinJournalSize().toBytes(),
+                this::isExpired
+        );
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public int getRestoredCount() {
+        return restoredCount;
+    }
+
+    public Duration getRestoreDuration() {
+        return restoreDuration;
+    }
+
+    public long getJournalBytes() {
+        return journal.journalBytes();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<CouponResultMessage> messages = journal.open(this::isExpired);
+        messages.forEach(delegate::save);
+        restoreDuration = Duration.ofNanos(System.nanoTime() - startNanos);
+        restoredCount = messages.size();
+        restored = true;
+        log.info(
+                "Restored {} coupon result messages from the journal in {} ms",
+                restoredCount,
+                restoreDuration.toMillis()
+        );
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the coupon result journal", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+    private boolean isExpired(long issuedMillis) {
+        return issuedMillis + timeToLiveMillis <= clock.millis();
+    }
+}
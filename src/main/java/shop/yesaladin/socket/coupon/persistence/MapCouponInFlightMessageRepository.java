@@ -0,0 +1,89 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.common.expiry.HashedTimingWheel;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponInFlightMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponInFlightMessageRepository;
+
+/**
+ * CouponInFlightMessageRepository 인터페이스의 ConcurrentHashMap을 사용한 구현체입니다.
+ * <p>
+ * 재전송 시각을 타이밍 휠에 등록하여 재전송할 메시지만 확인합니다. 메시지 본문은 전송할 때 만든 것을 그대로 참조합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+public class MapCouponInFlightMessageRepository implements CouponInFlightMessageRepository {
+
+    private final Map<String, CouponInFlightMessage> inFlightMap = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> redeliveryWheel;
+    private final Clock clock;
+
+    public MapCouponInFlightMessageRepository(
+            Clock clock,
+            CouponExpiryProperties expiryProperties
+    ) {
+        this.clock = clock;
+        this.redeliveryWheel = new HashedTimingWheel<>(
+                expiryProperties.getTickDuration().toMillis(),
+                expiryProperties.getWheelSize(),
+                clock.millis()
+        );
+    }
+
+    @Override
+    public void save(CouponInFlightMessage message) {
+        inFlightMap.compute(message.getMessage().getRequestId(), (requestId, previous) -> {
+            redeliveryWheel.schedule(requestId, message.getRedeliverAtMillis());
+            return message;
+        });
+    }
+
+    @Override
+    public Optional<CouponInFlightMessage> findAndDeleteByRequestId(String requestId) {
+        CouponInFlightMessage[] removed = new CouponInFlightMessage[1];
+        inFlightMap.computeIfPresent(requestId, (id, message) -> {
+            redeliveryWheel.cancel(id);
+            removed[0] = message;
+            return null;
+        });
+        return Optional.ofNullable(removed[0]);
+    }
+
+    @Override
+    public int redeliverAllDue(
+            LocalDateTime now,
+            int limit,
+            UnaryOperator<CouponInFlightMessage> nextState
+    ) {
+        long nowMillis = now.atZone(clock.getZone()).toInstant().toEpochMilli();
+
+        return redeliveryWheel.expire(
+                nowMillis,
+                limit,
+                requestId -> inFlightMap.computeIfPresent(requestId, (id, message) -> {
+                    CouponInFlightMessage next = message.getRedeliverAtMillis() <= nowMillis
+                            ? nextState.apply(message)
+                            : message;
+                    if (Objects.nonNull(next)) {
+                        redeliveryWheel.schedule(id, next.getRedeliverAtMillis());
+                    }
+                    return next;
+                })
+        );
+    }
+
+    @Override
+    public int count() {
+        return inFlightMap.size();
+    }
+}
@@ -1,53 +1,119 @@
 package shop.yesaladin.socket.coupon.persistence;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
-import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.common.expiry.HashedTimingWheel;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
 import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
 
 /**
  * 쿠폰 지급 결과 메시지를 저장 / 수정 / 삭제하는 레포지토리 인터페이스의 ConcurrentHashMap을 사용한 구현체입니다.
+ * <p>
+ * 메시지 발행 시각에 만료 기간을 더한 시각을 타이밍 휠에 등록하여 만료된 메시지만 제거합니다. 맵과 타이밍 휠의 키는
+ * 메시지가 가진 request id 문자열을 그대로 사용하므로 키를 위한 객체를 따로 만들지 않습니다.
  *
  * @author 김홍대
  * @since 1.0
  */
-@RequiredArgsConstructor
 @Repository
+@Qualifier(CouponResultMessageRepository.STORE_QUALIFIER)
+@ConditionalOnProperty(
+        name = "socket.coupon.result-store.type",
+        havingValue = "map",
+        matchIfMissing = true
+)
 public class MapCouponResultMessageRepository implements CouponResultMessageRepository {
 
-    private static final Map<String, CouponResultDto> couponResultMap = new ConcurrentHashMap<>();
+    private final Map<String, CouponResultMessage> couponResultMessageMap =
+            new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> expiryWheel;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+
+    public MapCouponResultMessageRepository(Clock clock, CouponExpiryProperties expiryProperties) {
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+        this.expiryWheel = new HashedTimingWheel<>(
+                expiryProperties.getTickDuration().toMillis(),
+                expiryProperties.getWheelSize(),
+                clock.millis()
+        );
+    }
 
     @Override
-    public void save(CouponResultDto result) {
-        couponResultMap.put(result.getRequestId(), result);
+    public void save(CouponResultMessage message) {
+        couponResultMessageMap.compute(message.getRequestId(), (requestId, previous) -> {
+            expiryWheel.schedule(requestId, deadlineOf(message));
+            return message;
+        });
     }
 
     @Override
     public boolean existsByRequestId(String requestId) {
-        return Objects.nonNull(couponResultMap.get(requestId));
+        return Objects.nonNull(couponResultMessageMap.get(requestId));
     }
 
     @Override
-    public CouponResultDto getByRequestId(String requestId) {
-        return couponResultMap.get(requestId);
+    public CouponResultMessage getByRequestId(String requestId) {
+        return couponResultMessageMap.get(requestId);
     }
 
     @Override
     public void deleteByRequestId(String requestId) {
-        couponResultMap.remove(requestId);
+        couponResultMessageMap.computeIfPresent(requestId, (id, previous) -> {
+            expiryWheel.cancel(id);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<CouponResultMessage> findAndDeleteByRequestId(String requestId) {
+        CouponResultMessage[] removed = new CouponResultMessage[1];
+        couponResultMessageMap.computeIfPresent(requestId, (id, message) -> {
+            expiryWheel.cancel(id);
+            removed[0] = message;
+            return null;
+        });
+        return Optional.ofNullable(removed[0]);
+    }
+
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        long nowMillis = toEpochMillis(now);
+
+        return expiryWheel.expire(
+                nowMillis,
+                limit,
+                requestId -> couponResultMessageMap.computeIfPresent(
+                        requestId,
+                        (id, message) -> deadlineOf(message) <= nowMillis ? null : message
+                )
+        );
+    }
+
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        return expiryWheel.countDue(toEpochMillis(now));
     }
 
     @Override
-    public List<CouponResultDto> findAllOver30MinFromIssued(LocalDateTime now) {
-        return couponResultMap.values()
-                .stream()
-                .filter(result -> now.isAfter(result.getIssuedDateTime().plusMinutes(30)))
-                .collect(Collectors.toList());
+    public int count() {
+        return couponResultMessageMap.size();
+    }
+
+    private long deadlineOf(CouponResultMessage message) {
+        return toEpochMillis(message.getIssuedDateTime()) + timeToLiveMillis;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
     }
 }
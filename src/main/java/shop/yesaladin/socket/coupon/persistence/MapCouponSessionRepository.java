@@ -0,0 +1,120 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSessionRepository;
+
+/**
+ * CouponSessionRepository 인터페이스의 ConcurrentHashMap을 사용한 구현체입니다.
+ * <p>
+ * 세션 id 별로 구독한 request id 와 구독 id 를 보관하고, request id 별로 마지막으로 구독한 세션 id 를 보관합니다. 세션 정보는
+ * 세션이 연결될 때만 만들고 종료되면 모두 제거하며, 종료 이후에 도착한 구독은 무시하므로 보관하는 정보의 양은 살아 있는 세션 수를
+ * 따라갑니다.
+ * <p>
+ * 한 세션의 구독 / 구독 해제 / 종료는 그 세션 정보의 잠금 안에서 처리합니다. 한 세션에서 같은 request id 를 여러 번 구독했다면
+ * 마지막 구독이 해제될 때 request id 를 반환합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+public class MapCouponSessionRepository implements CouponSessionRepository {
+
+    private final Map<String, SessionBindings> sessionMap = new ConcurrentHashMap<>();
+    private final Map<String, String> ownerMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void openSession(String sessionId) {
+        sessionMap.putIfAbsent(sessionId, new SessionBindings());
+    }
+
+    @Override
+    public boolean bindSubscription(String sessionId, String subscriptionId, String requestId) {
+        SessionBindings bindings = sessionMap.get(sessionId);
+        if (Objects.isNull(bindings)) {
+            return false;
+        }
+        synchronized (bindings) {
+            // 세션 종료와 경합하여 제거된 세션 정보에 기록하면 request id 의 소유 정보가 남는다.
+            if (bindings.closed) {
+                return false;
+            }
+            bindings.subscriptions.put(subscriptionId, requestId);
+            bindings.requestIds.add(requestId);
+            String previousOwner = ownerMap.put(requestId, sessionId);
+            if (Objects.nonNull(previousOwner) && !previousOwner.equals(sessionId)) {
+                SessionBindings previous = sessionMap.get(previousOwner);
+                if (Objects.nonNull(previous)) {
+                    previous.requestIds.remove(requestId);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<String> unbindSubscription(String sessionId, String subscriptionId) {
+        SessionBindings bindings = sessionMap.get(sessionId);
+        if (Objects.isNull(bindings)) {
+            return Optional.empty();
+        }
+        synchronized (bindings) {
+            String requestId = bindings.subscriptions.remove(subscriptionId);
+            // 같은 세션에서 같은 request id 를 구독한 다른 구독이 남아 있으면 연결을 유지한다.
+            if (Objects.isNull(requestId)
+                    || bindings.subscriptions.containsValue(requestId)
+                    || !bindings.requestIds.remove(requestId)) {
+                return Optional.empty();
+            }
+            if (ownerMap.remove(requestId, sessionId)) {
+                return Optional.of(requestId);
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<String> unbindSession(String sessionId) {
+        SessionBindings bindings = sessionMap.remove(sessionId);
+        if (Objects.isNull(bindings)) {
+            return Collections.emptyList();
+        }
+        List<String> released = new ArrayList<>(bindings.requestIds.size());
+        synchronized (bindings) {
+            bindings.closed = true;
+            for (String requestId : bindings.requestIds) {
+                if (ownerMap.remove(requestId, sessionId)) {
+                    released.add(requestId);
+                }
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public boolean isSubscribed(String requestId) {
+        return ownerMap.containsKey(requestId);
+    }
+
+    @Override
+    public int countSessions() {
+        return sessionMap.size();
+    }
+
+    /**
+     * 세션 하나가 구독한 request id 와 구독 정보입니다.
+     */
+    private static final class SessionBindings {
+
+        private final Set<String> requestIds = ConcurrentHashMap.newKeySet();
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+        private boolean closed;
+    }
+}
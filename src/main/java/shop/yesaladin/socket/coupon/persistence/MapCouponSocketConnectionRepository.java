@@ -1,29 +1,58 @@
 package shop.yesaladin.socket.coupon.persistence;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.common.expiry.HashedTimingWheel;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
 import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
 import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
 
 /**
  * CouponGiveSocketConnectionRepository 인터페이스의 ConcurrentHashMap을 사용한 구현체입니다.
+ * <p>
+ * 연결 시각에 만료 기간을 더한 시각을 타이밍 휠에 등록하여 만료된 연결 정보만 제거합니다. 맵과 타이밍 휠의 키는
+ * 연결 정보가 가진 request id 문자열을 그대로 사용하므로 키를 위한 객체를 따로 만들지 않습니다.
  *
  * @author 김홍대
  * @since 1.0
  */
 @Repository
+@ConditionalOnProperty(
+        name = "socket.coupon.connection-store.type",
+        havingValue = "map",
+        matchIfMissing = true
+)
 public class MapCouponSocketConnectionRepository implements CouponSocketConnectionRepository {
 
-    private static final Map<String, CouponSocketConnection> connectionMap = new ConcurrentHashMap<>();
+    private final Map<String, CouponSocketConnection> connectionMap = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> expiryWheel;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+
+    public MapCouponSocketConnectionRepository(
+            Clock clock,
+            CouponExpiryProperties expiryProperties
+    ) {
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+        this.expiryWheel = new HashedTimingWheel<>(
+                expiryProperties.getTickDuration().toMillis(),
+                expiryProperties.getWheelSize(),
+                clock.millis()
+        );
+    }
 
     @Override
     public void save(CouponSocketConnection connection) {
-        connectionMap.put(connection.getRequestId(), connection);
+        connectionMap.compute(connection.getRequestId(), (requestId, previous) -> {
+            expiryWheel.schedule(requestId, deadlineOf(connection));
+            return connection;
+        });
     }
 
     @Override
@@ -33,16 +62,41 @@ public class MapCouponSocketConnectionRepository implements CouponSocketConnecti
 
     @Override
     public void deleteByRequestId(String requestId) {
-        connectionMap.remove(requestId);
+        connectionMap.computeIfPresent(requestId, (id, previous) -> {
+            expiryWheel.cancel(id);
+            return null;
+        });
+    }
+
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        long nowMillis = toEpochMillis(now);
+
+        return expiryWheel.expire(
+                nowMillis,
+                limit,
+                requestId -> connectionMap.computeIfPresent(
+                        requestId,
+                        (id, connection) -> deadlineOf(connection) <= nowMillis ? null : connection
+                )
+        );
     }
 
     @Override
-    public List<CouponSocketConnection> findAllOver30MinFromConnected(LocalDateTime now) {
-        return connectionMap.values()
-                .stream()
-                .filter(connection -> now.isAfter(connection.getConnectedDateTime()
-                        .plusMinutes(30)))
-                .collect(Collectors.toList());
+    public int countExpiredBacklog(LocalDateTime now) {
+        return expiryWheel.countDue(toEpochMillis(now));
     }
 
+    @Override
+    public int count() {
+        return connectionMap.size();
+    }
+
+    private long deadlineOf(CouponSocketConnection connection) {
+        return toEpochMillis(connection.getConnectedDateTime()) + timeToLiveMillis;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
 }
@@ -0,0 +1,520 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.common.expiry.ExpiryTickCounter;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponResultStoreProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+
+/**
+ * 쿠폰 지급 결과 메시지를 저장 / 수정 / 삭제하는 레포지토리 인터페이스의 direct 버퍼를 사용한 구현체입니다.
+ * <p>
+ * request id, 토픽, JSON 본문과 발행 시각을 하나의 레코드로 이어 붙여 세그먼트별 direct 버퍼에 저장하고, request id 의 해시로
+ * 찾는 open addressing 인덱스는 기본형 배열로만 구성하여 메시지 수와 관계없이 힙에 만드는 객체 수를 일정하게 유지합니다. 메시지는
+ * 전송하기 위해 꺼낼 때만 객체로 복원합니다.
+ * <p>
+ * 삭제된 레코드가 차지하던 공간은 버퍼가 가득 찼을 때 살아 있는 레코드를 버퍼 앞쪽으로 당겨 회수하며, 버퍼를 늘려야 할 때만 새
+ * 버퍼를 할당합니다. 만료 처리는 세그먼트마다 인덱스의 만료 시각 배열을 이어서 훑되 한 번의 호출에서 확인하는 슬롯 수를 제한하고,
+ * 만료 대기 수는 {@link ExpiryTickCounter} 로 인덱스를 훑지 않고 구합니다. 버퍼는 {@code -XX:MaxDirectMemorySize} 한도
+ * 안에서 할당됩니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+@Qualifier(CouponResultMessageRepository.STORE_QUALIFIER)
+@ConditionalOnProperty(name = "socket.coupon.result-store.type", havingValue = "off-heap")
+public class OffHeapCouponResultMessageRepository implements CouponResultMessageRepository {
+
+    private static final int MAX_VISITS_PER_EXPIRY = 8;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+    private int sweepSegment;
+
+    public OffHeapCouponResultMessageRepository(
+            Clock clock,
+            CouponExpiryProperties expiryProperties,
+            CouponResultStoreProperties storeProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+        long tickMillis = expiryProperties.getTickDuration().toMillis();
+
+        int segmentCount = powerOfTwoAtLeast(storeProperties.getOffHeapSegments());
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(
+                    (int) storeProperties.getOffHeapInitialSegmentSize().toBytes(),
+                    powerOfTwoAtLeast(storeProperties.getOffHeapInitialSegmentCapacity()),
+                    new ExpiryTickCounter(tickMillis, timeToLiveMillis, clock.millis())
+            );
+        }
+
+        Gauge.builder("coupon.result.store.size", this, repository -> repository.size())
+                .description("저장된 결과 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder(
+                        "coupon.result.store.off-heap.bytes",
+                        this,
+                        repository -> repository.allocatedBytes()
+                )
+                .description("결과 메시지 저장에 할당된 direct 버퍼 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(CouponResultMessage message) {
+        byte[] key = keyOf(message.getRequestId());
+        int hash = hashOf(message.getRequestId());
+
+        segmentFor(hash).put(
+                hash,
+                key,
+                message.getDestination().getBytes(StandardCharsets.UTF_8),
+                message.getPayload(),
+                toEpochMillis(message.getIssuedDateTime()),
+                timeToLiveMillis,
+                clock.millis()
+        );
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        int hash = hashOf(requestId);
+        return segmentFor(hash).contains(hash, keyOf(requestId));
+    }
+
+    @Override
+    public CouponResultMessage getByRequestId(String requestId) {
+        int hash = hashOf(requestId);
+        return segmentFor(hash).get(hash, keyOf(requestId), requestId, clock.getZone(), false);
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        int hash = hashOf(requestId);
+        segmentFor(hash).remove(hash, keyOf(requestId));
+    }
+
+    @Override
+    public Optional<CouponResultMessage> findAndDeleteByRequestId(String requestId) {
+        int hash = hashOf(requestId);
+        return Optional.ofNullable(
+                segmentFor(hash).get(hash, keyOf(requestId), requestId, clock.getZone(), true)
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 세그먼트마다 마지막으로 훑은 슬롯부터 이어서 확인하며, 한 번의 호출에서 {@code limit} 의 8배까지의 슬롯만 확인합니다.
+     * 확인한 슬롯 수가 한도에 도달하면 {@code limit} 보다 적게 제거하더라도 반환하고, 남은 슬롯은 다음 호출에서 확인합니다.
+     * 따라서 반환값으로 만료 처리가 끝났는지 판단할 수 없으며, 남은 만료 메시지는 {@link #countExpiredBacklog} 로 셉니다.
+     */
+    @Override
+    public synchronized int deleteAllExpired(LocalDateTime now, int limit) {
+        long nowMillis = toEpochMillis(now);
+        long visitBudget = Math.max((long) limit * MAX_VISITS_PER_EXPIRY, 1L);
+        long segmentBudget = Math.max(visitBudget / segments.length, 1L);
+        int start = sweepSegment;
+        int expired = 0;
+
+        for (int i = 0; i < segments.length && expired < limit; i++) {
+            Segment segment = segments[(start + i) & (segments.length - 1)];
+            expired += segment.expire(nowMillis, limit - expired, segmentBudget);
+        }
+        sweepSegment = (start + 1) & (segments.length - 1);
+        return expired;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 만료 시각을 tick 단위로 세므로, 현재 tick 안에서 아직 만료되지 않은 메시지도 포함한 상한값입니다.
+     */
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        long nowMillis = toEpochMillis(now);
+        int count = 0;
+
+        for (Segment segment : segments) {
+            count += segment.countExpired(nowMillis);
+        }
+        return count;
+    }
+
+    @Override
+    public int count() {
+        return size();
+    }
+
+    private int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private long allocatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.allocatedBytes();
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segmentShift == Integer.SIZE ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static byte[] keyOf(String requestId) {
+        return requestId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int hashOf(String requestId) {
+        // 상위 비트는 세그먼트, 하위 비트는 슬롯 선택에 쓰이므로 전체 비트를 고르게 섞는다.
+        int hash = requestId.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        int size = Integer.highestOneBit(Math.max(1, value));
+        return size < value ? size << 1 : size;
+    }
+
+    /**
+     * 하나의 direct 버퍼와 open addressing 인덱스로 구성된 세그먼트입니다.
+     * <p>
+     * 레코드는 [request id 길이, 토픽 길이, 본문 길이, 발행 시각, request id, 토픽, 본문] 순서로 버퍼 끝에 이어 붙입니다.
+     * 레코드마다 {@link ExpiryTickCounter} 가 센 tick 을 인덱스에 함께 보관합니다.
+     */
+    private static final class Segment {
+
+        private static final int EMPTY = -1;
+        private static final int TOMBSTONE = -2;
+        private static final int HEADER_BYTES = 3 * Integer.BYTES + Long.BYTES;
+        private static final int MAXIMUM_BUFFER_BYTES = 1 << 30;
+        private static final int COPY_CHUNK_BYTES = 8192;
+
+        private final ExpiryTickCounter expiryCounter;
+        private int[] hashes;
+        private int[] offsets;
+        private long[] deadlines;
+        private long[] countedTicks;
+        private int size;
+        private int used;
+        private int sweepCursor;
+        private ByteBuffer buffer;
+        private int liveBytes;
+
+        private Segment(
+                int initialBufferBytes,
+                int initialCapacity,
+                ExpiryTickCounter expiryCounter
+        ) {
+            this.buffer = ByteBuffer.allocateDirect(Math.max(HEADER_BYTES, initialBufferBytes));
+            this.expiryCounter = expiryCounter;
+            resetIndex(initialCapacity);
+        }
+
+        private synchronized void put(
+                int hash,
+                byte[] key,
+                byte[] destination,
+                byte[] payload,
+                long issuedMillis,
+                long timeToLiveMillis,
+                long nowMillis
+        ) {
+            int offset = append(key, destination, payload, issuedMillis);
+            int slot = find(hash, key);
+            if (slot >= 0) {
+                liveBytes -= recordLengthAt(offsets[slot]);
+                expiryCounter.remove(countedTicks[slot]);
+            } else {
+                if (used + 1 > offsets.length - (offsets.length >>> 2)) {
+                    rehash(size + 1 > offsets.length >>> 1 ? offsets.length << 1 : offsets.length);
+                }
+                slot = freeSlot(hash);
+                if (offsets[slot] == EMPTY) {
+                    used++;
+                }
+                hashes[slot] = hash;
+                size++;
+            }
+            offsets[slot] = offset;
+            deadlines[slot] = issuedMillis + timeToLiveMillis;
+            countedTicks[slot] = expiryCounter.add(deadlines[slot], nowMillis);
+        }
+
+        private synchronized boolean contains(int hash, byte[] key) {
+            return find(hash, key) >= 0;
+        }
+
+        private synchronized CouponResultMessage get(
+                int hash,
+                byte[] key,
+                String requestId,
+                ZoneId zone,
+                boolean remove
+        ) {
+            int slot = find(hash, key);
+            if (slot < 0) {
+                return null;
+            }
+            CouponResultMessage message = decode(offsets[slot], requestId, zone);
+            if (remove) {
+                removeAt(slot);
+            }
+            return message;
+        }
+
+        private synchronized void remove(int hash, byte[] key) {
+            int slot = find(hash, key);
+            if (slot >= 0) {
+                removeAt(slot);
+            }
+        }
+
+        /**
+         * 마지막으로 훑은 슬롯부터 최대 {@code maxVisits}개의 슬롯을 확인하며 만료된 레코드를 최대 {@code limit}개까지
+         * 제거합니다.
+         */
+        private synchronized int expire(long nowMillis, int limit, long maxVisits) {
+            long visits = Math.min(maxVisits, offsets.length);
+            int expired = 0;
+
+            for (long visited = 0; visited < visits && expired < limit; visited++) {
+                int slot = sweepCursor;
+                sweepCursor = (sweepCursor + 1) & (offsets.length - 1);
+                if (offsets[slot] >= 0 && deadlines[slot] <= nowMillis) {
+                    removeAt(slot);
+                    expired++;
+                }
+            }
+            return expired;
+        }
+
+        private synchronized int countExpired(long nowMillis) {
+            return expiryCounter.countExpired(nowMillis);
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long allocatedBytes() {
+            return buffer.capacity();
+        }
+
+        private int find(int hash, byte[] key) {
+            int mask = offsets.length - 1;
+            for (int slot = hash & mask, probes = 0; probes < offsets.length; probes++) {
+                int offset = offsets[slot];
+                if (offset == EMPTY) {
+                    return -1;
+                }
+                if (offset >= 0 && hashes[slot] == hash && keyEquals(offset, key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int freeSlot(int hash) {
+            int mask = offsets.length - 1;
+            int slot = hash & mask;
+            while (offsets[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void removeAt(int slot) {
+            liveBytes -= recordLengthAt(offsets[slot]);
+            expiryCounter.remove(countedTicks[slot]);
+            offsets[slot] = TOMBSTONE;
+            size--;
+            if (size == 0) {
+                // 비어 있으면 버퍼와 인덱스를 처음부터 다시 사용한다.
+                buffer.clear();
+                liveBytes = 0;
+                Arrays.fill(offsets, EMPTY);
+                used = 0;
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] previousHashes = hashes;
+            int[] previousOffsets = offsets;
+            long[] previousDeadlines = deadlines;
+            long[] previousCountedTicks = countedTicks;
+
+            resetIndex(capacity);
+            for (int i = 0; i < previousOffsets.length; i++) {
+                if (previousOffsets[i] >= 0) {
+                    int slot = freeSlot(previousHashes[i]);
+                    hashes[slot] = previousHashes[i];
+                    offsets[slot] = previousOffsets[i];
+                    deadlines[slot] = previousDeadlines[i];
+                    countedTicks[slot] = previousCountedTicks[i];
+                    used++;
+                }
+            }
+        }
+
+        private void resetIndex(int capacity) {
+            hashes = new int[capacity];
+            offsets = new int[capacity];
+            deadlines = new long[capacity];
+            countedTicks = new long[capacity];
+            Arrays.fill(offsets, EMPTY);
+            used = 0;
+            sweepCursor = 0;
+        }
+
+        private int append(byte[] key, byte[] destination, byte[] payload, long issuedMillis) {
+            int recordLength = HEADER_BYTES + key.length + destination.length + payload.length;
+            if (buffer.remaining() < recordLength) {
+                compact(recordLength);
+            }
+            int offset = buffer.position();
+            buffer.putInt(key.length)
+                    .putInt(destination.length)
+                    .putInt(payload.length)
+                    .putLong(issuedMillis)
+                    .put(key)
+                    .put(destination)
+                    .put(payload);
+            liveBytes += recordLength;
+            return offset;
+        }
+
+        /**
+         * 살아 있는 레코드만 남기고 삭제된 레코드의 공간을 회수합니다. 옮긴 뒤에도 절반 이상이 비어 있도록 해야 하면 더 큰 새
+         * 버퍼로 옮기고, 그렇지 않으면 지금 버퍼 안에서 레코드를 앞쪽으로 당깁니다.
+         */
+        private void compact(int recordLength) {
+            long required = 2L * (liveBytes + recordLength);
+            if (required > MAXIMUM_BUFFER_BYTES) {
+                throw new IllegalStateException("Off-heap coupon result segment is full");
+            }
+            if (required <= buffer.capacity()) {
+                compactInPlace();
+                return;
+            }
+            int capacity = buffer.capacity();
+            while (capacity < required) {
+                capacity <<= 1;
+            }
+
+            ByteBuffer target = ByteBuffer.allocateDirect(capacity);
+            for (int slot = 0; slot < offsets.length; slot++) {
+                int offset = offsets[slot];
+                if (offset >= 0) {
+                    ByteBuffer record = buffer.duplicate();
+                    record.limit(offset + recordLengthAt(offset)).position(offset);
+                    offsets[slot] = target.position();
+                    target.put(record);
+                }
+            }
+            buffer = target;
+        }
+
+        private void compactInPlace() {
+            // 레코드를 버퍼의 위치 순서대로 앞쪽으로만 옮기므로, 앞에서부터 조각 단위로 복사해도 아직 옮기지 않은 레코드를
+            // 덮어쓰지 않는다.
+            long[] liveRecords = new long[size];
+            int count = 0;
+            for (int slot = 0; slot < offsets.length; slot++) {
+                if (offsets[slot] >= 0) {
+                    liveRecords[count++] = ((long) offsets[slot] << Integer.SIZE) | slot;
+                }
+            }
+            Arrays.sort(liveRecords, 0, count);
+
+            byte[] chunk = new byte[COPY_CHUNK_BYTES];
+            ByteBuffer source = buffer.duplicate();
+            ByteBuffer target = buffer.duplicate();
+            target.clear();
+            for (int i = 0; i < count; i++) {
+                int offset = (int) (liveRecords[i] >>> Integer.SIZE);
+                int slot = (int) liveRecords[i];
+                int length = recordLengthAt(offset);
+                offsets[slot] = target.position();
+                source.limit(offset + length).position(offset);
+                while (source.hasRemaining()) {
+                    int bytes = Math.min(chunk.length, source.remaining());
+                    source.get(chunk, 0, bytes);
+                    target.put(chunk, 0, bytes);
+                }
+            }
+            buffer.clear().position(target.position());
+        }
+
+        private int recordLengthAt(int offset) {
+            return HEADER_BYTES
+                    + buffer.getInt(offset)
+                    + buffer.getInt(offset + Integer.BYTES)
+                    + buffer.getInt(offset + 2 * Integer.BYTES);
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            if (buffer.getInt(offset) != key.length) {
+                return false;
+            }
+            int keyOffset = offset + HEADER_BYTES;
+            for (int i = 0; i < key.length; i++) {
+                if (buffer.get(keyOffset + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private CouponResultMessage decode(int offset, String requestId, ZoneId zone) {
+            int keyLength = buffer.getInt(offset);
+            int destinationLength = buffer.getInt(offset + Integer.BYTES);
+            int payloadLength = buffer.getInt(offset + 2 * Integer.BYTES);
+            long issuedMillis = buffer.getLong(offset + 3 * Integer.BYTES);
+
+            ByteBuffer record = buffer.duplicate();
+            record.position(offset + HEADER_BYTES + keyLength);
+            byte[] destination = new byte[destinationLength];
+            byte[] payload = new byte[payloadLength];
+            record.get(destination).get(payload);
+
+            return new CouponResultMessage(
+                    requestId,
+                    new String(destination, StandardCharsets.UTF_8),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(issuedMillis), zone),
+                    payload
+            );
+        }
+    }
+}
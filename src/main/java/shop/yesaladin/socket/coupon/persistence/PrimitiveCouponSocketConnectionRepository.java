@@ -0,0 +1,331 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.common.expiry.ExpiryTickCounter;
+import shop.yesaladin.socket.common.key.RequestIdKey;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponShardingProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+
+/**
+ * CouponSocketConnectionRepository 인터페이스의 기본형 배열을 사용한 구현체입니다.
+ * <p>
+ * 연결 정보를 객체로 보관하지 않고, 연결 시각을 epoch ms 로 바꾸어 open addressing 테이블의 {@code long} 배열에 저장합니다.
+ * request id 는 {@link RequestIdKey} 로 바꾸어 소문자 UUID 형식이면 두 개의 {@code long} 으로 나누어 저장하고, 그 외의
+ * request id 만 intern 한 문자열로 보관합니다. 키의 해시도 함께 저장하여 테이블을 늘릴 때 다시 계산하지 않습니다.
+ * <p>
+ * 테이블은 키의 해시 상위 비트에 따라 {@link CouponShardingProperties} 의 shard 수만큼의 세그먼트로 나누고, 세그먼트마다
+ * 따로 잠급니다. 만료 처리는 세그먼트의 연결 시각 배열을 이어서 훑되 한 번의 호출에서 확인하는 슬롯 수를 제한하고, 만료
+ * 대기 수는 {@link ExpiryTickCounter} 로 테이블을 훑지 않고 구합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "socket.coupon.connection-store.type", havingValue = "primitive")
+public class PrimitiveCouponSocketConnectionRepository implements CouponSocketConnectionRepository {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_VISITS_PER_EXPIRY = 8;
+    private static final byte EMPTY = 0;
+    private static final byte UUID_KEY = 1;
+    private static final byte STRING_KEY = 2;
+    private static final byte TOMBSTONE = 3;
+
+    private final Clock clock;
+    private final long timeToLiveMillis;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private volatile int nextSweepSegment;
+
+    public PrimitiveCouponSocketConnectionRepository(
+            Clock clock,
+            CouponExpiryProperties expiryProperties,
+            CouponShardingProperties shardingProperties
+    ) {
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+        long tickMillis = expiryProperties.getTickDuration().toMillis();
+
+        int segmentCount = shardingProperties.resolveShardCount();
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(
+                    new ExpiryTickCounter(tickMillis, timeToLiveMillis, clock.millis())
+            );
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    @Override
+    public void save(CouponSocketConnection connection) {
+        RequestIdKey key = RequestIdKey.of(connection.getRequestId());
+        long connected = toEpochMillis(connection.getConnectedDateTime());
+
+        segmentOf(key).save(key, connected, connected + timeToLiveMillis, clock.millis());
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        RequestIdKey key = RequestIdKey.of(requestId);
+        return segmentOf(key).exists(key);
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        RequestIdKey key = RequestIdKey.of(requestId);
+        segmentOf(key).delete(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 세그먼트마다 마지막으로 훑은 슬롯부터 이어서 확인하며, 한 번의 호출에서 {@code limit} 의 8배까지의 슬롯만 확인합니다.
+     * 확인한 슬롯 수가 한도에 도달하면 {@code limit} 보다 적게 제거하더라도 반환하고, 남은 슬롯은 다음 호출에서 확인합니다.
+     */
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        long nowMillis = toEpochMillis(now);
+        long connectedBefore = nowMillis - timeToLiveMillis;
+        long visitBudget = Math.max((long) limit * MAX_VISITS_PER_EXPIRY, 1L);
+        long segmentBudget = Math.max(visitBudget / segments.length, 1L);
+        int start = nextSweepSegment;
+        int expired = 0;
+
+        for (int i = 0; i < segments.length && expired < limit; i++) {
+            Segment segment = segments[(start + i) & segmentMask];
+            expired += segment.deleteAllExpired(connectedBefore, limit - expired, segmentBudget);
+        }
+        nextSweepSegment = (start + 1) & segmentMask;
+        return expired;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 만료 시각을 tick 단위로 세므로, 현재 tick 안에서 아직 만료되지 않은 연결 정보도 포함한 상한값입니다.
+     */
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        long nowMillis = toEpochMillis(now);
+        int count = 0;
+
+        for (Segment segment : segments) {
+            count += segment.countExpired(nowMillis);
+        }
+        return count;
+    }
+
+    @Override
+    public int count() {
+        int count = 0;
+
+        for (Segment segment : segments) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    private Segment segmentOf(RequestIdKey key) {
+        // 테이블 안의 위치는 해시의 하위 비트로 정하므로 세그먼트는 상위 비트로 고른다.
+        return segments[(key.hashCode() >>> 24) & segmentMask];
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 독립적으로 잠그는 open addressing 테이블입니다.
+     * <p>
+     * 연결 정보마다 {@link ExpiryTickCounter} 가 센 tick 을 함께 보관합니다.
+     */
+    private static final class Segment {
+
+        private final ExpiryTickCounter expiryCounter;
+        private byte[] states;
+        private long[] mostSignificantBits;
+        private long[] leastSignificantBits;
+        private String[] stringKeys;
+        private int[] hashes;
+        private long[] connectedMillis;
+        private long[] countedTicks;
+        private int size;
+        private int used;
+        private int sweepCursor;
+
+        private Segment(ExpiryTickCounter expiryCounter) {
+            this.expiryCounter = expiryCounter;
+            resetTable(INITIAL_CAPACITY);
+        }
+
+        private synchronized void save(
+                RequestIdKey key,
+                long connected,
+                long deadlineMillis,
+                long nowMillis
+        ) {
+            int slot = find(key);
+            if (slot < 0) {
+                if (used + 1 > states.length - (states.length >>> 2)) {
+                    rehash(size + 1 > states.length >>> 1 ? states.length << 1 : states.length);
+                }
+                slot = insert(key);
+                size++;
+            } else {
+                expiryCounter.remove(countedTicks[slot]);
+            }
+            connectedMillis[slot] = connected;
+            countedTicks[slot] = expiryCounter.add(deadlineMillis, nowMillis);
+        }
+
+        private synchronized boolean exists(RequestIdKey key) {
+            return find(key) >= 0;
+        }
+
+        private synchronized void delete(RequestIdKey key) {
+            int slot = find(key);
+            if (slot >= 0) {
+                removeAt(slot);
+            }
+        }
+
+        private synchronized int deleteAllExpired(
+                long connectedBefore,
+                int limit,
+                long visitBudget
+        ) {
+            long visits = Math.min(visitBudget, states.length);
+            int expired = 0;
+
+            for (long visited = 0; visited < visits && expired < limit; visited++) {
+                int slot = sweepCursor;
+                sweepCursor = (sweepCursor + 1) & (states.length - 1);
+                if (isLive(slot) && connectedMillis[slot] <= connectedBefore) {
+                    removeAt(slot);
+                    expired++;
+                }
+            }
+            return expired;
+        }
+
+        private synchronized int countExpired(long nowMillis) {
+            return expiryCounter.countExpired(nowMillis);
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private int find(RequestIdKey key) {
+            int mask = states.length - 1;
+            int hash = key.hashCode();
+            boolean uuid = key.isUuid();
+            String stringKey = uuid ? null : key.toString();
+
+            for (int slot = hash & mask, probes = 0;
+                    probes < states.length;
+                    probes++, slot = (slot + 1) & mask) {
+                byte state = states[slot];
+                if (state == EMPTY) {
+                    return -1;
+                }
+                if (hashes[slot] != hash) {
+                    continue;
+                }
+                if (uuid && state == UUID_KEY
+                        && mostSignificantBits[slot] == key.getMostSignificantBits()
+                        && leastSignificantBits[slot] == key.getLeastSignificantBits()) {
+                    return slot;
+                }
+                if (!uuid && state == STRING_KEY && stringKeys[slot].equals(stringKey)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int insert(RequestIdKey key) {
+            boolean uuid = key.isUuid();
+
+            int slot = freeSlot(key.hashCode());
+            if (states[slot] == EMPTY) {
+                used++;
+            }
+            states[slot] = uuid ? UUID_KEY : STRING_KEY;
+            mostSignificantBits[slot] = key.getMostSignificantBits();
+            leastSignificantBits[slot] = key.getLeastSignificantBits();
+            stringKeys[slot] = uuid ? null : key.toString().intern();
+            hashes[slot] = key.hashCode();
+            return slot;
+        }
+
+        private int freeSlot(int hash) {
+            int mask = states.length - 1;
+            int slot = hash & mask;
+            while (states[slot] == UUID_KEY || states[slot] == STRING_KEY) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void removeAt(int slot) {
+            expiryCounter.remove(countedTicks[slot]);
+            states[slot] = TOMBSTONE;
+            stringKeys[slot] = null;
+            size--;
+            if (size == 0) {
+                Arrays.fill(states, EMPTY);
+                used = 0;
+            }
+        }
+
+        private void rehash(int capacity) {
+            byte[] previousStates = states;
+            long[] previousMost = mostSignificantBits;
+            long[] previousLeast = leastSignificantBits;
+            String[] previousStringKeys = stringKeys;
+            int[] previousHashes = hashes;
+            long[] previousConnectedMillis = connectedMillis;
+            long[] previousCountedTicks = countedTicks;
+
+            resetTable(capacity);
+            for (int i = 0; i < previousStates.length; i++) {
+                byte state = previousStates[i];
+                if (state != UUID_KEY && state != STRING_KEY) {
+                    continue;
+                }
+                int slot = freeSlot(previousHashes[i]);
+                states[slot] = state;
+                mostSignificantBits[slot] = previousMost[i];
+                leastSignificantBits[slot] = previousLeast[i];
+                stringKeys[slot] = previousStringKeys[i];
+                hashes[slot] = previousHashes[i];
+                connectedMillis[slot] = previousConnectedMillis[i];
+                countedTicks[slot] = previousCountedTicks[i];
+                used++;
+            }
+        }
+
+        private void resetTable(int capacity) {
+            states = new byte[capacity];
+            mostSignificantBits = new long[capacity];
+            leastSignificantBits = new long[capacity];
+            stringKeys = new String[capacity];
+            hashes = new int[capacity];
+            connectedMillis = new long[capacity];
+            countedTicks = new long[capacity];
+            used = 0;
+            sweepCursor = 0;
+        }
+
+        private boolean isLive(int slot) {
+            return states[slot] == UUID_KEY || states[slot] == STRING_KEY;
+        }
+    }
+}
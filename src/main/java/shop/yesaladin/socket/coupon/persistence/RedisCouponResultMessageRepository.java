@@ -0,0 +1,138 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+
+/**
+ * 쿠폰 지급 결과 메시지를 저장 / 수정 / 삭제하는 레포지토리 인터페이스의 Redis 를 사용한 구현체입니다.
+ * <p>
+ * 여러 소켓 서버 노드가 같은 메시지를 공유할 수 있도록 발행 시각, 토픽, JSON 본문을 줄바꿈으로 구분하여 하나의 값으로 저장하고, 발행
+ * 시각에 만료 기간을 더한 시각까지 Redis TTL 을 설정하므로 별도의 만료 처리가 필요하지 않습니다. 원자적으로 꺼내기 위해 Redis 6.2
+ * 이상의 GETDEL 명령을 사용합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+@Qualifier(CouponResultMessageRepository.STORE_QUALIFIER)
+@ConditionalOnProperty(name = "socket.coupon.result-store.type", havingValue = "redis")
+public class RedisCouponResultMessageRepository implements CouponResultMessageRepository {
+
+    private static final String KEY_PREFIX = "coupon:result:";
+    private static final char FIELD_SEPARATOR = '\n';
+    private static final long MINIMUM_TIME_TO_LIVE_MILLIS = 1;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+
+    public RedisCouponResultMessageRepository(
+            StringRedisTemplate redisTemplate,
+            Clock clock,
+            CouponExpiryProperties expiryProperties
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+    }
+
+    @Override
+    public void save(CouponResultMessage message) {
+        long deadlineMillis = message.getIssuedDateTime()
+                .atZone(clock.getZone())
+                .toInstant()
+                .toEpochMilli() + timeToLiveMillis;
+        long remainingMillis = Math.max(MINIMUM_TIME_TO_LIVE_MILLIS, deadlineMillis - clock.millis());
+
+        redisTemplate.opsForValue().set(
+                keyOf(message.getRequestId()),
+                serialize(message),
+                Duration.ofMillis(remainingMillis)
+        );
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(keyOf(requestId)));
+    }
+
+    @Override
+    public CouponResultMessage getByRequestId(String requestId) {
+        return deserialize(requestId, redisTemplate.opsForValue().get(keyOf(requestId)));
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        redisTemplate.delete(keyOf(requestId));
+    }
+
+    @Override
+    public Optional<CouponResultMessage> findAndDeleteByRequestId(String requestId) {
+        return Optional.ofNullable(deserialize(
+                requestId,
+                redisTemplate.opsForValue().getAndDelete(keyOf(requestId))
+        ));
+    }
+
+    /**
+     * 만료는 Redis TTL 로 처리되므로 제거할 메시지가 없습니다.
+     */
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        return 0;
+    }
+
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        return 0;
+    }
+
+    /**
+     * 여러 노드가 공유하는 저장소의 키를 세려면 전체를 훑어야 하므로 세지 않습니다.
+     */
+    @Override
+    public int count() {
+        return UNKNOWN_COUNT;
+    }
+
+    private static String keyOf(String requestId) {
+        return KEY_PREFIX + requestId;
+    }
+
+    private static String serialize(CouponResultMessage message) {
+        // JSON 본문은 줄바꿈 문자를 이스케이프하므로 구분자와 겹치지 않는다.
+        return message.getIssuedDateTime().toString()
+                + FIELD_SEPARATOR
+                + message.getDestination()
+                + FIELD_SEPARATOR
+                + new String(message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private static CouponResultMessage deserialize(String requestId, String value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        int destinationStart = value.indexOf(FIELD_SEPARATOR) + 1;
+        int payloadStart = value.indexOf(FIELD_SEPARATOR, destinationStart) + 1;
+        if (destinationStart == 0 || payloadStart == 0) {
+            throw new IllegalStateException("Malformed coupon result " + requestId);
+        }
+        return new CouponResultMessage(
+                requestId,
+                value.substring(destinationStart, payloadStart - 1),
+                LocalDateTime.parse(value.substring(0, destinationStart - 1)),
+                value.substring(payloadStart).getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+
+/**
+ * CouponGiveSocketConnectionRepository 인터페이스의 Redis 를 사용한 구현체입니다.
+ * <p>
+ * 연결 시각을 값으로 저장하고 연결 시각에 만료 기간을 더한 시각까지 Redis TTL 을 설정하므로 별도의 만료 처리가 필요하지 않습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "socket.coupon.connection-store.type", havingValue = "redis")
+public class RedisCouponSocketConnectionRepository implements CouponSocketConnectionRepository {
+
+    private static final String KEY_PREFIX = "coupon:connection:";
+    private static final long MINIMUM_TIME_TO_LIVE_MILLIS = 1;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+
+    public RedisCouponSocketConnectionRepository(
+            StringRedisTemplate redisTemplate,
+            Clock clock,
+            CouponExpiryProperties expiryProperties
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.timeToLiveMillis = expiryProperties.getTimeToLive().toMillis();
+    }
+
+    @Override
+    public void save(CouponSocketConnection connection) {
+        long deadlineMillis = connection.getConnectedDateTime()
+                .atZone(clock.getZone())
+                .toInstant()
+                .toEpochMilli() + timeToLiveMillis;
+        long remainingMillis = Math.max(MINIMUM_TIME_TO_LIVE_MILLIS, deadlineMillis - clock.millis());
+
+        redisTemplate.opsForValue().set(
+                keyOf(connection.getRequestId()),
+                connection.getConnectedDateTime().toString(),
+                Duration.ofMillis(remainingMillis)
+        );
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(keyOf(requestId)));
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        redisTemplate.delete(keyOf(requestId));
+    }
+
+    /**
+     * 만료는 Redis TTL 로 처리되므로 제거할 연결 정보가 없습니다.
+     */
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        return 0;
+    }
+
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        return 0;
+    }
+
+    /**
+     * 여러 노드가 공유하는 저장소의 키를 세려면 전체를 훑어야 하므로 세지 않습니다.
+     */
+    @Override
+    public int count() {
+        return UNKNOWN_COUNT;
+    }
+
+    private static String keyOf(String requestId) {
+        return KEY_PREFIX + requestId;
+    }
+}
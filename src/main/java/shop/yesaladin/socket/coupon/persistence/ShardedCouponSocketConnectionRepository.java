@@ -0,0 +1,93 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import shop.yesaladin.socket.common.expiry.ParallelShardSweeper;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponShardingProperties;
+import shop.yesaladin.socket.config.SchedulerConfiguration;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+
+/**
+ * CouponSocketConnectionRepository 인터페이스의 request id 의 해시에 따라 여러 shard 에 나누어 저장하는 구현체입니다.
+ * <p>
+ * 각 shard 는 자신의 map 과 타이밍 휠을 가지는 {@link MapCouponSocketConnectionRepository} 이며, 만료 처리는
+ * {@link ParallelShardSweeper} 로 만료 처리 전용 실행기에서 shard 마다 병렬로 수행합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "socket.coupon.connection-store.type", havingValue = "sharded")
+public class ShardedCouponSocketConnectionRepository implements CouponSocketConnectionRepository {
+
+    private final List<MapCouponSocketConnectionRepository> shards;
+    private final ParallelShardSweeper<MapCouponSocketConnectionRepository> sweeper;
+    private final int mask;
+
+    public ShardedCouponSocketConnectionRepository(
+            Clock clock,
+            CouponExpiryProperties expiryProperties,
+            CouponShardingProperties shardingProperties,
+            @Qualifier(SchedulerConfiguration.EXPIRY_SWEEP_EXECUTOR) Executor sweepExecutor
+    ) {
+        int shardCount = shardingProperties.resolveShardCount();
+        List<MapCouponSocketConnectionRepository> created = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            created.add(new MapCouponSocketConnectionRepository(clock, expiryProperties));
+        }
+        this.shards = Collections.unmodifiableList(created);
+        this.mask = shardCount - 1;
+        this.sweeper = new ParallelShardSweeper<>(shards, sweepExecutor);
+    }
+
+    @Override
+    public void save(CouponSocketConnection connection) {
+        shardOf(connection.getRequestId()).save(connection);
+    }
+
+    @Override
+    public boolean existsByRequestId(String requestId) {
+        return shardOf(requestId).existsByRequestId(requestId);
+    }
+
+    @Override
+    public void deleteByRequestId(String requestId) {
+        shardOf(requestId).deleteByRequestId(requestId);
+    }
+
+    @Override
+    public int deleteAllExpired(LocalDateTime now, int limit) {
+        return sweeper.sweep(
+                limit,
+                (shard, shardLimit) -> shard.deleteAllExpired(now, shardLimit)
+        );
+    }
+
+    @Override
+    public int countExpiredBacklog(LocalDateTime now) {
+        return sweeper.sum(shard -> shard.countExpiredBacklog(now));
+    }
+
+    @Override
+    public int count() {
+        return sweeper.sum(MapCouponSocketConnectionRepository::count);
+    }
+
+    private MapCouponSocketConnectionRepository shardOf(String requestId) {
+        return shards.get(spread(requestId) & mask);
+    }
+
+    private static int spread(String requestId) {
+        int hash = requestId.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
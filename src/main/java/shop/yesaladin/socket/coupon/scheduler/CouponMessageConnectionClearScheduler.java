@@ -1,57 +1,127 @@
 package shop.yesaladin.socket.coupon.scheduler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.List;
-import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import shop.yesaladin.coupon.message.CouponResultDto;
-import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
 import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
 import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
 
 /**
- * 생성된지 30분이 지나도 전송되지 않은 메시지 혹은 삭제되지 않은 연결 정보를 1시간에 한 번씩 제거하는 스케쥴러 클래스입니다.
+ * 만료 시각이 지나도 전송되지 않은 메시지 혹은 삭제되지 않은 연결 정보를 tick 마다 제거하는 스케쥴러 클래스입니다.
+ * <p>
+ * 한 tick 에서는 정해진 크기의 배치 단위로 제거하며, 시간 예산을 모두 사용하면 남은 항목은 다음 tick 으로 넘깁니다.
+ * 저장소는 한 번에 확인하는 양을 제한하여 배치 크기보다 적게 제거하고도 만료 항목을 남길 수 있으므로, 남은 적체량은 제거한
+ * 수로 짐작하지 않고 매 tick 저장소에서 셉니다.
  *
  * @author 김홍대
  * @since 1.0
  */
-@RequiredArgsConstructor
 @Component
 public class CouponMessageConnectionClearScheduler {
 
     private final CouponResultMessageRepository couponResultMessageRepository;
     private final CouponSocketConnectionRepository couponSocketConnectionRepository;
+    private final CouponExpiryProperties expiryProperties;
     private final Clock clock;
+    private final SweepMeters connectionSweepMeters;
+    private final SweepMeters resultSweepMeters;
+
+    public CouponMessageConnectionClearScheduler(
+            CouponResultMessageRepository couponResultMessageRepository,
+            CouponSocketConnectionRepository couponSocketConnectionRepository,
+            CouponExpiryProperties expiryProperties,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.couponResultMessageRepository = couponResultMessageRepository;
+        this.couponSocketConnectionRepository = couponSocketConnectionRepository;
+        this.expiryProperties = expiryProperties;
+        this.clock = clock;
+        this.connectionSweepMeters = new SweepMeters("connection", meterRegistry);
+        this.resultSweepMeters = new SweepMeters("result", meterRegistry);
+    }
 
     /**
-     * 연결된지 30분이 지난 쿠폰 연결 정보를 제거합니다.
+     * 만료된 쿠폰 연결 정보를 제거합니다.
      *
      * @since 1.0
      */
-    @Async
-    @Scheduled(fixedDelayString = "PT1H")
+    @Scheduled(fixedDelayString = "${socket.coupon.expiry.tick-duration:PT1S}")
     public void clearCouponConnectionData() {
-        List<CouponSocketConnection> connectionList = couponSocketConnectionRepository.findAllOver30MinFromConnected(
-                LocalDateTime.now(clock));
+        LocalDateTime now = LocalDateTime.now(clock);
 
-        connectionList.forEach(connection -> couponResultMessageRepository.deleteByRequestId(
-                connection.getRequestId()));
+        sweep(
+                limit -> couponSocketConnectionRepository.deleteAllExpired(now, limit),
+                () -> couponSocketConnectionRepository.countExpiredBacklog(now),
+                connectionSweepMeters
+        );
     }
 
     /**
-     * 등록된지 30분이 지난 메시지를 제거합니다.
+     * 만료된 메시지를 제거합니다.
      *
      * @since 1.0
      */
-    @Async
-    @Scheduled(fixedDelayString = "PT1H")
+    @Scheduled(fixedDelayString = "${socket.coupon.expiry.tick-duration:PT1S}")
     public void clearCouponResultMessage() {
-        List<CouponResultDto> messageList = couponResultMessageRepository.findAllOver30MinFromIssued(
-                LocalDateTime.now(clock));
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        sweep(
+                limit -> couponResultMessageRepository.deleteAllExpired(now, limit),
+                () -> couponResultMessageRepository.countExpiredBacklog(now),
+                resultSweepMeters
+        );
+    }
+
+    private void sweep(IntUnaryOperator deleteBatch, IntSupplier backlog, SweepMeters meters) {
+        int batchSize = expiryProperties.getBatchSize();
+        long timeBudgetNanos = expiryProperties.getSweepTimeBudget().toNanos();
+        long startNanos = System.nanoTime();
+        int evicted = 0;
+        int deleted;
+
+        do {
+            deleted = deleteBatch.applyAsInt(batchSize);
+            evicted += deleted;
+        } while (deleted == batchSize && System.nanoTime() - startNanos < timeBudgetNanos);
+
+        meters.sweepTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meters.evictedCounter.increment(evicted);
+        meters.backlog.set(backlog.getAsInt());
+    }
+
+    /**
+     * 저장소 별 만료 처리 지표입니다.
+     */
+    private static final class SweepMeters {
+
+        private final Counter evictedCounter;
+        private final Timer sweepTimer;
+        private final AtomicInteger backlog = new AtomicInteger();
 
-        messageList.forEach(result -> couponResultMessageRepository.deleteByRequestId(result.getRequestId()));
+        private SweepMeters(String store, MeterRegistry meterRegistry) {
+            this.evictedCounter = Counter.builder("coupon.expiry.evicted")
+                    .description("만료되어 제거된 항목 수")
+                    .tag("store", store)
+                    .register(meterRegistry);
+            this.sweepTimer = Timer.builder("coupon.expiry.sweep")
+                    .description("한 tick 의 만료 처리 소요 시간")
+                    .tag("store", store)
+                    .register(meterRegistry);
+            Gauge.builder("coupon.expiry.backlog", backlog, AtomicInteger::get)
+                    .description("만료 처리 뒤에도 남아 다음 tick 으로 미뤄진 만료 항목 수")
+                    .tag("store", store)
+                    .register(meterRegistry);
+        }
     }
 }
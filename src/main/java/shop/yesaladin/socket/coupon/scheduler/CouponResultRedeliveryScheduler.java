@@ -0,0 +1,46 @@
+package shop.yesaladin.socket.coupon.scheduler;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.service.inter.CouponAcknowledgementService;
+
+/**
+ * ack 를 받지 못한 쿠폰 결과 메시지를 tick 마다 재전송하는 스케쥴러 클래스입니다.
+ * <p>
+ * 만료 처리와 같은 배치 크기와 시간 예산을 사용하며, 시간 예산을 모두 사용하면 남은 메시지는 다음 tick 으로 넘깁니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "socket.coupon.ack.enabled", havingValue = "true")
+public class CouponResultRedeliveryScheduler {
+
+    private final CouponAcknowledgementService couponAcknowledgementService;
+    private final CouponExpiryProperties expiryProperties;
+    private final Clock clock;
+
+    /**
+     * 재전송 시각이 지난 메시지를 재전송합니다.
+     *
+     * @since 1.0
+     */
+    @Scheduled(fixedDelayString = "${socket.coupon.expiry.tick-duration:PT1S}")
+    public void redeliver() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int batchSize = expiryProperties.getBatchSize();
+        long timeBudgetNanos = expiryProperties.getSweepTimeBudget().toNanos();
+        long startNanos = System.nanoTime();
+        int redelivered;
+
+        do {
+            redelivered = couponAcknowledgementService.redeliverAllDue(now, batchSize);
+        } while (redelivered == batchSize && System.nanoTime() - startNanos < timeBudgetNanos);
+    }
+}
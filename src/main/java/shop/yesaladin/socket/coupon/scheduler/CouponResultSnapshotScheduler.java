@@ -0,0 +1,31 @@
+package shop.yesaladin.socket.coupon.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.socket.coupon.persistence.JournalingCouponResultMessageRepository;
+
+/**
+ * 쿠폰 결과 메시지 저널의 스냅숏을 주기적으로 만드는 스케쥴러 클래스입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "socket.coupon.journal.enabled", havingValue = "true")
+public class CouponResultSnapshotScheduler {
+
+    private final JournalingCouponResultMessageRepository journalingCouponResultMessageRepository;
+
+    /**
+     * 남아 있는 메시지의 스냅숏을 만들고 반영된 저널을 지웁니다.
+     *
+     * @since 1.0
+     */
+    @Scheduled(fixedDelayString = "${socket.coupon.journal.snapshot-interval:PT1M}")
+    public void snapshot() {
+        journalingCouponResultMessageRepository.snapshot();
+    }
+}
@@ -0,0 +1,206 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import shop.yesaladin.socket.config.CouponAckProperties;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponInFlightMessage;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponInFlightMessageRepository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSessionRepository;
+import shop.yesaladin.socket.coupon.service.inter.CouponAcknowledgementService;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+/**
+ * 전송한 쿠폰 결과 메시지를 ack 가 올 때까지 보관하고 지수적으로 늘어나는 간격으로 재전송하는 클래스입니다.
+ * <p>
+ * 클라이언트가 {@code /shop/coupon/{kind}/result/ack/{requestId}} 로 ack 를 보내면 보관하던 메시지를 삭제합니다. 재전송
+ * 시점에 결과 토픽의 구독자가 없으면 {@link CouponWebsocketMessageService} 로 메시지를 결과 레포지토리에 다시 저장하여 다음
+ * 구독 때 전송되도록 합니다. 새 결과 메시지와 같이 저장한 뒤 연결 정보를 확인하므로, 그 사이에 다시 연결된 클라이언트도 메시지를
+ * 받습니다.
+ * <p>
+ * 재전송 여부는 ack 와 원자적으로 결정하고, 실제 전송과 결과 레포지토리 저장은 레포지토리의 잠금을 놓은 뒤에 수행합니다.
+ * 따라서 재전송 직후에 도착한 ack 로 메시지가 먼저 삭제될 수 있으며, 이 경우 클라이언트는 같은 메시지를 한 번 더 받습니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class CouponAcknowledgementServiceImpl implements CouponAcknowledgementService {
+
+    private final CouponInFlightMessageRepository couponInFlightMessageRepository;
+    // 메시지 서비스가 이 서비스에 의존하므로 재저장할 때 가져온다.
+    private final ObjectProvider<CouponWebsocketMessageService> couponWebsocketMessageService;
+    private final CouponSessionRepository couponSessionRepository;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final CouponResultMessageEncoder couponResultMessageEncoder;
+    private final CouponAckProperties ackProperties;
+    private final CouponExpiryProperties expiryProperties;
+    private final Clock clock;
+    private final Timer ackLatency;
+    private final Counter unknownAcks;
+    private final Counter redelivered;
+    private final Counter reparked;
+    private final Counter exhausted;
+    private final Counter expired;
+
+    public CouponAcknowledgementServiceImpl(
+            CouponInFlightMessageRepository couponInFlightMessageRepository,
+            ObjectProvider<CouponWebsocketMessageService> couponWebsocketMessageService,
+            CouponSessionRepository couponSessionRepository,
+            SimpMessageSendingOperations messagingTemplate,
+            CouponResultMessageEncoder couponResultMessageEncoder,
+            CouponAckProperties ackProperties,
+            CouponExpiryProperties expiryProperties,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.couponInFlightMessageRepository = couponInFlightMessageRepository;
+        this.couponWebsocketMessageService = couponWebsocketMessageService;
+        this.couponSessionRepository = couponSessionRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.couponResultMessageEncoder = couponResultMessageEncoder;
+        this.ackProperties = ackProperties;
+        this.expiryProperties = expiryProperties;
+        this.clock = clock;
+        this.ackLatency = Timer.builder("coupon.result.ack.latency")
+                .description("첫 전송부터 ack 를 받기까지 걸린 시간")
+                .register(meterRegistry);
+        this.unknownAcks = Counter.builder("coupon.result.ack.unknown")
+                .description("보관 중인 메시지가 없는 ack 수")
+                .register(meterRegistry);
+        this.redelivered = redeliveryCounter("redelivered", meterRegistry);
+        this.reparked = redeliveryCounter("parked", meterRegistry);
+        this.exhausted = redeliveryCounter("exhausted", meterRegistry);
+        this.expired = redeliveryCounter("expired", meterRegistry);
+        Gauge.builder(
+                        "coupon.result.inflight.size",
+                        couponInFlightMessageRepository,
+                        CouponInFlightMessageRepository::count
+                )
+                .description("ack 를 기다리는 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void track(CouponResultMessage message) {
+        if (!ackProperties.isEnabled()) {
+            return;
+        }
+        long nowMillis = clock.millis();
+        couponInFlightMessageRepository.save(new CouponInFlightMessage(
+                message,
+                1,
+                nowMillis,
+                nowMillis + backoffMillis(1)
+        ));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acknowledge(String requestId) {
+        couponInFlightMessageRepository.findAndDeleteByRequestId(requestId).ifPresentOrElse(
+                message -> ackLatency.record(
+                        clock.millis() - message.getFirstSentMillis(),
+                        TimeUnit.MILLISECONDS
+                ),
+                unknownAcks::increment
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int redeliverAllDue(LocalDateTime now, int limit) {
+        long nowMillis = now.atZone(clock.getZone()).toInstant().toEpochMilli();
+
+        List<CouponResultMessage> redeliveries = new ArrayList<>();
+        List<CouponResultMessage> parked = new ArrayList<>();
+
+        int processed = couponInFlightMessageRepository.redeliverAllDue(
+                now,
+                limit,
+                message -> nextState(message, nowMillis, redeliveries, parked)
+        );
+        if (!parked.isEmpty()) {
+            CouponWebsocketMessageService messageService = couponWebsocketMessageService.getObject();
+            parked.forEach(messageService::trySendResultMessage);
+        }
+        redeliveries.forEach(message -> messagingTemplate.send(
+                message.getDestination(),
+                couponResultMessageEncoder.toStompMessage(message)
+        ));
+        return processed;
+    }
+
+    private CouponInFlightMessage nextState(
+            CouponInFlightMessage inFlight,
+            long nowMillis,
+            List<CouponResultMessage> redeliveries,
+            List<CouponResultMessage> parked
+    ) {
+        CouponResultMessage message = inFlight.getMessage();
+        if (isExpired(message, nowMillis)) {
+            expired.increment();
+            return null;
+        }
+        if (!couponSessionRepository.isSubscribed(message.getRequestId())) {
+            parked.add(message);
+            reparked.increment();
+            return null;
+        }
+        if (inFlight.getAttempts() >= ackProperties.getMaxAttempts()) {
+            log.warn(
+                    "Request id {} was not acknowledged after {} attempts.",
+                    message.getRequestId(),
+                    inFlight.getAttempts()
+            );
+            exhausted.increment();
+            return null;
+        }
+
+        redeliveries.add(message);
+        redelivered.increment();
+        return inFlight.redelivered(nowMillis + backoffMillis(inFlight.getAttempts() + 1));
+    }
+
+    private boolean isExpired(CouponResultMessage message, long nowMillis) {
+        long issuedMillis = message.getIssuedDateTime()
+                .atZone(clock.getZone())
+                .toInstant()
+                .toEpochMilli();
+        return issuedMillis + expiryProperties.getTimeToLive().toMillis() <= nowMillis;
+    }
+
+    private long backoffMillis(int attempts) {
+        long initialMillis = ackProperties.getInitialBackoff().toMillis();
+        long maxMillis = ackProperties.getMaxBackoff().toMillis();
+        int shift = Math.min(attempts - 1, Long.numberOfLeadingZeros(initialMillis) - 1);
+        return Math.min(initialMillis << Math.max(shift, 0), maxMillis);
+    }
+
+    private static Counter redeliveryCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("coupon.result.redelivery")
+                .description("ack 를 받지 못한 메시지의 재전송 처리 결과")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
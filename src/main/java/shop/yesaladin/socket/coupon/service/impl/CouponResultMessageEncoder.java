@@ -0,0 +1,98 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+/**
+ * 쿠폰 결과 메시지를 전송할 토픽과 JSON 본문으로 미리 변환하는 클래스입니다.
+ * <p>
+ * 웹소켓 메시지 컨버터와 같은 ObjectMapper 를 사용하므로 전송되는 본문은 기존과 같습니다. 타입이 고정된 ObjectWriter 를 재사용하며,
+ * Jackson 이 스레드별로 재사용하는 버퍼에 직렬화합니다. 토픽은 토픽 prefix 에 request id 를 그대로 이어 붙여 만듭니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Component
+public class CouponResultMessageEncoder {
+
+    private static final MimeType CONTENT_TYPE = MimeTypeUtils.APPLICATION_JSON;
+
+    private final ObjectWriter objectWriter;
+    private final SocketProperties socketProperties;
+
+    public CouponResultMessageEncoder(
+            ObjectMapper objectMapper,
+            SocketProperties socketProperties
+    ) {
+        this.objectWriter = objectMapper.writerFor(CouponResultDto.class);
+        this.socketProperties = socketProperties;
+    }
+
+    /**
+     * 쿠폰 결과 메시지를 전송할 형태로 변환합니다.
+     *
+     * @param resultDto 변환할 메시지
+     * @return 토픽과 본문이 준비된 메시지
+     * @throws IllegalArgumentException 메시지를 직렬화할 수 없는 경우
+     */
+    public CouponResultMessage encode(CouponResultDto resultDto) {
+        return encode(resultDto, CouponResultMessage.UNKNOWN_RECEIVED_MILLIS);
+    }
+
+    /**
+     * 쿠폰 결과 메시지를 수신 시각과 함께 전송할 형태로 변환합니다.
+     *
+     * @param resultDto      변환할 메시지
+     * @param receivedMillis 메시지를 수신한 시각(epoch ms)
+     * @return 토픽과 본문이 준비된 메시지
+     * @throws IllegalArgumentException 메시지를 직렬화할 수 없는 경우
+     */
+    public CouponResultMessage encode(CouponResultDto resultDto, long receivedMillis) {
+        String topicPrefix = CouponSocketRequestKind.GIVE.equals(resultDto.getRequestKind())
+                ? socketProperties.getCouponGiveResultTopicPrefix()
+                : socketProperties.getCouponUseResultTopicPrefix();
+
+        try {
+            return new CouponResultMessage(
+                    resultDto.getRequestId(),
+                    topicPrefix.concat(resultDto.getRequestId()),
+                    resultDto.getIssuedDateTime(),
+                    objectWriter.writeValueAsBytes(resultDto),
+                    receivedMillis
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(
+                    "Cannot encode coupon result " + resultDto.getRequestId(),
+                    e
+            );
+        }
+    }
+
+    /**
+     * 변환해 둔 본문으로 메시지 컨버터를 거치지 않고 전송할 STOMP 메시지를 만듭니다.
+     *
+     * @param message 전송할 메시지
+     * @return 본문을 그대로 담은 STOMP 메시지
+     */
+    public Message<byte[]> toStompMessage(CouponResultMessage message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(
+                SimpMessageType.MESSAGE
+        );
+        accessor.setContentType(CONTENT_TYPE);
+        // 템플릿이 destination 헤더를 추가할 때 헤더를 복사하지 않도록 변경 가능한 상태로 둔다.
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+}
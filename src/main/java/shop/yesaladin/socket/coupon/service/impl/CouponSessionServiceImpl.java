@@ -0,0 +1,133 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSessionRepository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.service.inter.CouponSessionService;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+/**
+ * STOMP 세션의 쿠폰 결과 토픽 구독에 맞추어 쿠폰 소켓 연결 정보를 등록 / 해제하는 클래스입니다.
+ * <p>
+ * 연결 메시지를 받아도 결과 토픽의 구독자가 없으면 연결 정보를 등록하지 않고, 구독이 생기는 시점에 등록하여 저장된 메시지를
+ * 전송합니다. 세션이 종료되거나 쿠폰 결과 토픽 구독이 해제되면 그 세션에서 연결된 request id 의 연결 정보를 바로 삭제하므로, 이후 도착한 결과
+ * 메시지는 전송되지 않고 다시 연결될 때까지 저장됩니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class CouponSessionServiceImpl implements CouponSessionService {
+
+    private final CouponSessionRepository couponSessionRepository;
+    private final CouponSocketConnectionRepository couponSocketConnectionRepository;
+    private final CouponWebsocketMessageService couponWebsocketMessageService;
+    private final SocketProperties socketProperties;
+
+    public CouponSessionServiceImpl(
+            CouponSessionRepository couponSessionRepository,
+            CouponSocketConnectionRepository couponSocketConnectionRepository,
+            CouponWebsocketMessageService couponWebsocketMessageService,
+            SocketProperties socketProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.couponSessionRepository = couponSessionRepository;
+        this.couponSocketConnectionRepository = couponSocketConnectionRepository;
+        this.couponWebsocketMessageService = couponWebsocketMessageService;
+        this.socketProperties = socketProperties;
+        Gauge.builder(
+                        "coupon.session.size",
+                        couponSessionRepository,
+                        CouponSessionRepository::countSessions
+                )
+                .description("연결된 STOMP 세션 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open(String sessionId) {
+        couponSessionRepository.openSession(sessionId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(String sessionId, String requestId) {
+        if (!couponSessionRepository.isSubscribed(requestId)) {
+            log.info(
+                    "Request id {} connected from session {} without subscription.",
+                    requestId,
+                    sessionId
+            );
+            return;
+        }
+        couponWebsocketMessageService.registerConnection(requestId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(String sessionId, String subscriptionId, String destination) {
+        String requestId = requestIdOf(destination);
+        if (Objects.isNull(requestId)) {
+            return;
+        }
+        if (!couponSessionRepository.bindSubscription(sessionId, subscriptionId, requestId)) {
+            log.info(
+                    "Request id {} subscribed from closed session {}, ignored.",
+                    requestId,
+                    sessionId
+            );
+            return;
+        }
+        couponWebsocketMessageService.registerConnection(requestId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        couponSessionRepository.unbindSubscription(sessionId, subscriptionId)
+                .ifPresent(couponSocketConnectionRepository::deleteByRequestId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void disconnect(String sessionId) {
+        List<String> requestIds = couponSessionRepository.unbindSession(sessionId);
+        requestIds.forEach(couponSocketConnectionRepository::deleteByRequestId);
+        if (!requestIds.isEmpty()) {
+            log.info("Session {} closed, released {} connections.", sessionId, requestIds.size());
+        }
+    }
+
+    private String requestIdOf(String destination) {
+        if (Objects.isNull(destination)) {
+            return null;
+        }
+        for (String prefix : new String[]{
+                socketProperties.getCouponGiveResultTopicPrefix(),
+                socketProperties.getCouponUseResultTopicPrefix()
+        }) {
+            if (destination.startsWith(prefix) && destination.length() > prefix.length()) {
+                return destination.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+}
@@ -2,44 +2,86 @@ package shop.yesaladin.socket.coupon.service.impl;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Component;
-import shop.yesaladin.coupon.code.CouponSocketRequestKind;
 import shop.yesaladin.coupon.message.CouponResultDto;
-import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
 import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
 import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
 import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.service.inter.CouponAcknowledgementService;
 import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
 
 /**
  * 웹소켓을 사용하여 쿠폰 관련 메시지를 발송하는 클래스입니다.
+ * <p>
+ * 결과 메시지 도착과 소켓 연결은 각자 자신의 정보를 먼저 저장한 뒤 상대의 존재를 확인합니다. 두 요청이 동시에 들어와도 적어도 한
+ * 쪽은 상대의 정보를 보게 되고, 저장된 메시지는 레포지토리에서 원자적으로 꺼낸 쪽만 전송하므로 메시지는 정확히 한 번 전송됩니다.
+ * <p>
+ * 메시지는 등록 시점에 토픽과 JSON 본문으로 한 번만 변환하여 저장하고, 전송 시에는 메시지 컨버터를 거치지 않고 본문을 그대로
+ * 전송합니다. 전송한 메시지는 ack 를 사용하는 경우 수신이 확인될 때까지 {@link CouponAcknowledgementService} 에 보관됩니다.
  *
  * @author 김홍대
  * @since 1.0
  */
+@Slf4j
 @RequiredArgsConstructor
 @Component
 public class CouponWebsocketMessageServiceImpl implements CouponWebsocketMessageService {
 
+    static final String INVALID_MESSAGE_REASON = "Invalid coupon result message";
+
     private final CouponResultMessageRepository couponResultMessageRepository;
     private final CouponSocketConnectionRepository couponSocketConnectionRepository;
     private final SimpMessageSendingOperations messagingTemplate;
-    private final SocketProperties socketProperties;
+    private final CouponResultMessageEncoder couponResultMessageEncoder;
     private final Clock clock;
+    private final CouponAcknowledgementService couponAcknowledgementService;
+    private final CouponMessageMetrics couponMessageMetrics;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void trySendGiveCouponResultMessage(CouponResultDto resultDto) {
-        if (canSendMessage(resultDto)) {
-            sendMessage(resultDto);
-            clearConnectionAndMessage(resultDto);
-            return;
+    public CouponMessageDeliveryStatus trySendGiveCouponResultMessage(CouponResultDto resultDto) {
+        return trySendResultMessage(couponResultMessageEncoder.encode(resultDto, clock.millis()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CouponMessageDeliveryStatus trySendResultMessage(CouponResultMessage message) {
+        couponResultMessageRepository.save(message);
+
+        if (!couponSocketConnectionRepository.existsByRequestId(message.getRequestId())) {
+            return CouponMessageDeliveryStatus.PARKED;
         }
-        couponResultMessageRepository.save(resultDto);
+        // 메시지를 꺼내지 못했다면 동시에 연결된 쪽에서 이미 꺼내 전송한 것이다.
+        sendParkedMessage(message.getRequestId(), false);
+        return CouponMessageDeliveryStatus.DELIVERED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CouponMessageOutcomeDto> trySendGiveCouponResultMessages(
+            List<CouponResultDto> resultDtos
+    ) {
+        List<CouponMessageOutcomeDto> outcomes = new ArrayList<>(resultDtos.size());
+        for (int index = 0; index < resultDtos.size(); index++) {
+            outcomes.add(trySendInBatch(index, resultDtos.get(index)));
+        }
+        return outcomes;
     }
 
     /**
@@ -54,29 +96,51 @@ public class CouponWebsocketMessageServiceImpl implements CouponWebsocketMessage
 
         couponSocketConnectionRepository.save(connection);
 
-        if (couponResultMessageRepository.existsByRequestId(requestId)) {
-            CouponResultDto result = couponResultMessageRepository.getByRequestId(requestId);
-            trySendGiveCouponResultMessage(result);
-        }
+        sendParkedMessage(requestId, true);
     }
 
-    private boolean canSendMessage(CouponResultDto resultDto) {
-        return couponSocketConnectionRepository.existsByRequestId(resultDto.getRequestId());
+    private CouponMessageOutcomeDto trySendInBatch(int index, CouponResultDto resultDto) {
+        if (!isValid(resultDto)) {
+            String requestId = Objects.isNull(resultDto) ? null : resultDto.getRequestId();
+            return CouponMessageOutcomeDto.rejected(index, requestId, INVALID_MESSAGE_REASON);
+        }
+        try {
+            return CouponMessageOutcomeDto.of(
+                    index,
+                    resultDto.getRequestId(),
+                    trySendGiveCouponResultMessage(resultDto)
+            );
+        } catch (RuntimeException e) {
+            log.warn("requestId {} result message rejected", resultDto.getRequestId(), e);
+            return CouponMessageOutcomeDto.rejected(
+                    index,
+                    resultDto.getRequestId(),
+                    e.getMessage()
+            );
+        }
     }
 
-    private void sendMessage(CouponResultDto result) {
-        String topicPrefix = result.getRequestKind().equals(CouponSocketRequestKind.GIVE)
-                ? socketProperties.getCouponGiveResultTopicPrefix()
-                : socketProperties.getCouponUseResultTopicPrefix();
+    static boolean isValid(CouponResultDto resultDto) {
+        return Objects.nonNull(resultDto)
+                && Objects.nonNull(resultDto.getRequestKind())
+                && Objects.nonNull(resultDto.getRequestId())
+                && Objects.nonNull(resultDto.getIssuedDateTime());
+    }
 
-        messagingTemplate.convertAndSend(
-                topicPrefix + result.getRequestId(),
-                result
-        );
+    private void sendParkedMessage(String requestId, boolean parked) {
+        couponResultMessageRepository.findAndDeleteByRequestId(requestId).ifPresent(message -> {
+            // ack 가 보관보다 먼저 도착하면 이미 받은 메시지를 재전송하게 되므로 전송 전에 보관한다.
+            couponAcknowledgementService.track(message);
+            sendMessage(message);
+            couponMessageMetrics.recordDelivery(message, parked);
+            couponSocketConnectionRepository.deleteByRequestId(requestId);
+        });
     }
 
-    private void clearConnectionAndMessage(CouponResultDto resultDto) {
-        couponSocketConnectionRepository.deleteByRequestId(resultDto.getRequestId());
-        couponResultMessageRepository.deleteByRequestId(resultDto.getRequestId());
+    private void sendMessage(CouponResultMessage message) {
+        messagingTemplate.send(
+                message.getDestination(),
+                couponResultMessageEncoder.toStompMessage(message)
+        );
     }
 }
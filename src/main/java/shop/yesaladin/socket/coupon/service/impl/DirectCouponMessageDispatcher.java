@@ -0,0 +1,44 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.service.inter.CouponMessageDispatcher;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+/**
+ * 요청 스레드에서 바로 쿠폰 결과 메시지를 전송하는 클래스입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(
+        name = "socket.coupon.delivery.mode",
+        havingValue = "sync",
+        matchIfMissing = true
+)
+public class DirectCouponMessageDispatcher implements CouponMessageDispatcher {
+
+    private final CouponWebsocketMessageService couponWebsocketMessageService;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dispatch(CouponResultDto resultDto) {
+        couponWebsocketMessageService.trySendGiveCouponResultMessage(resultDto);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CouponMessageOutcomeDto> dispatchAll(List<CouponResultDto> resultDtos) {
+        return couponWebsocketMessageService.trySendGiveCouponResultMessages(resultDtos);
+    }
+}
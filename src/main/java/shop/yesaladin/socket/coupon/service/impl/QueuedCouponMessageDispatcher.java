@@ -0,0 +1,252 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.CouponDeliveryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.exception.CouponMessageQueueFullException;
+import shop.yesaladin.socket.coupon.service.inter.CouponMessageDispatcher;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+/**
+ * 쿠폰 결과 메시지를 크기가 제한된 큐에 넣고 전송 전용 스레드에서 전송하는 클래스입니다.
+ * <p>
+ * 요청 스레드는 메시지를 큐에 넣는 즉시 반환하며, 큐가 가득 찼다면 {@link CouponMessageQueueFullException} 이 발생합니다. 일괄
+ * 등록은 메시지마다 큐에 넣어 QUEUED 또는 REJECTED 로 응답하고, 하나도 넣지 못했다면 같은 예외가 발생합니다. 전송
+ * 스레드는 큐에서 메시지를 최대 batch-size 개씩 꺼내 전송하고, 큐에 들어간 시각부터 전송이 끝날 때까지의 시간을 기록합니다.
+ * 종료 시에는 새 메시지를 받지 않고 큐에 남은 메시지를 모두 전송한 뒤 종료합니다.
+ * <p>
+ * 종료 단계는 웹 서버의 graceful shutdown 과 같으므로 웹 서버가 새 요청을 받지 않기 시작할 때 큐를 비우기 시작합니다. Spring
+ * 5.3 의 메시지 브로커와 WebSocket 핸들러도 같은 단계에서 종료되므로, 이들에 의존하도록 선언하여 큐를 모두 비운 뒤에 브로커가
+ * 종료되도록 합니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socket.coupon.delivery.mode", havingValue = "async")
+@DependsOn({
+        "subProtocolWebSocketHandler",
+        "simpleBrokerMessageHandler",
+        "stompBrokerRelayMessageHandler"
+})
+public class QueuedCouponMessageDispatcher implements CouponMessageDispatcher, SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final String QUEUE_FULL_REASON = "Coupon message queue is full";
+
+    private final CouponWebsocketMessageService couponWebsocketMessageService;
+    private final CouponDeliveryProperties deliveryProperties;
+    private final BlockingQueue<QueuedMessage> queue;
+    private final int workerCount;
+    private final Timer latencyTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public QueuedCouponMessageDispatcher(
+            CouponWebsocketMessageService couponWebsocketMessageService,
+            CouponDeliveryProperties deliveryProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.couponWebsocketMessageService = couponWebsocketMessageService;
+        this.deliveryProperties = deliveryProperties;
+        this.queue = new ArrayBlockingQueue<>(deliveryProperties.getQueueCapacity());
+        this.workerCount = deliveryProperties.getWorkerCount() > 0
+                ? deliveryProperties.getWorkerCount()
+                : Runtime.getRuntime().availableProcessors();
+        this.latencyTimer = Timer.builder("coupon.delivery.latency")
+                .description("결과 메시지를 큐에 넣은 뒤 전송을 마칠 때까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("coupon.delivery.rejected")
+                .description("큐가 가득 차 거부된 결과 메시지 수")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("coupon.delivery.failed")
+                .description("전송 중 실패한 결과 메시지 수")
+                .register(meterRegistry);
+        meterRegistry.gaugeCollectionSize("coupon.delivery.queue.size", List.of(), queue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dispatch(CouponResultDto resultDto) {
+        if (!offer(resultDto)) {
+            throw new CouponMessageQueueFullException(
+                    resultDto.getRequestId(),
+                    deliveryProperties.getRetryAfter()
+            );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CouponMessageOutcomeDto> dispatchAll(List<CouponResultDto> resultDtos) {
+        List<CouponMessageOutcomeDto> outcomes = new ArrayList<>(resultDtos.size());
+        boolean queued = false;
+        String firstRejected = null;
+
+        for (int index = 0; index < resultDtos.size(); index++) {
+            CouponResultDto resultDto = resultDtos.get(index);
+            if (!CouponWebsocketMessageServiceImpl.isValid(resultDto)) {
+                String requestId = Objects.isNull(resultDto) ? null : resultDto.getRequestId();
+                outcomes.add(CouponMessageOutcomeDto.rejected(
+                        index,
+                        requestId,
+                        CouponWebsocketMessageServiceImpl.INVALID_MESSAGE_REASON
+                ));
+            } else if (offer(resultDto)) {
+                queued = true;
+                outcomes.add(CouponMessageOutcomeDto.of(
+                        index,
+                        resultDto.getRequestId(),
+                        CouponMessageDeliveryStatus.QUEUED
+                ));
+            } else {
+                if (Objects.isNull(firstRejected)) {
+                    firstRejected = resultDto.getRequestId();
+                }
+                outcomes.add(CouponMessageOutcomeDto.rejected(
+                        index,
+                        resultDto.getRequestId(),
+                        QUEUE_FULL_REASON
+                ));
+            }
+        }
+
+        // 하나도 받지 못했다면 전체를 다시 보내도록 Retry-After 와 함께 거부한다.
+        if (!queued && Objects.nonNull(firstRejected)) {
+            throw new CouponMessageQueueFullException(
+                    firstRejected,
+                    deliveryProperties.getRetryAfter()
+            );
+        }
+        return outcomes;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        workers = Executors.newFixedThreadPool(
+                workerCount,
+                new CustomizableThreadFactory("coupon-delivery-")
+        );
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drain);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(
+                    deliveryProperties.getShutdownTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS
+            )) {
+                log.warn(
+                        "{} coupon result messages were not delivered before shutdown",
+                        queue.size()
+                );
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE;
+    }
+
+    private boolean offer(CouponResultDto resultDto) {
+        if (running && queue.offer(new QueuedMessage(resultDto, System.nanoTime()))) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    private void drain() {
+        List<QueuedMessage> batch = new ArrayList<>(deliveryProperties.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            QueuedMessage first;
+            try {
+                first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (Objects.isNull(first)) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, deliveryProperties.getBatchSize() - 1);
+
+            batch.forEach(this::deliver);
+            batch.clear();
+        }
+    }
+
+    private void deliver(QueuedMessage message) {
+        try {
+            couponWebsocketMessageService.trySendGiveCouponResultMessage(message.resultDto);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.error(
+                    "requestId {} result message delivery failed",
+                    message.resultDto.getRequestId(),
+                    e
+            );
+        } finally {
+            latencyTimer.record(System.nanoTime() - message.enqueuedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class QueuedMessage {
+
+        private final CouponResultDto resultDto;
+        private final long enqueuedNanos;
+    }
+}
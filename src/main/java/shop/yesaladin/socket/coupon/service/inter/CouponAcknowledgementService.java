@@ -0,0 +1,39 @@
+package shop.yesaladin.socket.coupon.service.inter;
+
+import java.time.LocalDateTime;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+/**
+ * 전송한 쿠폰 결과 메시지의 수신 확인(ack)을 기다리고, 확인되지 않은 메시지를 재전송하는 인터페이스입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public interface CouponAcknowledgementService {
+
+    /**
+     * 방금 전송한 메시지를 ack 를 기다리는 메시지로 보관합니다. ack 를 사용하지 않으면 무시합니다.
+     *
+     * @param message 전송한 메시지
+     */
+    void track(CouponResultMessage message);
+
+    /**
+     * 클라이언트가 메시지를 받았음을 기록하고 보관하던 메시지를 삭제합니다.
+     *
+     * @param requestId 메시지를 받은 클라이언트의 request id
+     */
+    void acknowledge(String requestId);
+
+    /**
+     * 재전송 시각이 지난 메시지를 최대 {@code limit}개까지 재전송합니다.
+     * <p>
+     * 결과 토픽의 구독자가 없으면 메시지를 다시 저장하여 구독이 생길 때 전송하고, 전송 횟수나 만료 기간을 넘긴 메시지는
+     * 삭제합니다.
+     *
+     * @param now   현재 시각
+     * @param limit 한 번에 처리할 최대 메시지 수
+     * @return 처리한 메시지 수
+     */
+    int redeliverAllDue(LocalDateTime now, int limit);
+}
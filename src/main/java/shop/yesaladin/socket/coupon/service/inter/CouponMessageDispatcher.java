@@ -0,0 +1,34 @@
+package shop.yesaladin.socket.coupon.service.inter;
+
+import java.util.List;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+
+/**
+ * HTTP 로 등록된 쿠폰 결과 메시지를 전송 서비스로 넘기는 인터페이스입니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public interface CouponMessageDispatcher {
+
+    /**
+     * 쿠폰 결과 메시지의 전송을 요청합니다.
+     *
+     * @param resultDto 전송할 메시지
+     * @throws shop.yesaladin.socket.coupon.exception.CouponMessageQueueFullException 메시지를 받을 수 없는 경우
+     */
+    void dispatch(CouponResultDto resultDto);
+
+    /**
+     * 여러 쿠폰 결과 메시지의 전송을 요청합니다.
+     * <p>
+     * 올바르지 않거나 받을 수 없는 메시지는 REJECTED 로 응답하고 나머지 메시지는 계속 처리합니다.
+     *
+     * @param resultDtos 전송할 메시지 목록. 역직렬화에 실패한 메시지는 null 로 전달됩니다.
+     * @return 요청 순서와 같은 순서의 메시지별 처리 결과
+     * @throws shop.yesaladin.socket.coupon.exception.CouponMessageQueueFullException
+     *         메시지를 하나도 받을 수 없는 경우
+     */
+    List<CouponMessageOutcomeDto> dispatchAll(List<CouponResultDto> resultDtos);
+}
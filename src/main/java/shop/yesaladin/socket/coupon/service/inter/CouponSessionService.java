@@ -0,0 +1,55 @@
+package shop.yesaladin.socket.coupon.service.inter;
+
+/**
+ * STOMP 세션의 쿠폰 결과 토픽 구독에 맞추어 쿠폰 소켓 연결 정보를 등록 / 해제하는 인터페이스입니다.
+ * <p>
+ * 소켓 연결 정보는 결과 토픽의 구독자가 있을 때만 등록되므로, 구독자가 없는 결과 메시지는 전송되지 않고 구독이 생길 때까지
+ * 저장됩니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+public interface CouponSessionService {
+
+    /**
+     * 연결된 STOMP 세션을 등록하여 그 세션의 구독을 기록할 수 있도록 합니다.
+     *
+     * @param sessionId 연결된 STOMP 세션 id
+     */
+    void open(String sessionId);
+
+    /**
+     * request id 의 결과 토픽을 구독한 세션이 있으면 소켓 연결 정보를 등록합니다. 구독한 세션이 없다면 무시합니다.
+     *
+     * @param sessionId 연결된 STOMP 세션 id
+     * @param requestId 연결된 클라이언트의 request id
+     */
+    void connect(String sessionId, String requestId);
+
+    /**
+     * 쿠폰 결과 토픽 구독을 기록하고 소켓 연결 정보를 등록하여 저장된 결과 메시지를 전송합니다. 쿠폰 결과 토픽이 아니거나
+     * 등록되지 않았거나 이미 종료된 세션의 구독이라면 무시합니다.
+     * <p>
+     * 브로커가 구독을 등록한 뒤에 호출되어야 전송한 메시지가 구독자에게 전달됩니다.
+     *
+     * @param sessionId      구독한 STOMP 세션 id
+     * @param subscriptionId 구독 id
+     * @param destination    구독한 토픽
+     */
+    void subscribe(String sessionId, String subscriptionId, String destination);
+
+    /**
+     * 구독이 해제된 request id 의 소켓 연결 정보를 삭제합니다.
+     *
+     * @param sessionId      구독을 해제한 STOMP 세션 id
+     * @param subscriptionId 구독 id
+     */
+    void unsubscribe(String sessionId, String subscriptionId);
+
+    /**
+     * 종료된 세션에서 연결된 모든 request id 의 소켓 연결 정보를 삭제합니다.
+     *
+     * @param sessionId 종료된 STOMP 세션 id
+     */
+    void disconnect(String sessionId);
+}
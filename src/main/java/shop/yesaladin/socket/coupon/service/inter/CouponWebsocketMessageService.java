@@ -1,7 +1,10 @@
 package shop.yesaladin.socket.coupon.service.inter;
 
-
+import java.util.List;
 import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
 
 /**
  * 웹소켓을 사용하여 쿠폰 관련 메시지를 발송하는 인터페이스입니다.
@@ -16,8 +19,29 @@ public interface CouponWebsocketMessageService {
      * 쿠폰 지급 결과 메시지를 클라이언트로 전송합니다.
      *
      * @param resultDto 전송할 메시지
+     * @return 연결된 클라이언트가 있으면 DELIVERED, 없어서 저장만 했다면 PARKED
+     */
+    CouponMessageDeliveryStatus trySendGiveCouponResultMessage(CouponResultDto resultDto);
+
+    /**
+     * 변환해 둔 쿠폰 결과 메시지를 저장한 뒤 연결된 클라이언트가 있으면 전송합니다.
+     * <p>
+     * 구독자가 없어 재전송하지 못한 메시지를 다시 저장할 때 사용합니다.
+     *
+     * @param message 전송할 메시지
+     * @return 연결된 클라이언트가 있으면 DELIVERED, 없어서 저장만 했다면 PARKED
+     */
+    CouponMessageDeliveryStatus trySendResultMessage(CouponResultMessage message);
+
+    /**
+     * 여러 쿠폰 결과 메시지를 한 번에 클라이언트로 전송합니다.
+     * <p>
+     * 올바르지 않거나 처리 중 오류가 발생한 메시지는 REJECTED 로 응답하고 나머지 메시지는 계속 처리합니다.
+     *
+     * @param resultDtos 전송할 메시지 목록. 역직렬화에 실패한 메시지는 null 로 전달됩니다.
+     * @return 요청 순서와 같은 순서의 메시지별 처리 결과
      */
-    void trySendGiveCouponResultMessage(CouponResultDto resultDto);
+    List<CouponMessageOutcomeDto> trySendGiveCouponResultMessages(List<CouponResultDto> resultDtos);
 
     /**
      * 소켓 연결 정보를 등록합니다.
@@ -0,0 +1,50 @@
+package shop.yesaladin.socket.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDK 21 의 가상 스레드로 요청과 비동기 작업을 처리하도록 설정하는 configuration 클래스입니다.
+ * <p>
+ * Tomcat 요청 처리는 요청마다 가상 스레드를 사용하고, {@code @Async} 작업과 STOMP 채널 executor 는
+ * {@link VirtualThreadSupport} 를 통해 가상 스레드를 사용합니다. {@code @Scheduled} 작업은 기존과 같이 플랫폼 스레드
+ * 스케쥴러에서 실행됩니다.
+ *
+ * @author 김홍대
+ * @since 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = VirtualThreadSupport.ENABLED_PROPERTY, havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public VirtualThreadSupport virtualThreadSupport() {
+        return new VirtualThreadSupport() {
+            @Override
+            public ThreadFactory threadFactory(String namePrefix) {
+                return Thread.ofVirtual().name(namePrefix, 1).factory();
+            }
+
+            @Override
+            public ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+                return Executors.newThreadPerTaskExecutor(threadFactory(namePrefix));
+            }
+        };
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            VirtualThreadSupport virtualThreadSupport
+    ) {
+        // 가상 스레드는 데몬 스레드이고 풀에 남는 스레드가 없으므로 실행기를 따로 종료하지 않는다.
+        return protocolHandler -> protocolHandler.setExecutor(
+                virtualThreadSupport.newThreadPerTaskExecutor("tomcat-handler-")
+        );
+    }
+}
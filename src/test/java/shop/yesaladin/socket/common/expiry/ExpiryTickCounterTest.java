@@ -0,0 +1,70 @@
+package shop.yesaladin.socket.common.expiry;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExpiryTickCounterTest {
+
+    private static final long START = 1_000_000L;
+
+    private ExpiryTickCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new ExpiryTickCounter(100, 500, START);
+    }
+
+    @Test
+    @DisplayName("만료 시각이 지난 tick 의 항목만 만료된 항목으로 센다.")
+    void countExpiredTest() {
+        // given
+        counter.add(START - 100, START);
+        counter.add(START + 250, START);
+        counter.add(START + 450, START);
+
+        // when
+        int atStart = counter.countExpired(START);
+        int afterFirstDeadline = counter.countExpired(START + 300);
+        int afterAllDeadlines = counter.countExpired(START + 500);
+
+        // then
+        Assertions.assertThat(atStart).isEqualTo(1);
+        Assertions.assertThat(afterFirstDeadline).isEqualTo(2);
+        Assertions.assertThat(afterAllDeadlines).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("삭제한 항목은 만료 전후와 관계없이 셈에서 뺀다.")
+    void removeTest() {
+        // given
+        long expiredTick = counter.add(START + 150, START);
+        long aliveTick = counter.add(START + 450, START);
+        counter.countExpired(START + 200);
+
+        // when
+        counter.remove(expiredTick);
+        counter.remove(aliveTick);
+
+        // then
+        Assertions.assertThat(counter.countExpired(START + 200)).isZero();
+        Assertions.assertThat(counter.countExpired(START + 1_000)).isZero();
+    }
+
+    @Test
+    @DisplayName("링 배열보다 먼 만료 시각은 링 배열의 마지막 tick 으로 세고, 오래 지나면 모두 만료된 항목으로 센다.")
+    void farDeadlineTest() {
+        // given
+        long countedTick = counter.add(START + 10_000, START);
+
+        // when
+        int beforeRing = counter.countExpired(START + 500);
+        int afterRing = counter.countExpired(START + 20_000);
+
+        // then
+        Assertions.assertThat(countedTick).isLessThan((START + 10_000) / 100);
+        Assertions.assertThat(beforeRing).isZero();
+        Assertions.assertThat(afterRing).isEqualTo(1);
+    }
+}
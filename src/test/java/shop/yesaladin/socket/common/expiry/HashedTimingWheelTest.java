@@ -0,0 +1,120 @@
+package shop.yesaladin.socket.common.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private HashedTimingWheel<String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(100, 8, START);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("만료 시각이 지난 키만 만료 처리한다.")
+    void expireTest() {
+        // given
+        wheel.schedule("expired", START + 150);
+        wheel.schedule("alive", START + 450);
+
+        // when
+        int actual = wheel.expire(START + 300, Integer.MAX_VALUE, expired::add);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(1);
+        Assertions.assertThat(expired).containsExactly("expired");
+        Assertions.assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("휠 한 바퀴보다 먼 만료 시각을 가진 키는 만료 시각이 지난 뒤에 처리한다.")
+    void expireAfterRotationTest() {
+        // given
+        wheel.schedule("far", START + 1_250);
+
+        // when
+        int beforeDeadline = wheel.expire(START + 1_000, Integer.MAX_VALUE, expired::add);
+        int afterDeadline = wheel.expire(START + 1_300, Integer.MAX_VALUE, expired::add);
+
+        // then
+        Assertions.assertThat(beforeDeadline).isZero();
+        Assertions.assertThat(afterDeadline).isEqualTo(1);
+        Assertions.assertThat(expired).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("이미 지난 만료 시각으로 등록된 키는 다음 만료 처리에서 제거한다.")
+    void scheduleWithPastDeadlineTest() {
+        // given
+        wheel.expire(START + 500, Integer.MAX_VALUE, expired::add);
+        wheel.schedule("late", START);
+
+        // when
+        int actual = wheel.expire(START + 600, Integer.MAX_VALUE, expired::add);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(1);
+        Assertions.assertThat(expired).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("만료 시각을 갱신하면 이전 만료 시각으로는 처리되지 않는다.")
+    void rescheduleTest() {
+        // given
+        wheel.schedule("key", START + 100);
+        wheel.schedule("key", START + 700);
+
+        // when
+        int actual = wheel.expire(START + 300, Integer.MAX_VALUE, expired::add);
+
+        // then
+        Assertions.assertThat(actual).isZero();
+        Assertions.assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("취소된 키는 만료 처리하지 않는다.")
+    void cancelTest() {
+        // given
+        wheel.schedule("key", START + 100);
+        wheel.cancel("key");
+
+        // when
+        int actual = wheel.expire(START + 300, Integer.MAX_VALUE, expired::add);
+
+        // then
+        Assertions.assertThat(actual).isZero();
+        Assertions.assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("한도만큼만 만료 처리하고 남은 키는 다음 호출에서 이어서 처리한다.")
+    void expireWithLimitTest() {
+        // given
+        wheel.schedule("first", START + 100);
+        wheel.schedule("second", START + 100);
+        wheel.schedule("third", START + 200);
+
+        // when
+        int firstBatch = wheel.expire(START + 300, 2, expired::add);
+        int backlog = wheel.countDue(START + 300);
+        int secondBatch = wheel.expire(START + 300, 2, expired::add);
+
+        // then
+        Assertions.assertThat(firstBatch).isEqualTo(2);
+        Assertions.assertThat(backlog).isEqualTo(1);
+        Assertions.assertThat(secondBatch).isEqualTo(1);
+        Assertions.assertThat(expired).containsExactlyInAnyOrder("first", "second", "third");
+        Assertions.assertThat(wheel.countDue(START + 300)).isZero();
+    }
+}
@@ -0,0 +1,132 @@
+package shop.yesaladin.socket.common.expiry;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ParallelShardSweeperTest {
+
+    @Test
+    @DisplayName("한도를 shard 에 나누고 남은 한도는 만료 대상이 남은 shard 에 다시 나눈다.")
+    void sweepRedistributesLimitTest() {
+        // given
+        List<AtomicInteger> shards = List.of(
+                new AtomicInteger(1),
+                new AtomicInteger(100),
+                new AtomicInteger(0),
+                new AtomicInteger(100)
+        );
+        ParallelShardSweeper<AtomicInteger> sweeper = new ParallelShardSweeper<>(
+                shards,
+                Runnable::run
+        );
+
+        // when
+        int actual = sweeper.sweep(40, ParallelShardSweeperTest::take);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(40);
+        Assertions.assertThat(shards.get(0).get()).isZero();
+        Assertions.assertThat(shards.get(1).get() + shards.get(3).get()).isEqualTo(161);
+    }
+
+    @Test
+    @DisplayName("만료 대상이 한도보다 적으면 모두 만료 처리하고 그 수를 반환한다.")
+    void sweepAllTest() {
+        // given
+        List<AtomicInteger> shards = List.of(new AtomicInteger(3), new AtomicInteger(5));
+        ParallelShardSweeper<AtomicInteger> sweeper = new ParallelShardSweeper<>(
+                shards,
+                Runnable::run
+        );
+
+        // when
+        int actual = sweeper.sweep(1000, ParallelShardSweeperTest::take);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(8);
+        Assertions.assertThat(sweeper.sum(AtomicInteger::get)).isZero();
+    }
+
+    @Test
+    @DisplayName("한도가 shard 수보다 작아도 한도를 넘겨 만료 처리하지 않는다.")
+    void sweepWithSmallLimitTest() {
+        // given
+        List<AtomicInteger> shards = List.of(
+                new AtomicInteger(10),
+                new AtomicInteger(10),
+                new AtomicInteger(10),
+                new AtomicInteger(10)
+        );
+        ParallelShardSweeper<AtomicInteger> sweeper = new ParallelShardSweeper<>(
+                shards,
+                Runnable::run
+        );
+
+        // when
+        int actual = sweeper.sweep(3, ParallelShardSweeperTest::take);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(3);
+        Assertions.assertThat(sweeper.sum(AtomicInteger::get)).isEqualTo(37);
+    }
+
+    @Test
+    @DisplayName("한도가 shard 수보다 작으면 호출할 때마다 다른 shard 부터 만료 처리한다.")
+    void sweepRotatesStartShardTest() {
+        // given
+        List<AtomicInteger> shards = List.of(
+                new AtomicInteger(10),
+                new AtomicInteger(10),
+                new AtomicInteger(10),
+                new AtomicInteger(10)
+        );
+        ParallelShardSweeper<AtomicInteger> sweeper = new ParallelShardSweeper<>(
+                shards,
+                Runnable::run
+        );
+
+        // when
+        for (int i = 0; i < shards.size(); i++) {
+            sweeper.sweep(1, ParallelShardSweeperTest::take);
+        }
+
+        // then
+        Assertions.assertThat(shards).extracting(AtomicInteger::get).containsOnly(9);
+    }
+
+    @Test
+    @DisplayName("만료 처리는 주어진 실행기에서 실행하고, 실행기가 거부하면 호출한 스레드에서 실행한다.")
+    void sweepOnExecutorTest() {
+        // given
+        List<AtomicInteger> shards = List.of(new AtomicInteger(3), new AtomicInteger(5));
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = task -> {
+            if (submitted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        };
+        ParallelShardSweeper<AtomicInteger> sweeper = new ParallelShardSweeper<>(
+                shards,
+                executor
+        );
+
+        // when
+        int actual = sweeper.sweep(1000, ParallelShardSweeperTest::take);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(8);
+        Assertions.assertThat(submitted).hasValue(2);
+    }
+
+    private static int take(AtomicInteger shard, int limit) {
+        int taken = Math.min(shard.get(), limit);
+        shard.addAndGet(-taken);
+        return taken;
+    }
+}
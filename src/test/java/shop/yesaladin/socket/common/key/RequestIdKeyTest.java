@@ -0,0 +1,63 @@
+package shop.yesaladin.socket.common.key;
+
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestIdKeyTest {
+
+    @Test
+    @DisplayName("소문자 UUID 형식의 request id 는 두 개의 long 으로 바꾸고 원래 문자열로 되돌릴 수 있다.")
+    void uuidKeyTest() {
+        // given
+        UUID uuid = UUID.fromString("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0");
+
+        // when
+        RequestIdKey key = RequestIdKey.of(uuid.toString());
+
+        // then
+        Assertions.assertThat(key.isUuid()).isTrue();
+        Assertions.assertThat(key.getMostSignificantBits())
+                .isEqualTo(uuid.getMostSignificantBits());
+        Assertions.assertThat(key.getLeastSignificantBits())
+                .isEqualTo(uuid.getLeastSignificantBits());
+        Assertions.assertThat(key).hasToString(uuid.toString());
+    }
+
+    @Test
+    @DisplayName("UUID 형식이 아니거나 대문자가 섞인 request id 는 intern 하지 않고 문자열로 보관한다.")
+    void stringKeyTest() {
+        // given
+        String upperCaseUuid = "0F1E2D3C-4B5A-6978-8796-A5B4C3D2E1F0";
+        String requestId = new String("requestId");
+
+        // when
+        RequestIdKey key = RequestIdKey.of(requestId);
+        RequestIdKey upperCaseKey = RequestIdKey.of(upperCaseUuid);
+
+        // then
+        Assertions.assertThat(key.isUuid()).isFalse();
+        Assertions.assertThat(key.toString()).isSameAs(requestId);
+        Assertions.assertThat(upperCaseKey.isUuid()).isFalse();
+        Assertions.assertThat(upperCaseKey)
+                .isNotEqualTo(RequestIdKey.of(upperCaseUuid.toLowerCase()))
+                .hasToString(upperCaseUuid);
+    }
+
+    @Test
+    @DisplayName("같은 request id 로 만든 키는 같고 해시도 같다.")
+    void equalsTest() {
+        // given
+        String requestId = UUID.randomUUID().toString();
+
+        // when
+        RequestIdKey first = RequestIdKey.of(requestId);
+        RequestIdKey second = RequestIdKey.of(new String(requestId));
+
+        // then
+        Assertions.assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+        Assertions.assertThat(first).isNotEqualTo(RequestIdKey.of(UUID.randomUUID().toString()));
+        Assertions.assertThat(RequestIdKey.of("a")).isEqualTo(RequestIdKey.of("a"));
+    }
+}
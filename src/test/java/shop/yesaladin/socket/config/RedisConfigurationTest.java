@@ -0,0 +1,41 @@
+package shop.yesaladin.socket.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RedisConfigurationTest {
+
+    @Test
+    @DisplayName("relay 브로커 없이 Redis 저장소를 사용하면 시작할 때 경고를 남긴다.")
+    void warnWithoutRelayBrokerTest(CapturedOutput output) {
+        // given
+        WebSocketBrokerProperties brokerProperties = Mockito.mock(WebSocketBrokerProperties.class);
+        Mockito.when(brokerProperties.isRelay()).thenReturn(false);
+
+        // when
+        new RedisConfiguration(brokerProperties);
+
+        // then
+        Assertions.assertThat(output).contains("socket.websocket.broker.type is not relay");
+    }
+
+    @Test
+    @DisplayName("relay 브로커와 함께 Redis 저장소를 사용하면 경고를 남기지 않는다.")
+    void noWarningWithRelayBrokerTest(CapturedOutput output) {
+        // given
+        WebSocketBrokerProperties brokerProperties = Mockito.mock(WebSocketBrokerProperties.class);
+        Mockito.when(brokerProperties.isRelay()).thenReturn(true);
+
+        // when
+        new RedisConfiguration(brokerProperties);
+
+        // then
+        Assertions.assertThat(output).doesNotContain("socket.websocket.broker.type is not relay");
+    }
+}
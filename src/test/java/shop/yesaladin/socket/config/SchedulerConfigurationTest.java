@@ -0,0 +1,121 @@
+package shop.yesaladin.socket.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+class SchedulerConfigurationTest {
+
+    private SchedulerProperties schedulerProperties;
+    private MeterRegistry meterRegistry;
+    private ObjectProvider<VirtualThreadSupport> virtualThreadSupportProvider;
+    private SchedulerConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        schedulerProperties = Mockito.mock(SchedulerProperties.class);
+        Mockito.when(schedulerProperties.getSchedulerPoolSize()).thenReturn(2);
+        Mockito.when(schedulerProperties.getSchedulerAwaitTermination())
+                .thenReturn(Duration.ofSeconds(1));
+        Mockito.when(schedulerProperties.getAsyncKeepAlive()).thenReturn(Duration.ofSeconds(60));
+        Mockito.when(schedulerProperties.getAsyncAwaitTermination())
+                .thenReturn(Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+        virtualThreadSupportProvider = Mockito.mock(ObjectProvider.class);
+        configuration = new SchedulerConfiguration(
+                schedulerProperties,
+                meterRegistry,
+                virtualThreadSupportProvider
+        );
+    }
+
+    @Test
+    @DisplayName("스케쥴러는 설정한 크기로 만들고 종료 시 실행 중인 작업을 기다린다.")
+    void socketTaskSchedulerTest() {
+        // when
+        ThreadPoolTaskScheduler scheduler = configuration.socketTaskScheduler();
+        scheduler.initialize();
+
+        // then
+        try {
+            Assertions.assertThat(scheduler.getScheduledThreadPoolExecutor().getCorePoolSize())
+                    .isEqualTo(2);
+            Assertions.assertThat(scheduler)
+                    .extracting("waitForTasksToCompleteOnShutdown", "awaitTerminationMillis")
+                    .containsExactly(true, 1000L);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("비동기 실행기는 큐가 가득 차면 작업을 거부하고 큐 길이와 거부 수를 기록한다.")
+    void socketAsyncExecutorRejectionTest() {
+        // given
+        Mockito.when(schedulerProperties.getAsyncCorePoolSize()).thenReturn(1);
+        Mockito.when(schedulerProperties.getAsyncMaxPoolSize()).thenReturn(1);
+        Mockito.when(schedulerProperties.getAsyncQueueCapacity()).thenReturn(1);
+        Mockito.when(schedulerProperties.isAsyncAbortOnRejection()).thenReturn(true);
+
+        // when
+        ThreadPoolTaskExecutor executor = configuration.socketAsyncExecutor();
+        executor.initialize();
+
+        // then
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+            Assertions.assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            Assertions.assertThat(meterRegistry.get("socket.async.queue.depth")
+                    .gauge()
+                    .value()).isEqualTo(1.0);
+            Assertions.assertThat(meterRegistry.get("socket.async.rejected")
+                    .counter()
+                    .count()).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("가상 스레드를 사용할 수 있으면 비동기 작업은 작업마다 가상 스레드에서 실행한다.")
+    void virtualThreadAsyncExecutorTest() {
+        // given
+        VirtualThreadSupport virtualThreadSupport = Mockito.mock(VirtualThreadSupport.class);
+        Mockito.when(virtualThreadSupport.newThreadPerTaskExecutor("SOCKET-ASYNC-"))
+                .thenReturn(Mockito.mock(ExecutorService.class));
+        Mockito.when(virtualThreadSupportProvider.getIfAvailable())
+                .thenReturn(virtualThreadSupport);
+
+        // when
+        Object executor = configuration.getAsyncExecutor();
+
+        // then
+        Assertions.assertThat(executor).isInstanceOf(TaskExecutorAdapter.class);
+        Mockito.verify(virtualThreadSupport).newThreadPerTaskExecutor("SOCKET-ASYNC-");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package shop.yesaladin.socket.config;
+
+import java.time.Duration;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+class StompBrokerRelayResourcesTest {
+
+    private WebSocketBrokerProperties brokerProperties;
+
+    @BeforeEach
+    void setUp() {
+        brokerProperties = Mockito.mock(WebSocketBrokerProperties.class);
+        Mockito.when(brokerProperties.getRelayHost()).thenReturn("localhost");
+        Mockito.when(brokerProperties.getRelayPort()).thenReturn(61613);
+        Mockito.when(brokerProperties.getPendingAcquireTimeout()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(brokerProperties.getIoWorkerCount()).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("최대 연결 수가 0 이면 풀 없이 연결 수를 제한하지 않는다.")
+    void unpooledByDefaultTest() {
+        // given
+        Mockito.when(brokerProperties.getMaxConnections()).thenReturn(0);
+
+        // when
+        StompBrokerRelayResources resources = new StompBrokerRelayResources(brokerProperties);
+
+        // then
+        try {
+            Assertions.assertThat(resources.createTcpClient()).isNotNull();
+            Assertions.assertThat(resources)
+                    .extracting("connectionProvider")
+                    .isSameAs(ConnectionProvider.newConnection());
+        } finally {
+            resources.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("빈이 소멸될 때 연결 풀과 이벤트 루프를 해제한다.")
+    void destroyTest() {
+        // given
+        Mockito.when(brokerProperties.getMaxConnections()).thenReturn(10);
+        StompBrokerRelayResources resources = new StompBrokerRelayResources(brokerProperties);
+        resources.createTcpClient();
+        ConnectionProvider connectionProvider = (ConnectionProvider) ReflectionTestUtils.getField(
+                resources,
+                "connectionProvider"
+        );
+        LoopResources loopResources = (LoopResources) ReflectionTestUtils.getField(
+                resources,
+                "loopResources"
+        );
+
+        // when
+        resources.destroy();
+
+        // then
+        Assertions.assertThat(connectionProvider.isDisposed()).isTrue();
+        Assertions.assertThat(loopResources.isDisposed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("relay 자원은 브로커 설정과 같은 기준으로 relay 모드일 때만 생성된다.")
+    void relayConditionTest() {
+        // given
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory().setConversionService(
+                        ApplicationConversionService.getSharedInstance()
+                ))
+                .withUserConfiguration(
+                        WebSocketBrokerProperties.class,
+                        StompBrokerRelayResources.class
+                );
+
+        // when / then
+        runner.withPropertyValues("socket.websocket.broker.type=relay").run(context -> {
+            Assertions.assertThat(context.getBean(WebSocketBrokerProperties.class).isRelay())
+                    .isTrue();
+            Assertions.assertThat(context).hasSingleBean(StompBrokerRelayResources.class);
+        });
+        runner.withPropertyValues("socket.websocket.broker.type=RELAY").run(context -> {
+            Assertions.assertThat(context.getBean(WebSocketBrokerProperties.class).isRelay())
+                    .isTrue();
+            Assertions.assertThat(context).hasSingleBean(StompBrokerRelayResources.class);
+        });
+        runner.run(context -> {
+            Assertions.assertThat(context.getBean(WebSocketBrokerProperties.class).isRelay())
+                    .isFalse();
+            Assertions.assertThat(context).doesNotHaveBean(StompBrokerRelayResources.class);
+        });
+    }
+}
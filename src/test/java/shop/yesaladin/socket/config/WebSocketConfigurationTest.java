@@ -0,0 +1,197 @@
+package shop.yesaladin.socket.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import shop.yesaladin.socket.coupon.listener.CouponSubscriptionInterceptor;
+
+class WebSocketConfigurationTest {
+
+    private WebSocketBrokerProperties brokerProperties;
+    private WebSocketChannelProperties channelProperties;
+    private MessageBrokerRegistry registry;
+    private MeterRegistry meterRegistry;
+    private ObjectProvider<VirtualThreadSupport> virtualThreadSupportProvider;
+    private ObjectProvider<StompBrokerRelayResources> relayResourcesProvider;
+    private WebSocketConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        brokerProperties = Mockito.mock(WebSocketBrokerProperties.class);
+        channelProperties = Mockito.mock(WebSocketChannelProperties.class);
+        registry = Mockito.mock(MessageBrokerRegistry.class);
+        meterRegistry = new SimpleMeterRegistry();
+        virtualThreadSupportProvider = Mockito.mock(ObjectProvider.class);
+        relayResourcesProvider = Mockito.mock(ObjectProvider.class);
+        configuration = new WebSocketConfiguration(
+                brokerProperties,
+                channelProperties,
+                meterRegistry,
+                Mockito.mock(CouponSubscriptionInterceptor.class),
+                virtualThreadSupportProvider,
+                relayResourcesProvider
+        );
+    }
+
+    @Test
+    @DisplayName("기본 설정에서는 simple broker 를 사용한다.")
+    void configureSimpleBrokerTest() {
+        // given
+        Mockito.when(brokerProperties.isRelay()).thenReturn(false);
+
+        // when
+        configuration.configureMessageBroker(registry);
+
+        // then
+        Mockito.verify(registry).enableSimpleBroker("/ws/topic");
+        Mockito.verify(registry, Mockito.never()).enableStompBrokerRelay(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("relay 설정에서는 외부 STOMP 브로커로 중계하고 heartbeat 설정을 적용한다.")
+    void configureStompBrokerRelayTest() {
+        // given
+        Mockito.when(brokerProperties.isRelay()).thenReturn(true);
+        Mockito.when(brokerProperties.getRelayHost()).thenReturn("localhost");
+        Mockito.when(brokerProperties.getRelayPort()).thenReturn(61613);
+        Mockito.when(brokerProperties.getSystemHeartbeatSendInterval())
+                .thenReturn(Duration.ofSeconds(5));
+        Mockito.when(brokerProperties.getSystemHeartbeatReceiveInterval())
+                .thenReturn(Duration.ofSeconds(20));
+        StompBrokerRelayResources relayResources = Mockito.mock(StompBrokerRelayResources.class);
+        ReactorNettyTcpClient<byte[]> tcpClient = Mockito.mock(ReactorNettyTcpClient.class);
+        Mockito.when(relayResources.createTcpClient()).thenReturn(tcpClient);
+        Mockito.when(relayResourcesProvider.getObject()).thenReturn(relayResources);
+        StompBrokerRelayRegistration relayRegistration = Mockito.mock(
+                StompBrokerRelayRegistration.class,
+                Mockito.RETURNS_SELF
+        );
+        Mockito.when(registry.enableStompBrokerRelay("/ws/topic")).thenReturn(relayRegistration);
+
+        // when
+        configuration.configureMessageBroker(registry);
+
+        // then
+        Mockito.verify(registry, Mockito.never()).enableSimpleBroker(Mockito.any());
+        Mockito.verify(relayRegistration).setSystemHeartbeatSendInterval(5000L);
+        Mockito.verify(relayRegistration).setSystemHeartbeatReceiveInterval(20000L);
+        Mockito.verify(relayRegistration).setVirtualHost(null);
+        Mockito.verify(relayRegistration).setTcpClient(tcpClient);
+    }
+
+    @Test
+    @DisplayName("웹소켓 전송 제한 설정을 적용한다.")
+    void configureWebSocketTransportTest() {
+        // given
+        Mockito.when(channelProperties.getSendTimeLimit()).thenReturn(Duration.ofSeconds(3));
+        Mockito.when(channelProperties.getSendBufferSizeLimit())
+                .thenReturn(DataSize.ofKilobytes(256));
+        Mockito.when(channelProperties.getMessageSizeLimit()).thenReturn(DataSize.ofKilobytes(16));
+        Mockito.when(channelProperties.getTimeToFirstMessage()).thenReturn(Duration.ofSeconds(30));
+        WebSocketTransportRegistration transportRegistration = Mockito.mock(
+                WebSocketTransportRegistration.class,
+                Mockito.RETURNS_SELF
+        );
+
+        // when
+        configuration.configureWebSocketTransport(transportRegistration);
+
+        // then
+        Mockito.verify(transportRegistration).setSendTimeLimit(3000);
+        Mockito.verify(transportRegistration).setSendBufferSizeLimit(256 * 1024);
+        Mockito.verify(transportRegistration).setMessageSizeLimit(16 * 1024);
+        Mockito.verify(transportRegistration).setTimeToFirstMessage(30000);
+    }
+
+    @Test
+    @DisplayName("bounded 모드에서는 큐가 가득 차면 작업을 거부하고 큐 길이와 거부 수를 기록한다.")
+    void configureBoundedInboundChannelTest() throws Exception {
+        // given
+        Mockito.when(channelProperties.isBounded()).thenReturn(true);
+        Mockito.when(channelProperties.isAbortOnRejection()).thenReturn(true);
+        Mockito.when(channelProperties.getInboundCorePoolSize()).thenReturn(1);
+        Mockito.when(channelProperties.getInboundMaxPoolSize()).thenReturn(1);
+        Mockito.when(channelProperties.getInboundQueueCapacity()).thenReturn(1);
+        Mockito.when(channelProperties.getKeepAlive()).thenReturn(Duration.ofSeconds(60));
+        ChannelRegistration channelRegistration = Mockito.mock(ChannelRegistration.class);
+        ArgumentCaptor<ThreadPoolTaskExecutor> executorCaptor = ArgumentCaptor.forClass(
+                ThreadPoolTaskExecutor.class);
+
+        // when
+        configuration.configureClientInboundChannel(channelRegistration);
+
+        // then
+        Mockito.verify(channelRegistration).taskExecutor(executorCaptor.capture());
+        ThreadPoolTaskExecutor executor = executorCaptor.getValue();
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+            Assertions.assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            Assertions.assertThat(meterRegistry.get("websocket.channel.queue.depth")
+                    .tag("channel", "inbound")
+                    .gauge()
+                    .value()).isEqualTo(1.0);
+            Assertions.assertThat(meterRegistry.get("websocket.channel.rejected")
+                    .tag("channel", "inbound")
+                    .counter()
+                    .count()).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("가상 스레드를 사용할 수 있으면 채널 executor 의 스레드를 가상 스레드 팩토리로 만든다.")
+    void configureVirtualThreadOutboundChannelTest() {
+        // given
+        Mockito.when(channelProperties.getKeepAlive()).thenReturn(Duration.ofSeconds(60));
+        VirtualThreadSupport virtualThreadSupport = Mockito.mock(VirtualThreadSupport.class);
+        ThreadFactory threadFactory = Mockito.mock(ThreadFactory.class);
+        Mockito.when(virtualThreadSupport.threadFactory("websocket-outbound-"))
+                .thenReturn(threadFactory);
+        Mockito.when(virtualThreadSupportProvider.getIfAvailable())
+                .thenReturn(virtualThreadSupport);
+        ChannelRegistration channelRegistration = Mockito.mock(ChannelRegistration.class);
+        ArgumentCaptor<ThreadPoolTaskExecutor> executorCaptor = ArgumentCaptor.forClass(
+                ThreadPoolTaskExecutor.class);
+
+        // when
+        configuration.configureClientOutboundChannel(channelRegistration);
+
+        // then
+        Mockito.verify(channelRegistration).taskExecutor(executorCaptor.capture());
+        Assertions.assertThat(executorCaptor.getValue())
+                .extracting("threadFactory")
+                .isSameAs(threadFactory);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,13 +6,17 @@ import static org.springframework.restdocs.payload.PayloadDocumentation.beneathP
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 import static org.springframework.restdocs.payload.PayloadDocumentation.requestFields;
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static shop.yesaladin.socket.docs.ApiDocumentUtils.getDocumentRequest;
 import static shop.yesaladin.socket.docs.ApiDocumentUtils.getDocumentResponse;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -26,7 +30,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import shop.yesaladin.coupon.code.CouponSocketRequestKind;
 import shop.yesaladin.coupon.message.CouponResultDto;
-import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.exception.CouponMessageQueueFullException;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.service.inter.CouponMessageDispatcher;
 
 @WebMvcTest(CommandCouponMessageController.class)
 @AutoConfigureRestDocs
@@ -35,7 +43,9 @@ class CommandCouponMessageControllerTest {
     @Autowired
     private MockMvc mockMvc;
     @MockBean
-    private CouponWebsocketMessageService couponWebsocketMessageService;
+    private CouponMessageDispatcher couponMessageDispatcher;
+    @MockBean
+    private CouponMessageMetrics couponMessageMetrics;
     @Autowired
     ObjectMapper objectMapper;
 
@@ -63,8 +73,7 @@ class CommandCouponMessageControllerTest {
                 .andExpect(jsonPath("$.status").value(201))
                 .andExpect(jsonPath("$.data").isEmpty())
                 .andExpect(jsonPath("$.errorMessages").isEmpty());
-        Mockito.verify(couponWebsocketMessageService, Mockito.times(1))
-                .trySendGiveCouponResultMessage(Mockito.any());
+        Mockito.verify(couponMessageDispatcher, Mockito.times(1)).dispatch(Mockito.any());
 
         // docs
         actual.andDo(document(
@@ -85,4 +94,179 @@ class CommandCouponMessageControllerTest {
         ));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("전송 큐가 가득 차면 503과 Retry-After 헤더로 응답한다.")
+    void registerMessageQueueFullTest() throws Exception {
+        // given
+        CouponResultDto couponResultDto = new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                true,
+                null,
+                LocalDateTime.of(2023, 2, 19, 12, 30)
+        );
+        Mockito.doThrow(new CouponMessageQueueFullException(
+                        couponResultDto.getRequestId(),
+                        Duration.ofMillis(1500)
+                ))
+                .when(couponMessageDispatcher)
+                .dispatch(Mockito.any());
+
+        // when
+        ResultActions actual = mockMvc.perform(post("/v1/coupon-messages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(couponResultDto)));
+
+        // then
+        actual.andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.errorMessages").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("쿠폰 지급/사용 결과 메시지 목록을 한 번에 등록하고 메시지별 처리 결과를 응답한다.")
+    void registerMessagesTest() throws Exception {
+        // given
+        List<CouponResultDto> messages = List.of(
+                new CouponResultDto(
+                        CouponSocketRequestKind.GIVE,
+                        "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                        true,
+                        null,
+                        LocalDateTime.of(2023, 2, 19, 12, 30)
+                ),
+                new CouponResultDto(
+                        CouponSocketRequestKind.GIVE,
+                        "8a1f0c9e-5b7d-4c3a-9e2f-1d6b4a8c7e90",
+                        false,
+                        "쿠폰이 모두 소진되었습니다.",
+                        LocalDateTime.of(2023, 2, 19, 12, 30)
+                )
+        );
+        Mockito.when(couponMessageDispatcher.dispatchAll(Mockito.anyList()))
+                .thenReturn(List.of(
+                        CouponMessageOutcomeDto.of(
+                                0,
+                                "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                                CouponMessageDeliveryStatus.DELIVERED
+                        ),
+                        CouponMessageOutcomeDto.of(
+                                1,
+                                "8a1f0c9e-5b7d-4c3a-9e2f-1d6b4a8c7e90",
+                                CouponMessageDeliveryStatus.PARKED
+                        )
+                ));
+
+        // when
+        ResultActions actual = mockMvc.perform(post("/v1/coupon-messages/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(messages)));
+
+        // then
+        actual.andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.status").value(200))
+                .andExpect(jsonPath("$.data[0].status").value("DELIVERED"))
+                .andExpect(jsonPath("$.data[1].status").value("PARKED"))
+                .andExpect(jsonPath("$.errorMessages").isEmpty());
+        Mockito.verify(couponMessageDispatcher, Mockito.times(1)).dispatchAll(messages);
+
+        // docs
+        actual.andDo(document(
+                "register-coupon-messages",
+                getDocumentRequest(),
+                getDocumentResponse(),
+                requestFields(
+                        fieldWithPath("[].requestKind").type(JsonFieldType.STRING)
+                                .description("요청 종류(사용 / 지급)"),
+                        fieldWithPath("[].requestId").type(JsonFieldType.STRING)
+                                .description("요청 ID"),
+                        fieldWithPath("[].success").type(JsonFieldType.BOOLEAN)
+                                .description("요청 성공 여부"),
+                        fieldWithPath("[].message").type(JsonFieldType.VARIES).optional()
+                                .description("요청 관련 메시지. 성공시 null,"),
+                        fieldWithPath("[].issuedDateTime").type(JsonFieldType.STRING)
+                                .description("메시지 발행 시간 시간")
+                ),
+                responseFields(beneathPath("data").withSubsectionId("data"),
+                        fieldWithPath("index").type(JsonFieldType.NUMBER)
+                                .description("요청 목록에서의 순서"),
+                        fieldWithPath("requestId").type(JsonFieldType.STRING)
+                                .description("요청 ID"),
+                        fieldWithPath("status").type(JsonFieldType.STRING)
+                                .description("처리 결과(DELIVERED / PARKED / QUEUED / REJECTED)"),
+                        fieldWithPath("reason").type(JsonFieldType.NULL).optional()
+                                .description("REJECTED 인 경우 사유")
+                )
+        ));
+    }
+
+    @Test
+    @DisplayName("일괄 등록한 메시지를 전송 큐에 하나도 넣지 못하면 503과 Retry-After 헤더로 응답한다.")
+    void registerMessagesQueueFullTest() throws Exception {
+        // given
+        List<CouponResultDto> messages = List.of(new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                true,
+                null,
+                LocalDateTime.of(2023, 2, 19, 12, 30)
+        ));
+        Mockito.when(couponMessageDispatcher.dispatchAll(Mockito.anyList()))
+                .thenThrow(new CouponMessageQueueFullException(
+                        "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                        Duration.ofSeconds(1)
+                ));
+
+        // when
+        ResultActions actual = mockMvc.perform(post("/v1/coupon-messages/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(messages)));
+
+        // then
+        actual.andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("NDJSON 으로 전달된 메시지 목록을 등록하고 읽을 수 없는 줄은 null 로 전달한다.")
+    void registerMessageStreamTest() throws Exception {
+        // given
+        CouponResultDto message = new CouponResultDto(
+                CouponSocketRequestKind.USE,
+                "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                true,
+                null,
+                LocalDateTime.of(2023, 2, 19, 12, 30)
+        );
+        String requestBody = objectMapper.writeValueAsString(message) + "\n"
+                + "{not-json\n"
+                + "\n";
+        Mockito.when(couponMessageDispatcher.dispatchAll(Mockito.anyList()))
+                .thenReturn(List.of(
+                        CouponMessageOutcomeDto.of(
+                                0,
+                                "337d8520-198f-4cc2-a1e3-7559c1c532b0",
+                                CouponMessageDeliveryStatus.PARKED
+                        ),
+                        CouponMessageOutcomeDto.rejected(1, null, "Invalid coupon result message")
+                ));
+
+        // when
+        ResultActions actual = mockMvc.perform(post("/v1/coupon-messages/batch")
+                .contentType("application/x-ndjson")
+                .content(requestBody));
+
+        // then
+        actual.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].status").value("PARKED"))
+                .andExpect(jsonPath("$.data[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.data[1].reason").value("Invalid coupon result message"));
+        Mockito.verify(couponMessageDispatcher, Mockito.times(1))
+                .dispatchAll(Arrays.asList(message, null));
+    }
+}
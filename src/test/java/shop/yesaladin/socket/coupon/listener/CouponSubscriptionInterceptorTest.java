@@ -0,0 +1,82 @@
+package shop.yesaladin.socket.coupon.listener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import shop.yesaladin.socket.coupon.service.inter.CouponSessionService;
+
+class CouponSubscriptionInterceptorTest {
+
+    private CouponSessionService couponSessionService;
+    private CouponSubscriptionInterceptor interceptor;
+    private MessageChannel channel;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        couponSessionService = Mockito.mock(CouponSessionService.class);
+        ObjectProvider<CouponSessionService> provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getObject()).thenReturn(couponSessionService);
+        interceptor = new CouponSubscriptionInterceptor(provider);
+        channel = Mockito.mock(MessageChannel.class);
+    }
+
+    @Test
+    @DisplayName("브로커가 SUBSCRIBE 메시지를 처리한 뒤에 구독을 기록한다.")
+    void afterBrokerHandledSubscribeTest() {
+        // given
+        Message<byte[]> message = createMessage(StompCommand.SUBSCRIBE);
+        MessageHandler broker = Mockito.mock(SimpleBrokerMessageHandler.class);
+
+        // when
+        interceptor.afterMessageHandled(message, channel, broker, null);
+
+        // then
+        Mockito.verify(couponSessionService).subscribe("session", "sub-0", "/topic/requestId");
+    }
+
+    @Test
+    @DisplayName("브로커가 아닌 핸들러나 SUBSCRIBE 가 아닌 메시지, 실패한 처리는 무시한다.")
+    void ignoreTest() {
+        // given
+        MessageHandler broker = Mockito.mock(SimpleBrokerMessageHandler.class);
+        MessageHandler other = Mockito.mock(MessageHandler.class);
+
+        // when
+        interceptor.afterMessageHandled(
+                createMessage(StompCommand.SUBSCRIBE),
+                channel,
+                other,
+                null
+        );
+        interceptor.afterMessageHandled(createMessage(StompCommand.SEND), channel, broker, null);
+        interceptor.afterMessageHandled(
+                createMessage(StompCommand.SUBSCRIBE),
+                channel,
+                broker,
+                new IllegalStateException()
+        );
+
+        // then
+        Mockito.verify(couponSessionService, Mockito.never())
+                .subscribe(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    private static Message<byte[]> createMessage(StompCommand command) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("session");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/topic/requestId");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,116 @@
+package shop.yesaladin.socket.coupon.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+
+class CouponMessageMetricsTest {
+
+    private Clock clock;
+    private CouponResultMessageRepository couponResultMessageRepository;
+    private CouponSocketConnectionRepository couponSocketConnectionRepository;
+    private MeterRegistry meterRegistry;
+    private CouponMessageMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        SocketProperties socketProperties = Mockito.mock(SocketProperties.class);
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("/give/");
+        couponResultMessageRepository = Mockito.mock(CouponResultMessageRepository.class);
+        couponSocketConnectionRepository = Mockito.mock(CouponSocketConnectionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new CouponMessageMetrics(
+                clock,
+                socketProperties,
+                couponResultMessageRepository,
+                couponSocketConnectionRepository,
+                meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("수신한 메시지의 발행부터 수신까지의 시간을 요청 종류별로 기록한다.")
+    void recordIngestTest() {
+        // given
+        CouponResultDto resultDto = new CouponResultDto(
+                CouponSocketRequestKind.USE,
+                "requestId",
+                true,
+                null,
+                LocalDateTime.now(clock).minusSeconds(3)
+        );
+
+        // when
+        metrics.recordIngest(resultDto);
+        metrics.recordIngest(null);
+
+        // then
+        Assertions.assertThat(timerMax("coupon.result.ingest.latency", "USE")).isEqualTo(3000);
+        Assertions.assertThat(
+                meterRegistry.get("coupon.result.ingest.latency").tag("kind", "GIVE").timer()
+                        .count()
+        ).isZero();
+    }
+
+    @Test
+    @DisplayName("저장되어 있던 메시지를 전송하면 저장된 시간과 발행부터 전송까지의 시간을 기록한다.")
+    void recordParkedDeliveryTest() {
+        // given
+        CouponResultMessage message = new CouponResultMessage(
+                "requestId",
+                "/give/requestId",
+                LocalDateTime.now(clock).minusSeconds(10),
+                new byte[]{'{', '}'},
+                clock.millis() - 7000
+        );
+
+        // when
+        metrics.recordDelivery(message, true);
+
+        // then
+        Assertions.assertThat(timerMax("coupon.result.park.duration", "GIVE")).isEqualTo(7000);
+        Assertions.assertThat(
+                meterRegistry.get("coupon.result.delivery.latency")
+                        .tags("kind", "GIVE", "path", "parked")
+                        .timer()
+                        .max(TimeUnit.MILLISECONDS)
+        ).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("저장된 결과 메시지와 연결 수를 노출하고, 셀 수 없는 저장소는 NaN 으로 노출한다.")
+    void gaugeTest() {
+        // given
+        Mockito.when(couponResultMessageRepository.count()).thenReturn(5);
+        Mockito.when(couponSocketConnectionRepository.count())
+                .thenReturn(CouponSocketConnectionRepository.UNKNOWN_COUNT);
+
+        // when
+        double parked = meterRegistry.get("coupon.result.parked").gauge().value();
+        double registered = meterRegistry.get("coupon.connection.registered").gauge().value();
+
+        // then
+        Assertions.assertThat(parked).isEqualTo(5);
+        Assertions.assertThat(registered).isNaN();
+    }
+
+    private double timerMax(String name, String kind) {
+        return meterRegistry.get(name).tag("kind", kind).timer().max(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,139 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponResultStoreProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class BoundedCouponResultMessageRepositoryTest {
+
+    private Clock clock;
+    private CouponExpiryProperties expiryProperties;
+    private CouponResultStoreProperties storeProperties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        storeProperties = Mockito.mock(CouponResultStoreProperties.class);
+        Mockito.when(storeProperties.getMaximumSize()).thenReturn(10L);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("쿠폰 처리 결과 메시지를 저장하고 삭제한다.")
+    void saveAndDeleteTest() {
+        // given
+        BoundedCouponResultMessageRepository repository = createRepository();
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now(clock));
+
+        // when
+        repository.save(expected);
+        boolean existsBeforeDelete = repository.existsByRequestId("requestId");
+        CouponResultMessage actual = repository.getByRequestId("requestId");
+        repository.deleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(existsBeforeDelete).isTrue();
+        Assertions.assertThat(actual).isSameAs(expected);
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(evictionCount("explicit")).isZero();
+    }
+
+    @Test
+    @DisplayName("최대 항목 수를 넘으면 메시지를 제거하고 용량 초과 사유로 기록한다.")
+    void evictBySizeTest() {
+        // given
+        BoundedCouponResultMessageRepository repository = createRepository();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+        }
+        repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(evictionCount("size")).isEqualTo(90);
+        Assertions.assertThat(meterRegistry.get("coupon.result.store.size").gauge().value())
+                .isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("최대 용량(byte)이 설정되면 예상 크기를 기준으로 메시지를 제거한다.")
+    void evictByWeightTest() {
+        // given
+        Mockito.when(storeProperties.getMaximumWeightBytes()).thenReturn(1024L);
+        BoundedCouponResultMessageRepository repository = createRepository();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+        }
+        repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(evictionCount("size")).isPositive();
+        Assertions.assertThat(meterRegistry.get("coupon.result.store.size").gauge().value())
+                .isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("발행된지 30분이 지난 메시지는 조회되지 않고 만료 사유로 기록된다.")
+    void expireTest() {
+        // given
+        BoundedCouponResultMessageRepository repository = createRepository();
+        repository.save(createMessage("expired", LocalDateTime.now(clock).minusMinutes(31)));
+        repository.save(createMessage("alive", LocalDateTime.now(clock).minusMinutes(29)));
+
+        // when
+        repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(repository.existsByRequestId("expired")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("alive")).isTrue();
+        Assertions.assertThat(evictionCount("expired")).isEqualTo(1);
+    }
+
+    private BoundedCouponResultMessageRepository createRepository() {
+        return new BoundedCouponResultMessageRepository(
+                clock,
+                expiryProperties,
+                storeProperties,
+                meterRegistry
+        );
+    }
+
+    private double evictionCount(String cause) {
+        return meterRegistry.find("coupon.result.store.evictions")
+                .tag("cause", cause)
+                .counters()
+                .stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static CouponResultMessage createMessage(
+            String requestId,
+            LocalDateTime issuedDateTime
+    ) {
+        return new CouponResultMessage(
+                requestId,
+                "/topic/" + requestId,
+                issuedDateTime,
+                new byte[]{'{', '}'}
+        );
+    }
+}
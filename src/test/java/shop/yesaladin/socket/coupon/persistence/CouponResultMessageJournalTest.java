@@ -0,0 +1,193 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class CouponResultMessageJournalTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest(name = "truncateFails={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("레코드 기록이 중간에 실패해도 그 뒤에 기록한 레코드는 복원한다.")
+    void appendAfterTornWriteTest(boolean truncateFails) throws IOException {
+        // given
+        FailingJournal journal = new FailingJournal(directory, truncateFails);
+        journal.open(issuedMillis -> false);
+        journal.sync(journal.appendPut(createMessage("before")));
+        journal.failNextWrite = true;
+
+        // when
+        Assertions.assertThatThrownBy(() -> journal.appendPut(createMessage("torn")))
+                .isInstanceOf(UncheckedIOException.class);
+        journal.sync(journal.appendPut(createMessage("after")));
+        journal.close();
+        List<CouponResultMessage> restored = new CouponResultMessageJournal(directory, ZONE)
+                .open(issuedMillis -> false);
+
+        // then
+        Assertions.assertThat(restored.stream()
+                        .map(CouponResultMessage::getRequestId)
+                        .collect(Collectors.toList()))
+                .containsExactly("before", "after");
+    }
+
+    private static CouponResultMessage createMessage(String requestId) {
+        return new CouponResultMessage(
+                requestId,
+                "/topic/" + requestId,
+                LocalDateTime.of(2023, 1, 1, 0, 0),
+                "{}".getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * 요청하면 레코드의 앞부분만 쓰고 실패하는 채널로 세그먼트를 여는 저널입니다.
+     */
+    private static final class FailingJournal extends CouponResultMessageJournal {
+
+        private final boolean truncateFails;
+        private boolean failNextWrite;
+
+        private FailingJournal(Path directory, boolean truncateFails) {
+            super(directory, ZONE);
+            this.truncateFails = truncateFails;
+        }
+
+        @Override
+        FileChannel openChannel(Path segment) throws IOException {
+            return new FailingChannel(super.openChannel(segment), this);
+        }
+    }
+
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final FailingJournal journal;
+
+        private FailingChannel(FileChannel delegate, FailingJournal journal) {
+            this.delegate = delegate;
+            this.journal = journal;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (journal.failNextWrite) {
+                journal.failNextWrite = false;
+                ByteBuffer partial = srcs[offset].duplicate();
+                partial.limit(partial.position() + 3);
+                delegate.write(partial);
+                throw new IOException("disk full");
+            }
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (journal.truncateFails) {
+                throw new IOException("truncate not supported");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target)
+                throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count)
+                throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
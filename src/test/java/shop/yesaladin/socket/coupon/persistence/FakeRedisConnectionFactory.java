@@ -0,0 +1,244 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+/**
+ * 문자열 명령만 메모리에서 처리하는 테스트용 Redis 연결 팩토리입니다.
+ * <p>
+ * {@link StringRedisTemplate} 이 보내는 SET(PX / EX 포함), GET, GETDEL, EXISTS, DEL, PTTL 명령을 Redis 와 같은 의미로
+ * 처리합니다. 키는 자신의 시계로 TTL 이 지나면 사라지고, 모든 명령은 하나의 잠금 안에서 실행되므로 GETDEL 은 원자적입니다.
+ * 시계는 {@link #advance(Duration)} 로만 움직이며, 저장소에 같은 시계를 넘기면 서버와 애플리케이션의 시각이 함께 흐릅니다.
+ * 그 외의 명령은 {@link UnsupportedOperationException} 을 던집니다.
+ */
+class FakeRedisConnectionFactory implements RedisConnectionFactory {
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final long NO_KEY = -2L;
+    private static final long PERSISTENT_KEY = -1L;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ZoneId zone;
+    private long nowMillis;
+
+    FakeRedisConnectionFactory(Instant now, ZoneId zone) {
+        this.nowMillis = now.toEpochMilli();
+        this.zone = zone;
+    }
+
+    /**
+     * 팩토리의 시각을 읽는 시계를 반환합니다.
+     *
+     * @return 팩토리의 시각을 읽는 시계
+     */
+    Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(currentMillis());
+            }
+        };
+    }
+
+    /**
+     * 시각을 주어진 기간만큼 앞으로 옮깁니다.
+     *
+     * @param duration 옮길 기간
+     */
+    synchronized void advance(Duration duration) {
+        nowMillis += duration.toMillis();
+    }
+
+    /**
+     * 팩토리를 사용하는 템플릿을 생성합니다.
+     *
+     * @return 팩토리를 사용하는 템플릿
+     */
+    StringRedisTemplate createTemplate() {
+        return new StringRedisTemplate(this);
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        return (RedisConnection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{RedisConnection.class},
+                (proxy, method, args) -> invoke(proxy, method, args)
+        );
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return false;
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        return null;
+    }
+
+    private synchronized long currentMillis() {
+        return nowMillis;
+    }
+
+    private synchronized Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "keyCommands":
+            case "stringCommands":
+                return proxy;
+            case "close":
+                return null;
+            case "isClosed":
+            case "isPipelined":
+            case "isQueueing":
+                return false;
+            case "closePipeline":
+                return Collections.emptyList();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return FakeRedisConnectionFactory.class.getSimpleName();
+            case "set":
+                return set(args);
+            case "setEx":
+                put((byte[]) args[0], (byte[]) args[2], (Long) args[1] * 1_000L);
+                return true;
+            case "pSetEx":
+                put((byte[]) args[0], (byte[]) args[2], (Long) args[1]);
+                return true;
+            case "get":
+                return valueOf(live((byte[]) args[0]));
+            case "getDel":
+                return getDel((byte[]) args[0]);
+            case "exists":
+                return exists(args[0]);
+            case "del":
+                return del((byte[][]) args[0]);
+            case "pTtl":
+                return pTtl((byte[]) args[0]);
+            default:
+                throw new UnsupportedOperationException(method.toString());
+        }
+    }
+
+    private Boolean set(Object[] args) {
+        long timeToLiveMillis = NO_EXPIRY;
+        if (args.length > 2 && Objects.nonNull(args[2])) {
+            Expiration expiration = (Expiration) args[2];
+            if (!expiration.isPersistent() && !expiration.isKeepTtl()) {
+                timeToLiveMillis = expiration.getExpirationTimeInMilliseconds();
+            }
+        }
+        put((byte[]) args[0], (byte[]) args[1], timeToLiveMillis);
+        return true;
+    }
+
+    private void put(byte[] key, byte[] value, long timeToLiveMillis) {
+        if (timeToLiveMillis <= 0) {
+            throw new IllegalArgumentException("invalid expire time: " + timeToLiveMillis);
+        }
+        long deadline = timeToLiveMillis == NO_EXPIRY ? NO_EXPIRY : nowMillis + timeToLiveMillis;
+        entries.put(new String(key, StandardCharsets.UTF_8), new Entry(value.clone(), deadline));
+    }
+
+    private byte[] getDel(byte[] key) {
+        Entry entry = live(key);
+        if (Objects.nonNull(entry)) {
+            entries.remove(new String(key, StandardCharsets.UTF_8));
+        }
+        return valueOf(entry);
+    }
+
+    private Object exists(Object keys) {
+        if (keys instanceof byte[]) {
+            return Objects.nonNull(live((byte[]) keys));
+        }
+        long count = 0;
+        for (byte[] key : (byte[][]) keys) {
+            count += Objects.nonNull(live(key)) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private Long del(byte[][] keys) {
+        long count = 0;
+        for (byte[] key : keys) {
+            if (Objects.nonNull(live(key))) {
+                entries.remove(new String(key, StandardCharsets.UTF_8));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Long pTtl(byte[] key) {
+        Entry entry = live(key);
+        if (Objects.isNull(entry)) {
+            return NO_KEY;
+        }
+        return entry.deadline == NO_EXPIRY ? PERSISTENT_KEY : entry.deadline - nowMillis;
+    }
+
+    private Entry live(byte[] key) {
+        String name = new String(key, StandardCharsets.UTF_8);
+        Entry entry = entries.get(name);
+        if (Objects.nonNull(entry) && entry.deadline <= nowMillis) {
+            entries.remove(name);
+            return null;
+        }
+        return entry;
+    }
+
+    private static byte[] valueOf(Entry entry) {
+        return Objects.isNull(entry) ? null : entry.value.clone();
+    }
+
+    private static final class Entry {
+
+        private final byte[] value;
+        private final long deadline;
+
+        private Entry(byte[] value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+}
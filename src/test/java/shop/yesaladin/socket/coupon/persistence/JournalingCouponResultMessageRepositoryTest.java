@@ -0,0 +1,192 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.util.unit.DataSize;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponJournalProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+
+class JournalingCouponResultMessageRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private Clock clock;
+    private CouponExpiryProperties expiryProperties;
+    private CouponJournalProperties journalProperties;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(4096);
+        journalProperties = Mockito.mock(CouponJournalProperties.class);
+        Mockito.when(journalProperties.getDirectory()).thenReturn(directory.toString());
+        Mockito.when(journalProperties.isFsync()).thenReturn(true);
+        Mockito.when(journalProperties.getSnapshotMinJournalSize()).thenReturn(DataSize.ofBytes(0));
+    }
+
+    @Test
+    @DisplayName("다시 시작하면 전송되지 않은 메시지를 저널에서 복원한다.")
+    void restoreTest() {
+        // given
+        JournalingCouponResultMessageRepository repository = startRepository();
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now(clock));
+        repository.save(expected);
+        repository.stop();
+
+        // when
+        JournalingCouponResultMessageRepository restarted = startRepository();
+
+        // then
+        Assertions.assertThat(restarted.isRestored()).isTrue();
+        Assertions.assertThat(restarted.getRestoredCount()).isEqualTo(1);
+        CouponResultMessage actual = restarted.getByRequestId("requestId");
+        Assertions.assertThat(actual.getDestination()).isEqualTo(expected.getDestination());
+        Assertions.assertThat(actual.getIssuedDateTime()).isEqualTo(expected.getIssuedDateTime());
+        Assertions.assertThat(actual.getPayload()).isEqualTo(expected.getPayload());
+    }
+
+    @Test
+    @DisplayName("전송되었거나 만료된 메시지는 복원하지 않는다.")
+    void restoreExcludesDeliveredAndExpiredTest() {
+        // given
+        JournalingCouponResultMessageRepository repository = startRepository();
+        repository.save(createMessage("delivered", LocalDateTime.now(clock)));
+        repository.save(createMessage("deleted", LocalDateTime.now(clock)));
+        repository.save(createMessage("expired", LocalDateTime.now(clock).minusMinutes(31)));
+        repository.save(createMessage("parked", LocalDateTime.now(clock)));
+        repository.findAndDeleteByRequestId("delivered");
+        repository.deleteByRequestId("deleted");
+        repository.stop();
+
+        // when
+        JournalingCouponResultMessageRepository restarted = startRepository();
+
+        // then
+        Assertions.assertThat(restarted.existsByRequestId("delivered")).isFalse();
+        Assertions.assertThat(restarted.existsByRequestId("deleted")).isFalse();
+        Assertions.assertThat(restarted.existsByRequestId("expired")).isFalse();
+        Assertions.assertThat(restarted.existsByRequestId("parked")).isTrue();
+    }
+
+    @Test
+    @DisplayName("마지막 레코드가 온전히 기록되지 않았다면 그 앞까지만 복원한다.")
+    void restoreWithTornTailTest() throws IOException {
+        // given
+        JournalingCouponResultMessageRepository repository = startRepository();
+        repository.save(createMessage("requestId", LocalDateTime.now(clock)));
+        repository.stop();
+        Files.write(
+                directory.resolve("coupon-result.journal.1"),
+                new byte[]{0, 0, 0, 100, 1, 2, 3},
+                StandardOpenOption.APPEND
+        );
+
+        // when
+        JournalingCouponResultMessageRepository restarted = startRepository();
+        restarted.save(createMessage("requestId2", LocalDateTime.now(clock)));
+        restarted.stop();
+        JournalingCouponResultMessageRepository restartedAgain = startRepository();
+
+        // then
+        Assertions.assertThat(restartedAgain.existsByRequestId("requestId")).isTrue();
+        Assertions.assertThat(restartedAgain.existsByRequestId("requestId2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("스냅숏을 만들면 남아 있는 메시지만 스냅숏에 쓰고 반영된 저널을 지운다.")
+    void snapshotTest() throws IOException {
+        // given
+        JournalingCouponResultMessageRepository repository = startRepository();
+        for (int i = 0; i < 100; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+            if (i != 99) {
+                repository.findAndDeleteByRequestId("requestId" + i);
+            }
+        }
+        long journalBytesBeforeSnapshot = repository.getJournalBytes();
+
+        // when
+        boolean snapshotted = repository.snapshot();
+        repository.save(createMessage("requestId100", LocalDateTime.now(clock)));
+        repository.stop();
+
+        // then
+        Assertions.assertThat(snapshotted).isTrue();
+        Assertions.assertThat(directory.resolve("coupon-result.snapshot")).exists();
+        Assertions.assertThat(directory.resolve("coupon-result.journal.1")).doesNotExist();
+        Assertions.assertThat(Files.size(directory.resolve("coupon-result.snapshot")))
+                .isLessThan(journalBytesBeforeSnapshot / 10);
+        JournalingCouponResultMessageRepository restarted = startRepository();
+        Assertions.assertThat(restarted.getRestoredCount()).isEqualTo(2);
+        Assertions.assertThat(restarted.existsByRequestId("requestId99")).isTrue();
+        Assertions.assertThat(restarted.existsByRequestId("requestId100")).isTrue();
+        Assertions.assertThat(restarted.existsByRequestId("requestId0")).isFalse();
+    }
+
+    @Test
+    @DisplayName("마지막 스냅숏 이후 기록된 저널이 최소 크기보다 작으면 스냅숏을 만들지 않는다.")
+    void snapshotSkippedTest() {
+        // given
+        Mockito.when(journalProperties.getSnapshotMinJournalSize())
+                .thenReturn(DataSize.ofMegabytes(1));
+        JournalingCouponResultMessageRepository repository = startRepository();
+        repository.save(createMessage("requestId", LocalDateTime.now(clock)));
+
+        // when
+        boolean snapshotted = repository.snapshot();
+
+        // then
+        Assertions.assertThat(snapshotted).isFalse();
+        Assertions.assertThat(directory.resolve("coupon-result.snapshot")).doesNotExist();
+    }
+
+    private JournalingCouponResultMessageRepository startRepository() {
+        CouponResultMessageRepository store = new MapCouponResultMessageRepository(
+                clock,
+                expiryProperties
+        );
+        JournalingCouponResultMessageRepository repository =
+                new JournalingCouponResultMessageRepository(
+                        store,
+                        journalProperties,
+                        expiryProperties,
+                        clock,
+                        new SimpleMeterRegistry()
+                );
+        repository.start();
+        return repository;
+    }
+
+    private static CouponResultMessage createMessage(
+            String requestId,
+            LocalDateTime issuedDateTime
+    ) {
+        return new CouponResultMessage(
+                requestId,
+                "/topic/" + requestId,
+                issuedDateTime,
+                ("{\"requestId\":\"" + requestId + "\"}").getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
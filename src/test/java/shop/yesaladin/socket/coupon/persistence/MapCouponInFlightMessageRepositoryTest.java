@@ -0,0 +1,96 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponInFlightMessage;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class MapCouponInFlightMessageRepositoryTest {
+
+    private Clock clock;
+    private MapCouponInFlightMessageRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(64);
+        repository = new MapCouponInFlightMessageRepository(clock, expiryProperties);
+    }
+
+    @Test
+    @DisplayName("재전송 시각이 지난 메시지만 재전송 함수에 전달하고 반환된 상태로 교체한다.")
+    void redeliverAllDueTest() {
+        // given
+        long nowMillis = clock.millis();
+        repository.save(createInFlight("due", nowMillis - 1000));
+        repository.save(createInFlight("later", nowMillis + 5000));
+        List<String> redelivered = new ArrayList<>();
+
+        // when
+        int actual = repository.redeliverAllDue(
+                LocalDateTime.now(clock),
+                Integer.MAX_VALUE,
+                message -> {
+                    redelivered.add(message.getMessage().getRequestId());
+                    return message.redelivered(nowMillis + 2000);
+                }
+        );
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(1);
+        Assertions.assertThat(redelivered).containsExactly("due");
+        Assertions.assertThat(repository.count()).isEqualTo(2);
+        Assertions.assertThat(repository.findAndDeleteByRequestId("due"))
+                .hasValueSatisfying(message -> Assertions.assertThat(message.getAttempts())
+                        .isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("재전송 함수가 null 을 반환하거나 ack 로 삭제된 메시지는 더 이상 재전송되지 않는다.")
+    void dropTest() {
+        // given
+        long nowMillis = clock.millis();
+        repository.save(createInFlight("dropped", nowMillis - 1000));
+        repository.save(createInFlight("acked", nowMillis - 1000));
+        repository.findAndDeleteByRequestId("acked");
+        List<String> redelivered = new ArrayList<>();
+
+        // when
+        repository.redeliverAllDue(LocalDateTime.now(clock), Integer.MAX_VALUE, message -> {
+            redelivered.add(message.getMessage().getRequestId());
+            return null;
+        });
+
+        // then
+        Assertions.assertThat(redelivered).containsExactly("dropped");
+        Assertions.assertThat(repository.count()).isZero();
+        Assertions.assertThat(repository.findAndDeleteByRequestId("acked")).isEmpty();
+    }
+
+    private CouponInFlightMessage createInFlight(String requestId, long redeliverAtMillis) {
+        return new CouponInFlightMessage(
+                new CouponResultMessage(
+                        requestId,
+                        "/topic/" + requestId,
+                        LocalDateTime.now(clock),
+                        new byte[]{'{', '}'}
+                ),
+                1,
+                clock.millis(),
+                redeliverAtMillis
+        );
+    }
+}
@@ -1,174 +1,148 @@
 package shop.yesaladin.socket.coupon.persistence;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import shop.yesaladin.coupon.code.CouponSocketRequestKind;
-import shop.yesaladin.coupon.message.CouponResultDto;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
 
 class MapCouponResultMessageRepositoryTest {
 
     private MapCouponResultMessageRepository repository;
-    private ConcurrentHashMap<String, CouponResultDto> store;
+    private Clock clock;
 
     @BeforeEach
-    void setUp() throws NoSuchFieldException, IllegalAccessException {
-        repository = new MapCouponResultMessageRepository();
-        store = new ConcurrentHashMap<>();
-
-        Field resultMapField = MapCouponResultMessageRepository.class.getDeclaredField(
-                "couponResultMap");
-
-        Field modifierField = resultMapField.getClass().getDeclaredField("modifiers");
-        modifierField.setAccessible(true);
-        modifierField.setInt(resultMapField, resultMapField.getModifiers() & ~Modifier.FINAL);
-
-        resultMapField.setAccessible(true);
-        resultMapField.set(repository, store);
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(4096);
+        repository = new MapCouponResultMessageRepository(clock, expiryProperties);
     }
 
     @Test
     @DisplayName("쿠폰 처리 결과 메시지가 저장된다.")
     void saveTest() {
         // given
-        CouponResultDto expected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId",
-                true,
-                null,
-                LocalDateTime.now()
-        );
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now());
 
         // when
         repository.save(expected);
 
         // then
-        CouponResultDto actual = store.get("requestId");
-        Assertions.assertThat(actual).isEqualTo(expected);
+        CouponResultMessage actual = repository.getByRequestId("requestId");
+        Assertions.assertThat(actual).isSameAs(expected);
     }
 
     @Test
     @DisplayName("request id로 존재 여부를 반환한다.")
     void existsByRequestIdTest() {
         // given
-        CouponResultDto expected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId",
-                true,
-                null,
-                LocalDateTime.now()
-        );
-        CouponResultDto unexpected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId1",
-                true,
-                null,
-                LocalDateTime.now()
-        );
-        store.put("requestId", expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now());
+        CouponResultMessage unexpected = createMessage("requestId1", LocalDateTime.now());
+        repository.save(expected);
+        repository.save(unexpected);
 
         // when
         boolean actual = repository.existsByRequestId("requestId");
 
         // then
         Assertions.assertThat(actual).isTrue();
+        Assertions.assertThat(repository.existsByRequestId("requestId2")).isFalse();
     }
 
     @Test
     @DisplayName("request id로 결과 메시지를 찾아온다.")
     void getByRequestIdTest() {
         // given
-        CouponResultDto expected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId",
-                true,
-                null,
-                LocalDateTime.now()
-        );
-        CouponResultDto unexpected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId1",
-                true,
-                null,
-                LocalDateTime.now()
-        );
-        store.put("requestId", expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now());
+        CouponResultMessage unexpected = createMessage("requestId1", LocalDateTime.now());
+        repository.save(expected);
+        repository.save(unexpected);
 
         // when
-        CouponResultDto actual = repository.getByRequestId("requestId");
+        CouponResultMessage actual = repository.getByRequestId("requestId");
 
         // then
-        Assertions.assertThat(actual).isEqualTo(expected);
+        Assertions.assertThat(actual).isSameAs(expected);
     }
 
     @Test
     @DisplayName("request id로 메시지를 삭제한다.")
     void deleteByRequestIdTest() {
         // given
-        CouponResultDto expected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId",
-                true,
-                null,
-                LocalDateTime.now()
-        );
-        CouponResultDto unexpected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
-                "requestId1",
-                true,
-                null,
-                LocalDateTime.now()
-        );
-        store.put("requestId", expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now());
+        CouponResultMessage unexpected = createMessage("requestId1", LocalDateTime.now());
+        repository.save(expected);
+        repository.save(unexpected);
 
         // when
         repository.deleteByRequestId("requestId");
 
         // then
-        Assertions.assertThat(store).doesNotContainValue(expected);
-        Assertions.assertThat(store).containsValue(unexpected);
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(repository.getByRequestId("requestId1")).isSameAs(unexpected);
     }
 
     @Test
-    @DisplayName("발행된지 30분이 지난 메시지를 가져온다.")
-    void findAllOver30MinFromIssuedTest() {
+    @DisplayName("발행된지 30분이 지난 메시지를 삭제한다.")
+    void deleteAllExpiredTest() {
         // given
-        Clock clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
-        CouponResultDto expected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
+        CouponResultMessage expected = createMessage(
                 "requestId",
-                true,
-                null,
                 LocalDateTime.now(clock).minusMinutes(31)
         );
-        CouponResultDto unexpected = new CouponResultDto(
-                CouponSocketRequestKind.USE,
+        CouponResultMessage unexpected = createMessage(
                 "requestId1",
-                true,
-                null,
                 LocalDateTime.now(clock).minusMinutes(29)
         );
-        store.put("requestId", expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        repository.save(expected);
+        repository.save(unexpected);
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(1);
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("삭제된 메시지는 만료 처리 대상에서 제외된다.")
+    void deleteAllExpiredAfterDeleteTest() {
+        // given
+        CouponResultMessage result = createMessage(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(31)
+        );
+        repository.save(result);
+        repository.deleteByRequestId("requestId");
 
         // when
-        List<CouponResultDto> actual = repository.findAllOver30MinFromIssued(LocalDateTime.now(clock));
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
 
         // then
-        Assertions.assertThat(actual).hasSize(1);
-        Assertions.assertThat(actual).contains(expected);
-        Assertions.assertThat(actual).doesNotContain(unexpected);
+        Assertions.assertThat(actual).isZero();
+    }
+
+    private static CouponResultMessage createMessage(
+            String requestId,
+            LocalDateTime issuedDateTime
+    ) {
+        return new CouponResultMessage(
+                requestId,
+                "/topic/" + requestId,
+                issuedDateTime,
+                new byte[]{'{', '}'}
+        );
     }
-}
\ No newline at end of file
+}
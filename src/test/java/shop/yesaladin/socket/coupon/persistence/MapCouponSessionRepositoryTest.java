@@ -0,0 +1,125 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.util.List;
+import java.util.Optional;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MapCouponSessionRepositoryTest {
+
+    private MapCouponSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MapCouponSessionRepository();
+        repository.openSession("session");
+    }
+
+    @Test
+    @DisplayName("세션이 종료되면 그 세션에서 구독한 request id 를 모두 반환한다.")
+    void unbindSessionTest() {
+        // given
+        repository.openSession("other");
+        repository.bindSubscription("session", "sub-0", "requestId1");
+        repository.bindSubscription("session", "sub-1", "requestId2");
+        repository.bindSubscription("other", "sub-0", "requestId3");
+
+        // when
+        List<String> actual = repository.unbindSession("session");
+
+        // then
+        Assertions.assertThat(actual).containsExactlyInAnyOrder("requestId1", "requestId2");
+        Assertions.assertThat(repository.unbindSession("session")).isEmpty();
+        Assertions.assertThat(repository.countSessions()).isEqualTo(1);
+        Assertions.assertThat(repository.isSubscribed("requestId1")).isFalse();
+        Assertions.assertThat(repository.isSubscribed("requestId3")).isTrue();
+    }
+
+    @Test
+    @DisplayName("다른 세션에서 다시 구독한 request id 는 이전 세션이 종료되어도 반환하지 않는다.")
+    void unbindSessionAfterResubscribeTest() {
+        // given
+        repository.openSession("old");
+        repository.openSession("new");
+        repository.bindSubscription("old", "sub-0", "requestId");
+        repository.bindSubscription("new", "sub-0", "requestId");
+
+        // when
+        List<String> actual = repository.unbindSession("old");
+
+        // then
+        Assertions.assertThat(actual).isEmpty();
+        Assertions.assertThat(repository.isSubscribed("requestId")).isTrue();
+        Assertions.assertThat(repository.unbindSession("new")).containsExactly("requestId");
+    }
+
+    @Test
+    @DisplayName("구독이 해제되면 구독한 request id 를 반환한다.")
+    void unbindSubscriptionTest() {
+        // given
+        repository.bindSubscription("session", "sub-0", "requestId");
+
+        // when
+        Optional<String> actual = repository.unbindSubscription("session", "sub-0");
+
+        // then
+        Assertions.assertThat(actual).contains("requestId");
+        Assertions.assertThat(repository.isSubscribed("requestId")).isFalse();
+        Assertions.assertThat(repository.unbindSession("session")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("기록되지 않은 구독이 해제되면 아무것도 반환하지 않는다.")
+    void unbindUnknownSubscriptionTest() {
+        // given
+        repository.bindSubscription("session", "sub-0", "requestId");
+
+        // when
+        Optional<String> actual = repository.unbindSubscription("session", "sub-1");
+
+        // then
+        Assertions.assertThat(actual).isEmpty();
+        Assertions.assertThat(repository.unbindSubscription("unknown", "sub-0")).isEmpty();
+        Assertions.assertThat(repository.isSubscribed("requestId")).isTrue();
+    }
+
+    @Test
+    @DisplayName("등록되지 않았거나 종료된 세션의 구독은 기록하지 않는다.")
+    void bindSubscriptionAfterUnbindSessionTest() {
+        // given
+        repository.bindSubscription("session", "sub-0", "requestId1");
+        repository.unbindSession("session");
+
+        // when
+        boolean late = repository.bindSubscription("session", "sub-1", "requestId2");
+        boolean unknown = repository.bindSubscription("unknown", "sub-0", "requestId3");
+
+        // then
+        Assertions.assertThat(late).isFalse();
+        Assertions.assertThat(unknown).isFalse();
+        Assertions.assertThat(repository.countSessions()).isZero();
+        Assertions.assertThat(repository.isSubscribed("requestId2")).isFalse();
+        Assertions.assertThat(repository.isSubscribed("requestId3")).isFalse();
+    }
+
+    @Test
+    @DisplayName("같은 세션에서 같은 request id 를 두 번 구독하면 마지막 구독이 해제될 때만 반환한다.")
+    void unbindDuplicateSubscriptionTest() {
+        // given
+        repository.bindSubscription("session", "sub-0", "requestId");
+        repository.bindSubscription("session", "sub-1", "requestId");
+
+        // when
+        Optional<String> first = repository.unbindSubscription("session", "sub-0");
+        boolean subscribedAfterFirst = repository.isSubscribed("requestId");
+        Optional<String> second = repository.unbindSubscription("session", "sub-1");
+
+        // then
+        Assertions.assertThat(first).isEmpty();
+        Assertions.assertThat(subscribedAfterFirst).isTrue();
+        Assertions.assertThat(second).contains("requestId");
+        Assertions.assertThat(repository.isSubscribed("requestId")).isFalse();
+    }
+}
@@ -1,39 +1,31 @@
 package shop.yesaladin.socket.coupon.persistence;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import org.assertj.core.api.Assertions;
-import org.assertj.core.data.MapEntry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
 import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
 
 class MapCouponSocketConnectionRepositoryTest {
 
     private MapCouponSocketConnectionRepository repository;
-    private ConcurrentHashMap<String, CouponSocketConnection> store;
+    private Clock clock;
 
     @BeforeEach
-    void setUp() throws NoSuchFieldException, IllegalAccessException {
-        repository = new MapCouponSocketConnectionRepository();
-        store = new ConcurrentHashMap<>();
-
-        Field connectionMapField = MapCouponSocketConnectionRepository.class.getDeclaredField(
-                "connectionMap");
-
-        Field modifiers = connectionMapField.getClass().getDeclaredField("modifiers");
-        modifiers.setAccessible(true);
-        modifiers.setInt(connectionMapField, connectionMapField.getModifiers() & ~Modifier.FINAL);
-
-        connectionMapField.setAccessible(true);
-        connectionMapField.set(null, store);
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(4096);
+        repository = new MapCouponSocketConnectionRepository(clock, expiryProperties);
     }
 
     @Test
@@ -49,7 +41,7 @@ class MapCouponSocketConnectionRepositoryTest {
         repository.save(expected);
 
         // then
-        Assertions.assertThat(store).contains(MapEntry.entry("requestId", expected));
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isTrue();
     }
 
     @Test
@@ -64,14 +56,15 @@ class MapCouponSocketConnectionRepositoryTest {
                 "requestId1",
                 LocalDateTime.now()
         );
-        store.put(expected.getRequestId(), expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        repository.save(expected);
+        repository.save(unexpected);
 
         // when
         boolean actual = repository.existsByRequestId(expected.getRequestId());
 
         // then
         Assertions.assertThat(actual).isTrue();
+        Assertions.assertThat(repository.existsByRequestId("requestId2")).isFalse();
     }
 
     @Test
@@ -86,22 +79,21 @@ class MapCouponSocketConnectionRepositoryTest {
                 "requestId1",
                 LocalDateTime.now()
         );
-        store.put(expected.getRequestId(), expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        repository.save(expected);
+        repository.save(unexpected);
 
         // when
         repository.deleteByRequestId("requestId");
 
         // then
-        Assertions.assertThat(store).doesNotContainValue(expected);
-        Assertions.assertThat(store).containsValue(unexpected);
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isTrue();
     }
 
     @Test
-    @DisplayName("발행된지 30분이 지난 연결 정보를 가져온다.")
-    void findAllOver30MinFromIssuedTest() {
+    @DisplayName("연결된지 30분이 지난 연결 정보를 삭제한다.")
+    void deleteAllExpiredTest() {
         // given
-        Clock clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
         CouponSocketConnection expected = new CouponSocketConnection(
                 "requestId",
                 LocalDateTime.now(clock).minusMinutes(31)
@@ -110,16 +102,56 @@ class MapCouponSocketConnectionRepositoryTest {
                 "requestId1",
                 LocalDateTime.now(clock).minusMinutes(29)
         );
-        store.put("requestId", expected);
-        store.put(unexpected.getRequestId(), unexpected);
+        repository.save(expected);
+        repository.save(unexpected);
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(1);
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("같은 request id로 다시 연결되면 이전 연결 시각으로는 만료되지 않는다.")
+    void deleteAllExpiredAfterReconnectTest() {
+        // given
+        CouponSocketConnection previous = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(31)
+        );
+        CouponSocketConnection reconnected = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(1)
+        );
+        repository.save(previous);
+        repository.save(reconnected);
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isZero();
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isTrue();
+    }
+
+    @Test
+    @DisplayName("삭제된 연결 정보는 만료 처리 대상에서 제외된다.")
+    void deleteAllExpiredAfterDeleteTest() {
+        // given
+        CouponSocketConnection connection = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(31)
+        );
+        repository.save(connection);
+        repository.deleteByRequestId("requestId");
 
         // when
-        List<CouponSocketConnection> actual = repository.findAllOver30MinFromConnected(LocalDateTime.now(
-                clock));
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
 
         // then
-        Assertions.assertThat(actual).hasSize(1);
-        Assertions.assertThat(actual).contains(expected);
-        Assertions.assertThat(actual).doesNotContain(unexpected);
+        Assertions.assertThat(actual).isZero();
     }
-}
\ No newline at end of file
+}
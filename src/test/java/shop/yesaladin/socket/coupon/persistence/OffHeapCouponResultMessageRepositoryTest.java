@@ -0,0 +1,269 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.util.unit.DataSize;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponResultStoreProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class OffHeapCouponResultMessageRepositoryTest {
+
+    private Clock clock;
+    private CouponExpiryProperties expiryProperties;
+    private CouponResultStoreProperties storeProperties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        storeProperties = Mockito.mock(CouponResultStoreProperties.class);
+        Mockito.when(storeProperties.getOffHeapSegments()).thenReturn(4);
+        Mockito.when(storeProperties.getOffHeapInitialSegmentSize())
+                .thenReturn(DataSize.ofBytes(64));
+        Mockito.when(storeProperties.getOffHeapInitialSegmentCapacity()).thenReturn(2);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("저장한 메시지를 조회하면 모든 필드가 복원된다.")
+    void saveAndGetTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        CouponResultMessage expected = createMessage("requestId", LocalDateTime.now(clock));
+
+        // when
+        repository.save(expected);
+        CouponResultMessage actual = repository.getByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isTrue();
+        Assertions.assertThat(actual.getRequestId()).isEqualTo("requestId");
+        Assertions.assertThat(actual.getDestination()).isEqualTo(expected.getDestination());
+        Assertions.assertThat(actual.getIssuedDateTime()).isEqualTo(expected.getIssuedDateTime());
+        Assertions.assertThat(actual.getPayload()).isEqualTo(expected.getPayload());
+        Assertions.assertThat(repository.getByRequestId("unknown")).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 request id로 다시 저장하면 마지막 메시지로 덮어쓴다.")
+    void overwriteTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        repository.save(createMessage("requestId", LocalDateTime.now(clock).minusMinutes(1)));
+
+        // when
+        repository.save(createMessage("requestId", LocalDateTime.now(clock)));
+
+        // then
+        Assertions.assertThat(repository.getByRequestId("requestId").getIssuedDateTime())
+                .isEqualTo(LocalDateTime.now(clock));
+        Assertions.assertThat(meterRegistry.get("coupon.result.store.size").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("메시지를 꺼내면서 삭제하거나 request id로 삭제한다.")
+    void findAndDeleteTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        repository.save(createMessage("requestId1", LocalDateTime.now(clock)));
+        repository.save(createMessage("requestId2", LocalDateTime.now(clock)));
+
+        // when
+        boolean found = repository.findAndDeleteByRequestId("requestId1").isPresent();
+        boolean foundAgain = repository.findAndDeleteByRequestId("requestId1").isPresent();
+        repository.deleteByRequestId("requestId2");
+
+        // then
+        Assertions.assertThat(found).isTrue();
+        Assertions.assertThat(foundAgain).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("해시가 같은 request id도 구분하여 저장한다.")
+    void hashCollisionTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        repository.save(createMessage("Aa", LocalDateTime.now(clock)));
+        repository.save(createMessage("BB", LocalDateTime.now(clock)));
+
+        // when
+        repository.deleteByRequestId("Aa");
+
+        // then
+        Assertions.assertThat(repository.existsByRequestId("Aa")).isFalse();
+        Assertions.assertThat(repository.getByRequestId("BB").getDestination())
+                .isEqualTo("/topic/BB");
+    }
+
+    @Test
+    @DisplayName("버퍼와 인덱스가 가득 차면 삭제된 공간을 정리하며 늘린다.")
+    void growTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+            if (i % 2 == 0) {
+                repository.deleteByRequestId("requestId" + i);
+            }
+        }
+
+        // then
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertThat(repository.existsByRequestId("requestId" + i))
+                    .isEqualTo(i % 2 == 1);
+        }
+        Assertions.assertThat(repository.getByRequestId("requestId999").getDestination())
+                .isEqualTo("/topic/requestId999");
+        Assertions.assertThat(meterRegistry.get("coupon.result.store.size").gauge().value())
+                .isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("만료된 메시지를 한도만큼 제거하고 다음 호출에서 이어서 제거한다.")
+    void deleteAllExpiredTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        LocalDateTime expiredDateTime = LocalDateTime.now(clock).minusMinutes(31);
+        for (int i = 0; i < 10; i++) {
+            repository.save(createMessage("expired" + i, expiredDateTime));
+        }
+        repository.save(createMessage("alive", LocalDateTime.now(clock).minusMinutes(29)));
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        // when
+        int backlog = repository.countExpiredBacklog(now);
+        int first = repository.deleteAllExpired(now, 4);
+        int second = repository.deleteAllExpired(now, Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(backlog).isEqualTo(10);
+        Assertions.assertThat(first).isEqualTo(4);
+        Assertions.assertThat(second).isEqualTo(6);
+        Assertions.assertThat(repository.countExpiredBacklog(now)).isZero();
+        Assertions.assertThat(repository.existsByRequestId("alive")).isTrue();
+    }
+
+    @Test
+    @DisplayName("확인한 슬롯 수가 한도에 도달해 한도보다 적게 제거해도 남은 만료 메시지는 만료 대기 수에 남는다.")
+    void deleteAllExpiredVisitLimitTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (int i = 0; i < 200; i++) {
+            repository.save(createMessage("alive" + i, now.minusMinutes(29)));
+        }
+        repository.save(createMessage("expired", now.minusMinutes(31)));
+
+        // when
+        int first = repository.deleteAllExpired(now, 1);
+        int backlog = repository.countExpiredBacklog(now);
+        int calls = 1;
+        while (repository.existsByRequestId("expired") && calls < 1024) {
+            repository.deleteAllExpired(now, 1);
+            calls++;
+        }
+
+        // then
+        Assertions.assertThat(first).isZero();
+        Assertions.assertThat(backlog).isEqualTo(1);
+        Assertions.assertThat(calls).isGreaterThan(1);
+        Assertions.assertThat(repository.countExpiredBacklog(now)).isZero();
+        Assertions.assertThat(repository.count()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("살아 있는 메시지 크기가 그대로면 버퍼를 새로 할당하지 않고 삭제된 공간을 회수한다.")
+    void compactInPlaceTest() {
+        // given
+        Mockito.when(storeProperties.getOffHeapSegments()).thenReturn(1);
+        Mockito.when(storeProperties.getOffHeapInitialSegmentSize())
+                .thenReturn(DataSize.ofKilobytes(1));
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        for (int i = 0; i < 4; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+        }
+        double allocatedBytes = meterRegistry.get("coupon.result.store.off-heap.bytes")
+                .gauge()
+                .value();
+
+        // when
+        for (int i = 4; i < 1000; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+            repository.deleteByRequestId("requestId" + (i - 4));
+        }
+
+        // then
+        Assertions.assertThat(meterRegistry.get("coupon.result.store.off-heap.bytes")
+                .gauge()
+                .value()).isEqualTo(allocatedBytes);
+        for (int i = 996; i < 1000; i++) {
+            CouponResultMessage actual = repository.getByRequestId("requestId" + i);
+            Assertions.assertThat(actual.getDestination()).isEqualTo("/topic/requestId" + i);
+            Assertions.assertThat(new String(actual.getPayload(), StandardCharsets.UTF_8))
+                    .isEqualTo("{\"requestId\":\"requestId" + i + "\"}");
+        }
+        Assertions.assertThat(repository.count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("만료 대기 수는 시간이 지나 만료된 메시지를 포함하고 삭제된 메시지는 제외한다.")
+    void countExpiredBacklogTest() {
+        // given
+        OffHeapCouponResultMessageRepository repository = createRepository();
+        LocalDateTime now = LocalDateTime.now(clock);
+        repository.save(createMessage("requestId1", now.minusMinutes(29)));
+        repository.save(createMessage("requestId2", now.minusMinutes(29)));
+        repository.save(createMessage("requestId3", now));
+
+        // when
+        int beforeExpiry = repository.countExpiredBacklog(now);
+        int afterExpiry = repository.countExpiredBacklog(now.plusMinutes(2));
+        repository.deleteByRequestId("requestId1");
+        int afterDelete = repository.countExpiredBacklog(now.plusMinutes(2));
+
+        // then
+        Assertions.assertThat(beforeExpiry).isZero();
+        Assertions.assertThat(afterExpiry).isEqualTo(2);
+        Assertions.assertThat(afterDelete).isEqualTo(1);
+    }
+
+    private OffHeapCouponResultMessageRepository createRepository() {
+        return new OffHeapCouponResultMessageRepository(
+                clock,
+                expiryProperties,
+                storeProperties,
+                meterRegistry
+        );
+    }
+
+    private static CouponResultMessage createMessage(
+            String requestId,
+            LocalDateTime issuedDateTime
+    ) {
+        return new CouponResultMessage(
+                requestId,
+                "/topic/" + requestId,
+                issuedDateTime,
+                ("{\"requestId\":\"" + requestId + "\"}").getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
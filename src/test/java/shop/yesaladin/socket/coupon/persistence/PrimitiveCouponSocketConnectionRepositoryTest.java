@@ -0,0 +1,287 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.common.key.RequestIdKey;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponShardingProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+
+class PrimitiveCouponSocketConnectionRepositoryTest {
+
+    private PrimitiveCouponSocketConnectionRepository repository;
+    private Clock clock;
+    private CouponExpiryProperties expiryProperties;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        repository = new PrimitiveCouponSocketConnectionRepository(
+                clock,
+                expiryProperties,
+                shardingProperties(4)
+        );
+    }
+
+    @Test
+    @DisplayName("쿠폰 소켓 연결 정보를 저장한다.")
+    void saveTest() {
+        // given
+        CouponSocketConnection expected = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now()
+        );
+
+        // when
+        repository.save(expected);
+
+        // then
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isTrue();
+    }
+
+    @Test
+    @DisplayName("쿠폰 소켓 연결 정보 존재 여부를 확인한다.")
+    void existsByRequestIdTest() {
+        // given
+        CouponSocketConnection expected = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now()
+        );
+        CouponSocketConnection unexpected = new CouponSocketConnection(
+                "requestId1",
+                LocalDateTime.now()
+        );
+        repository.save(expected);
+        repository.save(unexpected);
+
+        // when
+        boolean actual = repository.existsByRequestId(expected.getRequestId());
+
+        // then
+        Assertions.assertThat(actual).isTrue();
+        Assertions.assertThat(repository.existsByRequestId("requestId2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("request id로 쿠폰 소켓 연결 정보를 삭제한다.")
+    void deleteByRequestIdTest() {
+        // given
+        CouponSocketConnection expected = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now()
+        );
+        CouponSocketConnection unexpected = new CouponSocketConnection(
+                "requestId1",
+                LocalDateTime.now()
+        );
+        repository.save(expected);
+        repository.save(unexpected);
+
+        // when
+        repository.deleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("연결된지 30분이 지난 연결 정보를 삭제한다.")
+    void deleteAllExpiredTest() {
+        // given
+        CouponSocketConnection expected = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(31)
+        );
+        CouponSocketConnection unexpected = new CouponSocketConnection(
+                "requestId1",
+                LocalDateTime.now(clock).minusMinutes(29)
+        );
+        repository.save(expected);
+        repository.save(unexpected);
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(1);
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("같은 request id로 다시 연결되면 이전 연결 시각으로는 만료되지 않는다.")
+    void deleteAllExpiredAfterReconnectTest() {
+        // given
+        CouponSocketConnection previous = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(31)
+        );
+        CouponSocketConnection reconnected = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(1)
+        );
+        repository.save(previous);
+        repository.save(reconnected);
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isZero();
+        Assertions.assertThat(repository.existsByRequestId("requestId")).isTrue();
+    }
+
+    @Test
+    @DisplayName("삭제된 연결 정보는 만료 처리 대상에서 제외된다.")
+    void deleteAllExpiredAfterDeleteTest() {
+        // given
+        CouponSocketConnection connection = new CouponSocketConnection(
+                "requestId",
+                LocalDateTime.now(clock).minusMinutes(31)
+        );
+        repository.save(connection);
+        repository.deleteByRequestId("requestId");
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isZero();
+    }
+
+    @Test
+    @DisplayName("UUID request id는 대소문자를 구분하여 저장한다.")
+    void uuidRequestIdTest() {
+        // given
+        String requestId = UUID.randomUUID().toString();
+        repository.save(new CouponSocketConnection(requestId, LocalDateTime.now(clock)));
+
+        // when
+        boolean exists = repository.existsByRequestId(requestId);
+        boolean existsUpperCase = repository.existsByRequestId(requestId.toUpperCase());
+
+        // then
+        Assertions.assertThat(exists).isTrue();
+        Assertions.assertThat(existsUpperCase).isFalse();
+    }
+
+    @Test
+    @DisplayName("연결 정보가 많아지면 테이블을 늘려도 모든 연결 정보를 찾을 수 있다.")
+    void growTest() {
+        // given
+        String[] requestIds = new String[5000];
+        for (int i = 0; i < requestIds.length; i++) {
+            requestIds[i] = i % 2 == 0 ? UUID.randomUUID().toString() : "requestId" + i;
+        }
+
+        // when
+        for (String requestId : requestIds) {
+            repository.save(new CouponSocketConnection(requestId, LocalDateTime.now(clock)));
+        }
+        for (int i = 0; i < requestIds.length; i += 3) {
+            repository.deleteByRequestId(requestIds[i]);
+        }
+
+        // then
+        for (int i = 0; i < requestIds.length; i++) {
+            Assertions.assertThat(repository.existsByRequestId(requestIds[i]))
+                    .isEqualTo(i % 3 != 0);
+        }
+    }
+
+    @Test
+    @DisplayName("한도만큼 만료 처리하고 남은 연결 정보는 다음 호출에서 이어서 만료 처리한다.")
+    void deleteAllExpiredWithLimitTest() {
+        // given
+        LocalDateTime connectedDateTime = LocalDateTime.now(clock).minusMinutes(31);
+        for (int i = 0; i < 1000; i++) {
+            repository.save(new CouponSocketConnection("requestId" + i, connectedDateTime));
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        // when
+        int backlog = repository.countExpiredBacklog(now);
+        int first = repository.deleteAllExpired(now, 400);
+        int second = repository.deleteAllExpired(now, Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(backlog).isEqualTo(1000);
+        Assertions.assertThat(first).isEqualTo(400);
+        Assertions.assertThat(second).isEqualTo(600);
+        Assertions.assertThat(repository.countExpiredBacklog(now)).isZero();
+    }
+
+    @Test
+    @DisplayName("만료 대기 수는 시간이 지나 만료된 연결 정보를 포함하고 삭제된 연결 정보는 제외한다.")
+    void countExpiredBacklogTest() {
+        // given
+        LocalDateTime now = LocalDateTime.now(clock);
+        repository.save(new CouponSocketConnection("requestId", now.minusMinutes(29)));
+        repository.save(new CouponSocketConnection("requestId1", now.minusMinutes(29)));
+        repository.save(new CouponSocketConnection("requestId2", now));
+
+        // when
+        int beforeExpiry = repository.countExpiredBacklog(now);
+        int afterExpiry = repository.countExpiredBacklog(now.plusMinutes(2));
+        repository.deleteByRequestId("requestId");
+        int afterDelete = repository.countExpiredBacklog(now.plusMinutes(2));
+
+        // then
+        Assertions.assertThat(beforeExpiry).isZero();
+        Assertions.assertThat(afterExpiry).isEqualTo(2);
+        Assertions.assertThat(afterDelete).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("한 번의 만료 처리에서는 한도의 8배까지의 슬롯만 확인한다.")
+    void deleteAllExpiredVisitLimitTest() {
+        // given
+        repository = new PrimitiveCouponSocketConnectionRepository(
+                clock,
+                expiryProperties,
+                shardingProperties(1)
+        );
+        String requestId = "requestId";
+        for (int i = 0; (RequestIdKey.of(requestId).hashCode() & 1023) < 512; i++) {
+            requestId = "requestId" + i;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        repository.save(new CouponSocketConnection(requestId, now.minusMinutes(31)));
+
+        // when
+        int first = repository.deleteAllExpired(now, 1);
+        int backlog = repository.countExpiredBacklog(now);
+        int calls = 1;
+        while (repository.existsByRequestId(requestId) && calls < 1024) {
+            repository.deleteAllExpired(now, 1);
+            calls++;
+        }
+
+        // then
+        Assertions.assertThat(first).isZero();
+        Assertions.assertThat(backlog).isEqualTo(1);
+        Assertions.assertThat(calls).isGreaterThan(64).isLessThanOrEqualTo(128);
+        Assertions.assertThat(repository.count()).isZero();
+    }
+
+    private static CouponShardingProperties shardingProperties(int shardCount) {
+        CouponShardingProperties shardingProperties = Mockito.mock(
+                CouponShardingProperties.class
+        );
+        Mockito.when(shardingProperties.resolveShardCount()).thenReturn(shardCount);
+        return shardingProperties;
+    }
+}
@@ -0,0 +1,257 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class RedisCouponResultMessageRepositoryTest {
+
+    private static final String PAYLOAD = "{\"requestId\":\"requestId\",\"message\":\"줄\\n바꿈\"}";
+    private static final Instant NOW = Instant.ofEpochSecond(100000000);
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    private RedisCouponResultMessageRepository repository;
+    private ValueOperations<String, String> valueOperations;
+    private StringRedisTemplate redisTemplate;
+    private Clock clock;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        clock = Clock.fixed(NOW, ZONE);
+        redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        repository = new RedisCouponResultMessageRepository(
+                redisTemplate,
+                clock,
+                createExpiryProperties()
+        );
+    }
+
+    @Test
+    @DisplayName("발행 시각부터 남은 만료 기간을 TTL로 설정하여 메시지를 저장한다.")
+    void saveTest() {
+        // given
+        CouponResultMessage message = createMessage(LocalDateTime.now(clock).minusMinutes(10));
+
+        // when
+        repository.save(message);
+
+        // then
+        Mockito.verify(valueOperations)
+                .set(
+                        Mockito.eq("coupon:result:requestId"),
+                        Mockito.anyString(),
+                        Mockito.eq(Duration.ofMinutes(20))
+                );
+    }
+
+    @Test
+    @DisplayName("이미 만료 기간이 지난 메시지는 최소 TTL로 저장한다.")
+    void saveExpiredTest() {
+        // given
+        CouponResultMessage message = createMessage(LocalDateTime.now(clock).minusMinutes(31));
+
+        // when
+        repository.save(message);
+
+        // then
+        Mockito.verify(valueOperations)
+                .set(
+                        Mockito.eq("coupon:result:requestId"),
+                        Mockito.anyString(),
+                        Mockito.eq(Duration.ofMillis(1))
+                );
+    }
+
+    @Test
+    @DisplayName("저장한 메시지를 request id로 원자적으로 조회하고 삭제한다.")
+    void findAndDeleteByRequestIdTest() {
+        // given
+        CouponResultMessage expected = createMessage(LocalDateTime.now(clock));
+        ArgumentCaptor<String> valueCaptor = ArgumentCaptor.forClass(String.class);
+        repository.save(expected);
+        Mockito.verify(valueOperations)
+                .set(Mockito.anyString(), valueCaptor.capture(), Mockito.any(Duration.class));
+        Mockito.when(valueOperations.getAndDelete("coupon:result:requestId"))
+                .thenReturn(valueCaptor.getValue());
+
+        // when
+        Optional<CouponResultMessage> actual = repository.findAndDeleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(actual).isPresent();
+        Assertions.assertThat(actual.get().getRequestId()).isEqualTo("requestId");
+        Assertions.assertThat(actual.get().getDestination()).isEqualTo("/topic/requestId");
+        Assertions.assertThat(actual.get().getIssuedDateTime())
+                .isEqualTo(expected.getIssuedDateTime());
+        Assertions.assertThat(new String(actual.get().getPayload(), StandardCharsets.UTF_8))
+                .isEqualTo(PAYLOAD);
+        Assertions.assertThat(repository.findAndDeleteByRequestId("requestId1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("메시지 존재 여부를 확인하고 삭제한다.")
+    void existsAndDeleteByRequestIdTest() {
+        // given
+        Mockito.when(redisTemplate.hasKey("coupon:result:requestId")).thenReturn(true);
+
+        // when
+        boolean exists = repository.existsByRequestId("requestId");
+        repository.deleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(exists).isTrue();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isFalse();
+        Mockito.verify(redisTemplate).delete("coupon:result:requestId");
+    }
+
+    @Test
+    @DisplayName("Redis에 저장한 메시지는 발행 시각부터 만료 기간이 지나면 사라진다.")
+    void timeToLiveOnRedisTest() {
+        // given
+        FakeRedisConnectionFactory redis = new FakeRedisConnectionFactory(NOW, ZONE);
+        RedisCouponResultMessageRepository redisRepository = createRepository(redis);
+        redisRepository.save(createMessage(LocalDateTime.now(clock).minusMinutes(10)));
+
+        // when
+        redis.advance(Duration.ofMinutes(20).minusMillis(1));
+        boolean beforeDeadline = redisRepository.existsByRequestId("requestId");
+        redis.advance(Duration.ofMillis(1));
+
+        // then
+        Assertions.assertThat(beforeDeadline).isTrue();
+        Assertions.assertThat(redisRepository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(redisRepository.getByRequestId("requestId")).isNull();
+        Assertions.assertThat(redisRepository.findAndDeleteByRequestId("requestId")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("이미 만료 기간이 지난 메시지는 Redis에 저장한 직후 사라진다.")
+    void saveExpiredOnRedisTest() {
+        // given
+        FakeRedisConnectionFactory redis = new FakeRedisConnectionFactory(NOW, ZONE);
+        RedisCouponResultMessageRepository redisRepository = createRepository(redis);
+
+        // when
+        redisRepository.save(createMessage(LocalDateTime.now(clock).minusMinutes(31)));
+        boolean justSaved = redisRepository.existsByRequestId("requestId");
+        redis.advance(Duration.ofMillis(1));
+
+        // then
+        Assertions.assertThat(justSaved).isTrue();
+        Assertions.assertThat(redisRepository.existsByRequestId("requestId")).isFalse();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 같은 메시지를 동시에 꺼내도 한 스레드만 메시지를 받는다.")
+    void findAndDeleteConcurrentlyOnRedisTest() throws Exception {
+        // given
+        FakeRedisConnectionFactory redis = new FakeRedisConnectionFactory(NOW, ZONE);
+        RedisCouponResultMessageRepository redisRepository = createRepository(redis);
+        redisRepository.save(createMessage(LocalDateTime.now(clock)));
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<CouponResultMessage>>> futures = new ArrayList<>();
+
+        // when
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                Callable<Optional<CouponResultMessage>> task = () -> {
+                    start.await();
+                    return redisRepository.findAndDeleteByRequestId("requestId");
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            int found = 0;
+            for (Future<Optional<CouponResultMessage>> future : futures) {
+                found += future.get().isPresent() ? 1 : 0;
+            }
+
+            // then
+            Assertions.assertThat(found).isEqualTo(1);
+            Assertions.assertThat(redisRepository.existsByRequestId("requestId")).isFalse();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("줄바꿈과 한글이 들어 있는 본문도 Redis에 저장한 형식 그대로 되돌린다.")
+    void storedFormatRoundTripOnRedisTest() {
+        // given
+        FakeRedisConnectionFactory redis = new FakeRedisConnectionFactory(NOW, ZONE);
+        RedisCouponResultMessageRepository redisRepository = createRepository(redis);
+        String payload = "{\"message\":\"첫 줄\n둘째 줄\"}\n";
+        LocalDateTime issuedDateTime = LocalDateTime.now(clock).withNano(123_000_000);
+        redisRepository.save(new CouponResultMessage(
+                "requestId",
+                "/topic/requestId",
+                issuedDateTime,
+                payload.getBytes(StandardCharsets.UTF_8)
+        ));
+
+        // when
+        String stored = redis.createTemplate().opsForValue().get("coupon:result:requestId");
+        CouponResultMessage found = redisRepository.getByRequestId("requestId");
+        Optional<CouponResultMessage> taken = redisRepository.findAndDeleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(stored)
+                .isEqualTo(issuedDateTime + "\n/topic/requestId\n" + payload);
+        Assertions.assertThat(found.getDestination()).isEqualTo("/topic/requestId");
+        Assertions.assertThat(found.getIssuedDateTime()).isEqualTo(issuedDateTime);
+        Assertions.assertThat(new String(found.getPayload(), StandardCharsets.UTF_8))
+                .isEqualTo(payload);
+        Assertions.assertThat(taken).isPresent();
+        Assertions.assertThat(taken.get().getPayload()).isEqualTo(found.getPayload());
+        Assertions.assertThat(redisRepository.existsByRequestId("requestId")).isFalse();
+    }
+
+    private RedisCouponResultMessageRepository createRepository(FakeRedisConnectionFactory redis) {
+        return new RedisCouponResultMessageRepository(
+                redis.createTemplate(),
+                redis.clock(),
+                createExpiryProperties()
+        );
+    }
+
+    private CouponExpiryProperties createExpiryProperties() {
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        return expiryProperties;
+    }
+
+    private CouponResultMessage createMessage(LocalDateTime issuedDateTime) {
+        return new CouponResultMessage(
+                "requestId",
+                "/topic/requestId",
+                issuedDateTime,
+                PAYLOAD.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
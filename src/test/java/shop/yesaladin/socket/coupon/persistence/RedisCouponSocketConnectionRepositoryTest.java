@@ -0,0 +1,149 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+
+class RedisCouponSocketConnectionRepositoryTest {
+
+    private static final Instant NOW = Instant.ofEpochSecond(100000000);
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    private RedisCouponSocketConnectionRepository repository;
+    private ValueOperations<String, String> valueOperations;
+    private StringRedisTemplate redisTemplate;
+    private Clock clock;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        clock = Clock.fixed(NOW, ZONE);
+        redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        repository = new RedisCouponSocketConnectionRepository(
+                redisTemplate,
+                clock,
+                createExpiryProperties()
+        );
+    }
+
+    @Test
+    @DisplayName("연결 시각부터 남은 만료 기간을 TTL로 설정하여 연결 정보를 저장한다.")
+    void saveTest() {
+        // given
+        LocalDateTime connectedDateTime = LocalDateTime.now(clock).minusMinutes(5);
+        CouponSocketConnection connection = new CouponSocketConnection(
+                "requestId",
+                connectedDateTime
+        );
+
+        // when
+        repository.save(connection);
+
+        // then
+        Mockito.verify(valueOperations)
+                .set(
+                        "coupon:connection:requestId",
+                        connectedDateTime.toString(),
+                        Duration.ofMinutes(25)
+                );
+    }
+
+    @Test
+    @DisplayName("연결 정보 존재 여부를 확인하고 삭제한다.")
+    void existsAndDeleteByRequestIdTest() {
+        // given
+        Mockito.when(redisTemplate.hasKey("coupon:connection:requestId")).thenReturn(true);
+
+        // when
+        boolean exists = repository.existsByRequestId("requestId");
+        repository.deleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(exists).isTrue();
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isFalse();
+        Mockito.verify(redisTemplate).delete("coupon:connection:requestId");
+    }
+
+    @Test
+    @DisplayName("만료는 Redis TTL에 맡기므로 직접 삭제하는 연결 정보가 없다.")
+    void deleteAllExpiredTest() {
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isZero();
+        Assertions.assertThat(repository.countExpiredBacklog(LocalDateTime.now(clock))).isZero();
+        Mockito.verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Redis에 저장한 연결 정보는 연결 시각부터 만료 기간이 지나면 사라진다.")
+    void timeToLiveOnRedisTest() {
+        // given
+        FakeRedisConnectionFactory redis = new FakeRedisConnectionFactory(NOW, ZONE);
+        RedisCouponSocketConnectionRepository redisRepository = createRepository(redis);
+        LocalDateTime connectedDateTime = LocalDateTime.now(clock).minusMinutes(5);
+        redisRepository.save(new CouponSocketConnection("requestId", connectedDateTime));
+
+        // when
+        String stored = redis.createTemplate().opsForValue().get("coupon:connection:requestId");
+        redis.advance(Duration.ofMinutes(25).minusMillis(1));
+        boolean beforeDeadline = redisRepository.existsByRequestId("requestId");
+        redis.advance(Duration.ofMillis(1));
+
+        // then
+        Assertions.assertThat(stored).isEqualTo(connectedDateTime.toString());
+        Assertions.assertThat(beforeDeadline).isTrue();
+        Assertions.assertThat(redisRepository.existsByRequestId("requestId")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Redis에 다시 저장한 연결 정보는 새 연결 시각부터 만료 기간을 센다.")
+    void saveAgainOnRedisTest() {
+        // given
+        FakeRedisConnectionFactory redis = new FakeRedisConnectionFactory(NOW, ZONE);
+        RedisCouponSocketConnectionRepository redisRepository = createRepository(redis);
+        Clock redisClock = redis.clock();
+        redisRepository.save(new CouponSocketConnection("requestId", LocalDateTime.now(redisClock)));
+        redis.advance(Duration.ofMinutes(20));
+
+        // when
+        redisRepository.save(new CouponSocketConnection("requestId", LocalDateTime.now(redisClock)));
+        redis.advance(Duration.ofMinutes(20));
+        boolean afterFirstDeadline = redisRepository.existsByRequestId("requestId");
+        redisRepository.deleteByRequestId("requestId");
+
+        // then
+        Assertions.assertThat(afterFirstDeadline).isTrue();
+        Assertions.assertThat(redisRepository.existsByRequestId("requestId")).isFalse();
+    }
+
+    private RedisCouponSocketConnectionRepository createRepository(
+            FakeRedisConnectionFactory redis
+    ) {
+        return new RedisCouponSocketConnectionRepository(
+                redis.createTemplate(),
+                redis.clock(),
+                createExpiryProperties()
+        );
+    }
+
+    private CouponExpiryProperties createExpiryProperties() {
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        return expiryProperties;
+    }
+}
@@ -0,0 +1,90 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponShardingProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class ShardedCouponResultMessageRepositoryTest {
+
+    private ShardedCouponResultMessageRepository repository;
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(4096);
+        CouponShardingProperties shardingProperties = Mockito.mock(CouponShardingProperties.class);
+        Mockito.when(shardingProperties.resolveShardCount()).thenReturn(8);
+        repository = new ShardedCouponResultMessageRepository(
+                clock,
+                expiryProperties,
+                shardingProperties,
+                Runnable::run
+        );
+    }
+
+    @Test
+    @DisplayName("request id 에 해당하는 shard 에 메시지를 저장하고 꺼낸다.")
+    void saveAndFindTest() {
+        // given
+        for (int i = 0; i < 100; i++) {
+            repository.save(createMessage("requestId" + i, LocalDateTime.now(clock)));
+        }
+
+        // when
+        boolean found = repository.findAndDeleteByRequestId("requestId7").isPresent();
+
+        // then
+        Assertions.assertThat(found).isTrue();
+        Assertions.assertThat(repository.existsByRequestId("requestId7")).isFalse();
+        Assertions.assertThat(repository.getByRequestId("requestId8").getDestination())
+                .isEqualTo("/topic/requestId8");
+    }
+
+    @Test
+    @DisplayName("모든 shard 의 만료된 메시지를 한도만큼씩 제거한다.")
+    void deleteAllExpiredTest() {
+        // given
+        LocalDateTime expiredDateTime = LocalDateTime.now(clock).minusMinutes(31);
+        for (int i = 0; i < 100; i++) {
+            repository.save(createMessage("expired" + i, expiredDateTime));
+        }
+        repository.save(createMessage("alive", LocalDateTime.now(clock)));
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        // when
+        int first = repository.deleteAllExpired(now, 30);
+        int rest = repository.deleteAllExpired(now, Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(first).isEqualTo(30);
+        Assertions.assertThat(rest).isEqualTo(70);
+        Assertions.assertThat(repository.countExpiredBacklog(now)).isZero();
+        Assertions.assertThat(repository.existsByRequestId("alive")).isTrue();
+    }
+
+    private static CouponResultMessage createMessage(
+            String requestId,
+            LocalDateTime issuedDateTime
+    ) {
+        return new CouponResultMessage(
+                requestId,
+                "/topic/" + requestId,
+                issuedDateTime,
+                new byte[]{'{', '}'}
+        );
+    }
+}
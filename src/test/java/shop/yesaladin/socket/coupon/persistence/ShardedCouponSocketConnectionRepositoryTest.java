@@ -0,0 +1,73 @@
+package shop.yesaladin.socket.coupon.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.CouponShardingProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponSocketConnection;
+
+class ShardedCouponSocketConnectionRepositoryTest {
+
+    private ShardedCouponSocketConnectionRepository repository;
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(4096);
+        CouponShardingProperties shardingProperties = Mockito.mock(CouponShardingProperties.class);
+        Mockito.when(shardingProperties.resolveShardCount()).thenReturn(4);
+        repository = new ShardedCouponSocketConnectionRepository(
+                clock,
+                expiryProperties,
+                shardingProperties,
+                Runnable::run
+        );
+    }
+
+    @Test
+    @DisplayName("request id 에 해당하는 shard 에 연결 정보를 저장하고 삭제한다.")
+    void saveAndDeleteTest() {
+        // given
+        for (int i = 0; i < 100; i++) {
+            repository.save(new CouponSocketConnection("requestId" + i, LocalDateTime.now(clock)));
+        }
+
+        // when
+        repository.deleteByRequestId("requestId1");
+
+        // then
+        Assertions.assertThat(repository.existsByRequestId("requestId1")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("requestId2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("모든 shard 의 만료된 연결 정보를 제거한다.")
+    void deleteAllExpiredTest() {
+        // given
+        LocalDateTime connectedDateTime = LocalDateTime.now(clock).minusMinutes(31);
+        for (int i = 0; i < 50; i++) {
+            repository.save(new CouponSocketConnection("expired" + i, connectedDateTime));
+        }
+        repository.save(new CouponSocketConnection("alive", LocalDateTime.now(clock)));
+
+        // when
+        int actual = repository.deleteAllExpired(LocalDateTime.now(clock), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(actual).isEqualTo(50);
+        Assertions.assertThat(repository.existsByRequestId("expired0")).isFalse();
+        Assertions.assertThat(repository.existsByRequestId("alive")).isTrue();
+    }
+}
@@ -0,0 +1,120 @@
+package shop.yesaladin.socket.coupon.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+
+class CouponMessageConnectionClearSchedulerTest {
+
+    private CouponResultMessageRepository couponResultMessageRepository;
+    private CouponSocketConnectionRepository couponSocketConnectionRepository;
+    private CouponExpiryProperties expiryProperties;
+    private MeterRegistry meterRegistry;
+    private Clock clock;
+    private CouponMessageConnectionClearScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        couponResultMessageRepository = Mockito.mock(CouponResultMessageRepository.class);
+        couponSocketConnectionRepository = Mockito.mock(CouponSocketConnectionRepository.class);
+        expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getBatchSize()).thenReturn(2);
+        Mockito.when(expiryProperties.getSweepTimeBudget()).thenReturn(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        clock = Clock.fixed(Instant.ofEpochSecond(100000), ZoneId.of("UTC"));
+        scheduler = new CouponMessageConnectionClearScheduler(
+                couponResultMessageRepository,
+                couponSocketConnectionRepository,
+                expiryProperties,
+                clock,
+                meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("만료된 연결 정보는 연결 정보 저장소에서 제거한다.")
+    void clearCouponConnectionDataTest() {
+        // given
+        LocalDateTime now = LocalDateTime.now(clock);
+        Mockito.when(couponSocketConnectionRepository.deleteAllExpired(now, 2))
+                .thenReturn(2, 2, 1);
+        Mockito.when(couponSocketConnectionRepository.countExpiredBacklog(now)).thenReturn(0);
+
+        // when
+        scheduler.clearCouponConnectionData();
+
+        // then
+        Mockito.verify(couponSocketConnectionRepository, Mockito.times(3))
+                .deleteAllExpired(now, 2);
+        Mockito.verifyNoInteractions(couponResultMessageRepository);
+        Assertions.assertThat(meterRegistry.get("coupon.expiry.evicted")
+                .tag("store", "connection")
+                .counter()
+                .count()).isEqualTo(5);
+        Assertions.assertThat(meterRegistry.get("coupon.expiry.sweep")
+                .tag("store", "connection")
+                .timer()
+                .count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("coupon.expiry.backlog")
+                .tag("store", "connection")
+                .gauge()
+                .value()).isZero();
+    }
+
+    @Test
+    @DisplayName("시간 예산을 모두 사용하면 남은 메시지는 다음 tick 으로 미루고 적체량을 기록한다.")
+    void clearCouponResultMessageWithTimeBudgetTest() {
+        // given
+        LocalDateTime now = LocalDateTime.now(clock);
+        Mockito.when(expiryProperties.getSweepTimeBudget()).thenReturn(Duration.ZERO);
+        Mockito.when(couponResultMessageRepository.deleteAllExpired(now, 2)).thenReturn(2);
+        Mockito.when(couponResultMessageRepository.countExpiredBacklog(now)).thenReturn(7);
+
+        // when
+        scheduler.clearCouponResultMessage();
+
+        // then
+        Mockito.verify(couponResultMessageRepository, Mockito.times(1)).deleteAllExpired(now, 2);
+        Mockito.verifyNoInteractions(couponSocketConnectionRepository);
+        Assertions.assertThat(meterRegistry.get("coupon.expiry.evicted")
+                .tag("store", "result")
+                .counter()
+                .count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("coupon.expiry.backlog")
+                .tag("store", "result")
+                .gauge()
+                .value()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("저장소가 배치 크기보다 적게 제거해도 남은 적체량을 저장소에서 세어 기록한다.")
+    void clearCouponConnectionDataWithVisitBudgetTest() {
+        // given
+        LocalDateTime now = LocalDateTime.now(clock);
+        Mockito.when(couponSocketConnectionRepository.deleteAllExpired(now, 2)).thenReturn(1);
+        Mockito.when(couponSocketConnectionRepository.countExpiredBacklog(now)).thenReturn(5);
+
+        // when
+        scheduler.clearCouponConnectionData();
+
+        // then
+        Mockito.verify(couponSocketConnectionRepository, Mockito.times(1))
+                .deleteAllExpired(now, 2);
+        Assertions.assertThat(meterRegistry.get("coupon.expiry.backlog")
+                .tag("store", "connection")
+                .gauge()
+                .value()).isEqualTo(5);
+    }
+}
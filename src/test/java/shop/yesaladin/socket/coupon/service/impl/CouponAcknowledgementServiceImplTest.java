@@ -0,0 +1,252 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import shop.yesaladin.socket.config.CouponAckProperties;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSessionRepository;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.persistence.MapCouponInFlightMessageRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+class CouponAcknowledgementServiceImplTest {
+
+    private Clock clock;
+    private CouponWebsocketMessageService couponWebsocketMessageService;
+    private CouponSessionRepository couponSessionRepository;
+    private SimpMessageSendingOperations messagingTemplate;
+    private CouponAckProperties ackProperties;
+    private MapCouponInFlightMessageRepository inFlightRepository;
+    private CouponExpiryProperties expiryProperties;
+    private MeterRegistry meterRegistry;
+    private CouponAcknowledgementServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        clock = Clock.fixed(Instant.ofEpochSecond(100000000), ZoneId.of("UTC"));
+        couponWebsocketMessageService = Mockito.mock(CouponWebsocketMessageService.class);
+        ObjectProvider<CouponWebsocketMessageService> messageServiceProvider =
+                Mockito.mock(ObjectProvider.class);
+        Mockito.when(messageServiceProvider.getObject())
+                .thenAnswer(invocation -> couponWebsocketMessageService);
+        couponSessionRepository = Mockito.mock(CouponSessionRepository.class);
+        messagingTemplate = Mockito.mock(SimpMessageSendingOperations.class);
+        ackProperties = Mockito.mock(CouponAckProperties.class);
+        Mockito.when(ackProperties.isEnabled()).thenReturn(true);
+        Mockito.when(ackProperties.getInitialBackoff()).thenReturn(Duration.ofSeconds(2));
+        Mockito.when(ackProperties.getMaxBackoff()).thenReturn(Duration.ofSeconds(30));
+        Mockito.when(ackProperties.getMaxAttempts()).thenReturn(3);
+        expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(64);
+        inFlightRepository = new MapCouponInFlightMessageRepository(clock, expiryProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CouponAcknowledgementServiceImpl(
+                inFlightRepository,
+                messageServiceProvider,
+                couponSessionRepository,
+                messagingTemplate,
+                new CouponResultMessageEncoder(
+                        new ObjectMapper(),
+                        Mockito.mock(SocketProperties.class)
+                ),
+                ackProperties,
+                expiryProperties,
+                clock,
+                meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("ack 를 받으면 보관하던 메시지를 삭제하고 지연 시간을 기록한다.")
+    void acknowledgeTest() {
+        // given
+        service.track(createMessage(LocalDateTime.now(clock)));
+
+        // when
+        service.acknowledge("requestId");
+        service.acknowledge("requestId");
+
+        // then
+        Assertions.assertThat(inFlightRepository.count()).isZero();
+        Assertions.assertThat(meterRegistry.get("coupon.result.ack.latency").timer().count())
+                .isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("coupon.result.ack.unknown").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ack 를 사용하지 않으면 전송한 메시지를 보관하지 않는다.")
+    void trackDisabledTest() {
+        // given
+        Mockito.when(ackProperties.isEnabled()).thenReturn(false);
+
+        // when
+        service.track(createMessage(LocalDateTime.now(clock)));
+
+        // then
+        Assertions.assertThat(inFlightRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("ack 가 없으면 간격을 두 배씩 늘리며 최대 전송 횟수까지 재전송한다.")
+    void redeliverUntilExhaustedTest() {
+        // given
+        Mockito.when(couponSessionRepository.isSubscribed("requestId")).thenReturn(true);
+        service.track(createMessage(LocalDateTime.now(clock)));
+        LocalDateTime start = LocalDateTime.now(clock);
+
+        // when
+        int beforeBackoff = service.redeliverAllDue(start.plusSeconds(1), Integer.MAX_VALUE);
+        service.redeliverAllDue(start.plusSeconds(2), Integer.MAX_VALUE);
+        int beforeSecondBackoff = service.redeliverAllDue(
+                start.plusSeconds(5),
+                Integer.MAX_VALUE
+        );
+        service.redeliverAllDue(start.plusSeconds(6), Integer.MAX_VALUE);
+        service.redeliverAllDue(start.plusSeconds(14), Integer.MAX_VALUE);
+
+        // then
+        Assertions.assertThat(beforeBackoff).isZero();
+        Assertions.assertThat(beforeSecondBackoff).isZero();
+        Mockito.verify(messagingTemplate, Mockito.times(2))
+                .send(ArgumentMatchers.eq("/topic/requestId"), ArgumentMatchers.<Message<?>>any());
+        Assertions.assertThat(redeliveryCount("redelivered")).isEqualTo(2);
+        Assertions.assertThat(redeliveryCount("exhausted")).isEqualTo(1);
+        Assertions.assertThat(inFlightRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("재전송 메시지는 레포지토리의 잠금 밖에서 보내므로 전송 중에 도착한 ack 를 처리할 수 있다.")
+    void acknowledgeWhileRedeliveringTest() {
+        // given
+        Mockito.when(couponSessionRepository.isSubscribed("requestId")).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            service.acknowledge("requestId");
+            return null;
+        }).when(messagingTemplate).send(
+                ArgumentMatchers.eq("/topic/requestId"),
+                ArgumentMatchers.<Message<?>>any()
+        );
+        service.track(createMessage(LocalDateTime.now(clock)));
+
+        // when
+        int redelivered = service.redeliverAllDue(
+                LocalDateTime.now(clock).plusSeconds(2),
+                Integer.MAX_VALUE
+        );
+
+        // then
+        Assertions.assertThat(redelivered).isEqualTo(1);
+        Assertions.assertThat(inFlightRepository.count()).isZero();
+        Assertions.assertThat(meterRegistry.get("coupon.result.ack.latency").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("구독자가 없으면 재전송하지 않고 결과 메시지를 다시 저장한다.")
+    void reparkTest() {
+        // given
+        CouponResultMessage message = createMessage(LocalDateTime.now(clock));
+        service.track(message);
+
+        // when
+        service.redeliverAllDue(LocalDateTime.now(clock).plusSeconds(2), Integer.MAX_VALUE);
+
+        // then
+        Mockito.verify(couponWebsocketMessageService).trySendResultMessage(message);
+        Mockito.verifyNoInteractions(messagingTemplate);
+        Assertions.assertThat(redeliveryCount("parked")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("만료 기간이 지난 메시지는 재전송하지 않고 삭제한다.")
+    void expireTest() {
+        // given
+        Mockito.when(couponSessionRepository.isSubscribed("requestId")).thenReturn(true);
+        service.track(createMessage(LocalDateTime.now(clock).minusMinutes(31)));
+
+        // when
+        service.redeliverAllDue(LocalDateTime.now(clock).plusSeconds(2), Integer.MAX_VALUE);
+
+        // then
+        Mockito.verifyNoInteractions(messagingTemplate, couponWebsocketMessageService);
+        Assertions.assertThat(redeliveryCount("expired")).isEqualTo(1);
+        Assertions.assertThat(inFlightRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("재저장하기 전에 다시 연결된 클라이언트에게는 재저장한 메시지를 바로 전송한다.")
+    void reparkAfterReconnectTest() {
+        // given
+        MapCouponResultMessageRepository resultRepository =
+                new MapCouponResultMessageRepository(clock, expiryProperties);
+        MapCouponSocketConnectionRepository connectionRepository =
+                new MapCouponSocketConnectionRepository(clock, expiryProperties);
+        couponWebsocketMessageService = new CouponWebsocketMessageServiceImpl(
+                resultRepository,
+                connectionRepository,
+                messagingTemplate,
+                new CouponResultMessageEncoder(
+                        new ObjectMapper(),
+                        Mockito.mock(SocketProperties.class)
+                ),
+                clock,
+                service,
+                Mockito.mock(CouponMessageMetrics.class)
+        );
+        // 구독이 없다고 판단한 직후 재저장하기 전에 클라이언트가 다시 연결된다.
+        Mockito.when(couponSessionRepository.isSubscribed("requestId")).thenAnswer(invocation -> {
+            couponWebsocketMessageService.registerConnection("requestId");
+            return false;
+        });
+        service.track(createMessage(LocalDateTime.now(clock)));
+
+        // when
+        service.redeliverAllDue(LocalDateTime.now(clock).plusSeconds(2), Integer.MAX_VALUE);
+
+        // then
+        Mockito.verify(messagingTemplate).send(
+                ArgumentMatchers.eq("/topic/requestId"),
+                ArgumentMatchers.<Message<?>>any()
+        );
+        Assertions.assertThat(resultRepository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(connectionRepository.existsByRequestId("requestId")).isFalse();
+        Assertions.assertThat(inFlightRepository.count()).isEqualTo(1);
+    }
+
+    private double redeliveryCount(String outcome) {
+        return meterRegistry.get("coupon.result.redelivery").tag("outcome", outcome).counter()
+                .count();
+    }
+
+    private static CouponResultMessage createMessage(LocalDateTime issuedDateTime) {
+        return new CouponResultMessage(
+                "requestId",
+                "/topic/requestId",
+                issuedDateTime,
+                new byte[]{'{', '}'}
+        );
+    }
+}
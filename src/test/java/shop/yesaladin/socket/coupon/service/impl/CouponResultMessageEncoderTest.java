@@ -0,0 +1,62 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.LocalDateTime;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
+
+class CouponResultMessageEncoderTest {
+
+    private ObjectMapper objectMapper;
+    private CouponResultMessageEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        SocketProperties socketProperties = Mockito.mock(SocketProperties.class);
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("/give/");
+        Mockito.when(socketProperties.getCouponUseResultTopicPrefix()).thenReturn("/use/");
+        encoder = new CouponResultMessageEncoder(objectMapper, socketProperties);
+    }
+
+    @Test
+    @DisplayName("요청 종류에 맞는 토픽과 JSON 본문으로 메시지를 변환한다.")
+    void encodeTest() throws Exception {
+        // given
+        CouponResultDto give = createResult(CouponSocketRequestKind.GIVE, "giveRequestId");
+        CouponResultDto use = createResult(CouponSocketRequestKind.USE, "useRequestId");
+
+        // when
+        CouponResultMessage actualGive = encoder.encode(give);
+        CouponResultMessage actualUse = encoder.encode(use);
+
+        // then
+        Assertions.assertThat(actualGive.getRequestId()).isEqualTo("giveRequestId");
+        Assertions.assertThat(actualGive.getDestination()).isEqualTo("/give/giveRequestId");
+        Assertions.assertThat(actualGive.getIssuedDateTime()).isEqualTo(give.getIssuedDateTime());
+        CouponResultDto decoded = objectMapper.readValue(
+                actualGive.getPayload(),
+                CouponResultDto.class
+        );
+        Assertions.assertThat(decoded).isEqualTo(give);
+        Assertions.assertThat(actualUse.getDestination()).isEqualTo("/use/useRequestId");
+    }
+
+    private static CouponResultDto createResult(CouponSocketRequestKind kind, String requestId) {
+        return new CouponResultDto(
+                kind,
+                requestId,
+                true,
+                null,
+                LocalDateTime.of(2023, 2, 19, 12, 30)
+        );
+    }
+}
@@ -0,0 +1,142 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSessionRepository;
+import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+class CouponSessionServiceImplTest {
+
+    private CouponSessionRepository couponSessionRepository;
+    private CouponSocketConnectionRepository couponSocketConnectionRepository;
+    private CouponWebsocketMessageService couponWebsocketMessageService;
+    private CouponSessionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        couponSessionRepository = Mockito.mock(CouponSessionRepository.class);
+        couponSocketConnectionRepository = Mockito.mock(CouponSocketConnectionRepository.class);
+        couponWebsocketMessageService = Mockito.mock(CouponWebsocketMessageService.class);
+        SocketProperties socketProperties = Mockito.mock(SocketProperties.class);
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix())
+                .thenReturn("/topic/coupon/give/");
+        Mockito.when(socketProperties.getCouponUseResultTopicPrefix())
+                .thenReturn("/topic/coupon/use/");
+        service = new CouponSessionServiceImpl(
+                couponSessionRepository,
+                couponSocketConnectionRepository,
+                couponWebsocketMessageService,
+                socketProperties,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    @DisplayName("결과 토픽을 구독한 세션이 있으면 연결 메시지를 받았을 때 연결을 등록한다.")
+    void connectTest() {
+        // given
+        Mockito.when(couponSessionRepository.isSubscribed("requestId")).thenReturn(true);
+
+        // when
+        service.connect("session", "requestId");
+
+        // then
+        Mockito.verify(couponWebsocketMessageService).registerConnection("requestId");
+    }
+
+    @Test
+    @DisplayName("결과 토픽을 구독한 세션이 없으면 연결 메시지를 받아도 연결을 등록하지 않는다.")
+    void connectWithoutSubscriptionTest() {
+        // when
+        service.connect("session", "requestId");
+
+        // then
+        Mockito.verify(couponWebsocketMessageService, Mockito.never())
+                .registerConnection(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 결과 토픽을 구독하면 request id 를 기록하고 연결을 등록하며, 다른 토픽은 무시한다.")
+    void subscribeTest() {
+        // given
+        Mockito.when(couponSessionRepository.bindSubscription("session", "sub-0", "requestId"))
+                .thenReturn(true);
+
+        // when
+        service.subscribe("session", "sub-0", "/topic/coupon/use/requestId");
+        service.subscribe("session", "sub-1", "/topic/other");
+        service.subscribe("session", "sub-2", null);
+
+        // then
+        Mockito.verify(couponSessionRepository)
+                .bindSubscription("session", "sub-0", "requestId");
+        Mockito.verify(couponSessionRepository, Mockito.times(1))
+                .bindSubscription(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+        Mockito.verify(couponWebsocketMessageService, Mockito.times(1))
+                .registerConnection("requestId");
+    }
+
+    @Test
+    @DisplayName("종료된 세션의 구독은 기록되지 않으므로 연결을 등록하지 않는다.")
+    void subscribeFromClosedSessionTest() {
+        // when
+        service.subscribe("session", "sub-0", "/topic/coupon/give/requestId");
+
+        // then
+        Mockito.verify(couponSessionRepository)
+                .bindSubscription("session", "sub-0", "requestId");
+        Mockito.verify(couponWebsocketMessageService, Mockito.never())
+                .registerConnection(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("세션이 연결되면 세션을 등록한다.")
+    void openTest() {
+        // when
+        service.open("session");
+
+        // then
+        Mockito.verify(couponSessionRepository).openSession("session");
+    }
+
+    @Test
+    @DisplayName("구독이 해제되면 구독한 request id 의 연결 정보를 삭제한다.")
+    void unsubscribeTest() {
+        // given
+        Mockito.when(couponSessionRepository.unbindSubscription("session", "sub-0"))
+                .thenReturn(Optional.of("requestId"));
+
+        // when
+        service.unsubscribe("session", "sub-0");
+
+        // then
+        Mockito.verify(couponSocketConnectionRepository).deleteByRequestId("requestId");
+    }
+
+    @Test
+    @DisplayName("세션이 종료되면 세션에서 연결된 모든 request id 의 연결 정보를 삭제한다.")
+    void disconnectTest() {
+        // given
+        Mockito.when(couponSessionRepository.unbindSession("session"))
+                .thenReturn(Arrays.asList("requestId1", "requestId2"));
+
+        // when
+        service.disconnect("session");
+
+        // then
+        Mockito.verify(couponSocketConnectionRepository).deleteByRequestId("requestId1");
+        Mockito.verify(couponSocketConnectionRepository).deleteByRequestId("requestId2");
+    }
+}
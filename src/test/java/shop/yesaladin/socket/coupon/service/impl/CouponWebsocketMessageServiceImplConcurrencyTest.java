@@ -0,0 +1,130 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.mockito.Mockito;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.CouponExpiryProperties;
+import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.persistence.MapCouponResultMessageRepository;
+import shop.yesaladin.socket.coupon.persistence.MapCouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.service.inter.CouponAcknowledgementService;
+
+/**
+ * 결과 메시지 도착과 소켓 연결이 경합할 때 메시지가 유실되거나 중복 전송되지 않는지 확인하는 스트레스 테스트입니다.
+ */
+class CouponWebsocketMessageServiceImplConcurrencyTest {
+
+    private static final int REQUEST_COUNT = 5_000;
+
+    private Map<String, AtomicInteger> deliveryCounts;
+    private MapCouponResultMessageRepository couponResultMessageRepository;
+    private CouponWebsocketMessageServiceImpl service;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.systemUTC();
+        CouponExpiryProperties expiryProperties = Mockito.mock(CouponExpiryProperties.class);
+        Mockito.when(expiryProperties.getTimeToLive()).thenReturn(Duration.ofMinutes(30));
+        Mockito.when(expiryProperties.getTickDuration()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(expiryProperties.getWheelSize()).thenReturn(4096);
+        SocketProperties socketProperties = Mockito.mock(SocketProperties.class);
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("/topic/");
+
+        deliveryCounts = new ConcurrentHashMap<>();
+        MessageChannel channel = (message, timeout) -> {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            deliveryCounts.computeIfAbsent(destination, key -> new AtomicInteger())
+                    .incrementAndGet();
+            return true;
+        };
+
+        couponResultMessageRepository = new MapCouponResultMessageRepository(
+                clock,
+                expiryProperties
+        );
+        service = new CouponWebsocketMessageServiceImpl(
+                couponResultMessageRepository,
+                new MapCouponSocketConnectionRepository(clock, expiryProperties),
+                new SimpMessagingTemplate(channel),
+                new CouponResultMessageEncoder(
+                        new ObjectMapper().registerModule(new JavaTimeModule()),
+                        socketProperties
+                ),
+                clock,
+                Mockito.mock(CouponAcknowledgementService.class),
+                Mockito.mock(CouponMessageMetrics.class)
+        );
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("결과 메시지 도착과 소켓 연결이 동시에 일어나도 메시지는 정확히 한 번 전송된다.")
+    void deliverExactlyOnceTest() throws Exception {
+        // given
+        List<CouponResultDto> results = new ArrayList<>(REQUEST_COUNT);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            results.add(new CouponResultDto(
+                    CouponSocketRequestKind.GIVE,
+                    "requestId" + i,
+                    true,
+                    null,
+                    LocalDateTime.now()
+            ));
+        }
+        CyclicBarrier barrier = new CyclicBarrier(2);
+
+        // when
+        Future<?> resultArrival = executorService.submit(() -> {
+            for (CouponResultDto result : results) {
+                barrier.await();
+                service.trySendGiveCouponResultMessage(result);
+            }
+            return null;
+        });
+        Future<?> socketConnect = executorService.submit(() -> {
+            for (CouponResultDto result : results) {
+                barrier.await();
+                service.registerConnection(result.getRequestId());
+            }
+            return null;
+        });
+        resultArrival.get();
+        socketConnect.get();
+
+        // then
+        Assertions.assertThat(deliveryCounts).hasSize(REQUEST_COUNT);
+        Assertions.assertThat(deliveryCounts.values())
+                .allSatisfy(count -> Assertions.assertThat(count.get()).isEqualTo(1));
+        Assertions.assertThat(results)
+                .noneMatch(result -> couponResultMessageRepository.existsByRequestId(result.getRequestId()));
+    }
+}
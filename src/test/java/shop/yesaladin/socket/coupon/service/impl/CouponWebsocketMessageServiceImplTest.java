@@ -1,28 +1,43 @@
 package shop.yesaladin.socket.coupon.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import shop.yesaladin.coupon.code.CouponSocketRequestKind;
 import shop.yesaladin.coupon.message.CouponResultDto;
 import shop.yesaladin.socket.config.SocketProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+import shop.yesaladin.socket.coupon.domain.model.CouponResultMessage;
 import shop.yesaladin.socket.coupon.domain.repository.CouponResultMessageRepository;
 import shop.yesaladin.socket.coupon.domain.repository.CouponSocketConnectionRepository;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.metrics.CouponMessageMetrics;
+import shop.yesaladin.socket.coupon.service.inter.CouponAcknowledgementService;
 
 class CouponWebsocketMessageServiceImplTest {
 
     private CouponResultMessageRepository couponResultMessageRepository;
     private CouponSocketConnectionRepository couponSocketConnectionRepository;
     private SimpMessageSendingOperations messagingTemplate;
+    private CouponAcknowledgementService couponAcknowledgementService;
     private SocketProperties socketProperties;
     private Clock clock;
+    private CouponResultMessageEncoder encoder;
     private CouponWebsocketMessageServiceImpl service;
 
     @BeforeEach
@@ -31,13 +46,20 @@ class CouponWebsocketMessageServiceImplTest {
         couponSocketConnectionRepository = Mockito.mock(CouponSocketConnectionRepository.class);
         messagingTemplate = Mockito.mock(SimpMessagingTemplate.class);
         socketProperties = Mockito.mock(SocketProperties.class);
+        couponAcknowledgementService = Mockito.mock(CouponAcknowledgementService.class);
         clock = Clock.fixed(Instant.ofEpochSecond(100000), ZoneId.of("UTC"));
+        encoder = new CouponResultMessageEncoder(
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                socketProperties
+        );
         service = new CouponWebsocketMessageServiceImpl(
                 couponResultMessageRepository,
                 couponSocketConnectionRepository,
                 messagingTemplate,
-                socketProperties,
-                clock
+                encoder,
+                clock,
+                couponAcknowledgementService,
+                Mockito.mock(CouponMessageMetrics.class)
         );
     }
 
@@ -52,23 +74,32 @@ class CouponWebsocketMessageServiceImplTest {
                 null,
                 LocalDateTime.now()
         );
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("expectedTopic");
+        CouponResultMessage encoded = encoder.encode(message);
         Mockito.when(couponSocketConnectionRepository.existsByRequestId("requestId"))
                 .thenReturn(true);
-        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("expectedTopic");
+        Mockito.when(couponResultMessageRepository.findAndDeleteByRequestId("requestId"))
+                .thenReturn(Optional.of(encoded));
 
         // when
-        service.trySendGiveCouponResultMessage(message);
+        CouponMessageDeliveryStatus actual = service.trySendGiveCouponResultMessage(message);
 
         // then
+        Assertions.assertThat(actual).isEqualTo(CouponMessageDeliveryStatus.DELIVERED);
+        Mockito.verify(couponResultMessageRepository, Mockito.times(1))
+                .save(Mockito.argThat(saved -> saved.getRequestId().equals("requestId")
+                        && saved.getDestination().equals("expectedTopicrequestId")));
         Mockito.verify(couponSocketConnectionRepository, Mockito.times(1))
                 .existsByRequestId("requestId");
+        Mockito.verify(couponResultMessageRepository, Mockito.times(1))
+                .findAndDeleteByRequestId("requestId");
         Mockito.verify(messagingTemplate, Mockito.times(1))
-                .convertAndSend("expectedTopicrequestId", message);
+                .send(
+                        Mockito.eq("expectedTopicrequestId"),
+                        Mockito.argThat(sent -> hasPayload(sent, encoded))
+                );
         Mockito.verify(couponSocketConnectionRepository, Mockito.times(1))
                 .deleteByRequestId("requestId");
-        Mockito.verify(couponResultMessageRepository, Mockito.times(1))
-                .deleteByRequestId("requestId");
-        Mockito.verify(couponResultMessageRepository, Mockito.never()).save(Mockito.any());
     }
 
     @Test
@@ -82,18 +113,49 @@ class CouponWebsocketMessageServiceImplTest {
                 null,
                 LocalDateTime.now()
         );
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("expectedTopic");
         Mockito.when(couponSocketConnectionRepository.existsByRequestId("requestId"))
                 .thenReturn(false);
 
         // when
-        service.trySendGiveCouponResultMessage(message);
+        CouponMessageDeliveryStatus actual = service.trySendGiveCouponResultMessage(message);
 
         // then
+        Assertions.assertThat(actual).isEqualTo(CouponMessageDeliveryStatus.PARKED);
+        Mockito.verify(couponResultMessageRepository, Mockito.times(1)).save(Mockito.any());
         Mockito.verify(couponSocketConnectionRepository, Mockito.times(1))
                 .existsByRequestId("requestId");
+        Mockito.verify(couponResultMessageRepository, Mockito.never())
+                .findAndDeleteByRequestId("requestId");
+        Mockito.verify(messagingTemplate, Mockito.never())
+                .send(Mockito.anyString(), Mockito.<Message<?>>any());
+    }
+
+    @Test
+    @DisplayName("연결된 소켓 정보가 존재해도 다른 요청이 먼저 메시지를 꺼내갔다면 발행하지 않는다.")
+    void trySendGiveCouponResultMessageAlreadyTakenTest() {
+        // given
+        CouponResultDto message = new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                "requestId",
+                true,
+                null,
+                LocalDateTime.now()
+        );
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("expectedTopic");
+        Mockito.when(couponSocketConnectionRepository.existsByRequestId("requestId"))
+                .thenReturn(true);
+        Mockito.when(couponResultMessageRepository.findAndDeleteByRequestId("requestId"))
+                .thenReturn(Optional.empty());
+
+        // when
+        service.trySendGiveCouponResultMessage(message);
+
+        // then
         Mockito.verify(messagingTemplate, Mockito.never())
-                .convertAndSend(Mockito.anyString(), Mockito.any(CouponResultDto.class));
-        Mockito.verify(couponResultMessageRepository, Mockito.times(1)).save(message);
+                .send(Mockito.anyString(), Mockito.<Message<?>>any());
+        Mockito.verify(couponSocketConnectionRepository, Mockito.never())
+                .deleteByRequestId("requestId");
     }
 
     @Test
@@ -108,11 +170,10 @@ class CouponWebsocketMessageServiceImplTest {
                 null,
                 LocalDateTime.now()
         );
-        Mockito.when(couponSocketConnectionRepository.existsByRequestId(requestId))
-                .thenReturn(true);
-        Mockito.when(couponResultMessageRepository.getByRequestId(requestId)).thenReturn(message);
-        Mockito.when(couponResultMessageRepository.existsByRequestId(requestId)).thenReturn(true);
         Mockito.when(socketProperties.getCouponUseResultTopicPrefix()).thenReturn("expectedTopic");
+        CouponResultMessage encoded = encoder.encode(message);
+        Mockito.when(couponResultMessageRepository.findAndDeleteByRequestId(requestId))
+                .thenReturn(Optional.of(encoded));
 
         // when
         service.registerConnection(requestId);
@@ -122,15 +183,15 @@ class CouponWebsocketMessageServiceImplTest {
                 .save(Mockito.argThat(arg -> arg.getRequestId().equals(requestId)
                         && arg.getConnectedDateTime().equals(LocalDateTime.now(clock))));
         Mockito.verify(couponResultMessageRepository, Mockito.times(1))
-                .existsByRequestId(requestId);
-        Mockito.verify(couponResultMessageRepository, Mockito.times(1)).getByRequestId(requestId);
+                .findAndDeleteByRequestId(requestId);
+        InOrder inOrder = Mockito.inOrder(couponAcknowledgementService, messagingTemplate);
+        inOrder.verify(couponAcknowledgementService).track(encoded);
+        inOrder.verify(messagingTemplate, Mockito.times(1))
+                .send(
+                        Mockito.eq("expectedTopicrequestId"),
+                        Mockito.argThat(sent -> hasPayload(sent, encoded))
+                );
         Mockito.verify(couponSocketConnectionRepository, Mockito.times(1))
-                .existsByRequestId("requestId");
-        Mockito.verify(messagingTemplate, Mockito.times(1))
-                .convertAndSend("expectedTopicrequestId", message);
-        Mockito.verify(couponSocketConnectionRepository, Mockito.times(1))
-                .deleteByRequestId("requestId");
-        Mockito.verify(couponResultMessageRepository, Mockito.times(1))
                 .deleteByRequestId("requestId");
     }
 
@@ -139,7 +200,8 @@ class CouponWebsocketMessageServiceImplTest {
     void registerSocketConnectionWithoutSendTest() {
         // given
         String requestId = "requestId";
-        Mockito.when(couponResultMessageRepository.existsByRequestId(requestId)).thenReturn(false);
+        Mockito.when(couponResultMessageRepository.findAndDeleteByRequestId(requestId))
+                .thenReturn(Optional.empty());
 
         // when
         service.registerConnection(requestId);
@@ -149,15 +211,84 @@ class CouponWebsocketMessageServiceImplTest {
                 .save(Mockito.argThat(arg -> arg.getRequestId().equals(requestId)
                         && arg.getConnectedDateTime().equals(LocalDateTime.now(clock))));
         Mockito.verify(couponResultMessageRepository, Mockito.times(1))
-                .existsByRequestId(requestId);
-        Mockito.verify(couponResultMessageRepository, Mockito.never()).getByRequestId(requestId);
-        Mockito.verify(couponSocketConnectionRepository, Mockito.never())
-                .existsByRequestId("requestId");
+                .findAndDeleteByRequestId(requestId);
         Mockito.verify(messagingTemplate, Mockito.never())
-                .convertAndSend(Mockito.anyString(), Mockito.any(CouponResultDto.class));
+                .send(Mockito.anyString(), Mockito.<Message<?>>any());
         Mockito.verify(couponSocketConnectionRepository, Mockito.never())
                 .deleteByRequestId("requestId");
+    }
+
+    @Test
+    @DisplayName("메시지 목록을 한 번에 처리하고 메시지별 처리 결과를 순서대로 반환한다.")
+    void trySendGiveCouponResultMessagesTest() {
+        // given
+        CouponResultDto delivered = new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                "delivered",
+                true,
+                null,
+                LocalDateTime.now()
+        );
+        CouponResultDto parked = new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                "parked",
+                true,
+                null,
+                LocalDateTime.now()
+        );
+        CouponResultDto invalid = new CouponResultDto(
+                null,
+                "invalid",
+                true,
+                null,
+                LocalDateTime.now()
+        );
+        CouponResultDto failed = new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                "failed",
+                true,
+                null,
+                LocalDateTime.now()
+        );
+        Mockito.when(couponSocketConnectionRepository.existsByRequestId("delivered"))
+                .thenReturn(true);
+        Mockito.when(socketProperties.getCouponGiveResultTopicPrefix()).thenReturn("expectedTopic");
+        CouponResultMessage encoded = encoder.encode(delivered);
+        Mockito.when(couponResultMessageRepository.findAndDeleteByRequestId("delivered"))
+                .thenReturn(Optional.of(encoded));
+        Mockito.doThrow(new IllegalStateException("store unavailable"))
+                .when(couponResultMessageRepository)
+                .save(Mockito.argThat(saved -> saved.getRequestId().equals("failed")));
+
+        // when
+        List<CouponMessageOutcomeDto> actual = service.trySendGiveCouponResultMessages(
+                Arrays.asList(delivered, parked, invalid, null, failed)
+        );
+
+        // then
+        Assertions.assertThat(actual)
+                .extracting(CouponMessageOutcomeDto::getIndex)
+                .containsExactly(0, 1, 2, 3, 4);
+        Assertions.assertThat(actual)
+                .extracting(CouponMessageOutcomeDto::getStatus)
+                .containsExactly(
+                        CouponMessageDeliveryStatus.DELIVERED,
+                        CouponMessageDeliveryStatus.PARKED,
+                        CouponMessageDeliveryStatus.REJECTED,
+                        CouponMessageDeliveryStatus.REJECTED,
+                        CouponMessageDeliveryStatus.REJECTED
+                );
+        Assertions.assertThat(actual.get(4).getReason()).isEqualTo("store unavailable");
+        Mockito.verify(messagingTemplate, Mockito.times(1))
+                .send(
+                        Mockito.eq("expectedTopicdelivered"),
+                        Mockito.argThat(sent -> hasPayload(sent, encoded))
+                );
         Mockito.verify(couponResultMessageRepository, Mockito.never())
-                .deleteByRequestId("requestId");
+                .save(Mockito.argThat(saved -> saved.getRequestId().equals("invalid")));
+    }
+
+    private static boolean hasPayload(Message<?> sent, CouponResultMessage expected) {
+        return Arrays.equals((byte[]) sent.getPayload(), expected.getPayload());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+package shop.yesaladin.socket.coupon.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import shop.yesaladin.coupon.code.CouponSocketRequestKind;
+import shop.yesaladin.coupon.message.CouponResultDto;
+import shop.yesaladin.socket.config.CouponDeliveryProperties;
+import shop.yesaladin.socket.coupon.domain.model.CouponMessageDeliveryStatus;
+import shop.yesaladin.socket.coupon.dto.CouponMessageOutcomeDto;
+import shop.yesaladin.socket.coupon.exception.CouponMessageQueueFullException;
+import shop.yesaladin.socket.coupon.service.inter.CouponWebsocketMessageService;
+
+class QueuedCouponMessageDispatcherTest {
+
+    private CouponWebsocketMessageService couponWebsocketMessageService;
+    private CouponDeliveryProperties deliveryProperties;
+    private MeterRegistry meterRegistry;
+    private QueuedCouponMessageDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        couponWebsocketMessageService = Mockito.mock(CouponWebsocketMessageService.class);
+        deliveryProperties = Mockito.mock(CouponDeliveryProperties.class);
+        Mockito.when(deliveryProperties.getQueueCapacity()).thenReturn(1);
+        Mockito.when(deliveryProperties.getWorkerCount()).thenReturn(1);
+        Mockito.when(deliveryProperties.getBatchSize()).thenReturn(16);
+        Mockito.when(deliveryProperties.getRetryAfter()).thenReturn(Duration.ofSeconds(1));
+        Mockito.when(deliveryProperties.getShutdownTimeout()).thenReturn(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new QueuedCouponMessageDispatcher(
+                couponWebsocketMessageService,
+                deliveryProperties,
+                meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    @DisplayName("큐에 넣은 메시지를 전송 스레드에서 전송하고 지연 시간을 기록한다.")
+    void dispatchTest() {
+        // given
+        CouponResultDto message = createMessage("requestId");
+        dispatcher.start();
+
+        // when
+        dispatcher.dispatch(message);
+
+        // then
+        Mockito.verify(couponWebsocketMessageService, Mockito.timeout(5000))
+                .trySendGiveCouponResultMessage(message);
+        dispatcher.stop();
+        Assertions.assertThat(meterRegistry.get("coupon.delivery.latency").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 메시지를 거부한다.")
+    void dispatchQueueFullTest() throws Exception {
+        // given
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            taken.countDown();
+            release.await();
+            return null;
+        }).when(couponWebsocketMessageService).trySendGiveCouponResultMessage(Mockito.any());
+        dispatcher.start();
+        dispatcher.dispatch(createMessage("inFlight"));
+        Assertions.assertThat(taken.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(createMessage("queued"));
+
+        // when
+        CouponResultDto rejected = createMessage("rejected");
+
+        // then
+        Assertions.assertThatThrownBy(() -> dispatcher.dispatch(rejected))
+                .isInstanceOf(CouponMessageQueueFullException.class)
+                .extracting("retryAfter")
+                .isEqualTo(Duration.ofSeconds(1));
+        Assertions.assertThat(meterRegistry.get("coupon.delivery.rejected").counter().count())
+                .isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("일괄 등록한 메시지를 메시지마다 큐에 넣고 넣지 못한 메시지는 REJECTED 로 응답한다.")
+    void dispatchAllTest() throws Exception {
+        // given
+        CountDownLatch release = blockWorker();
+        List<CouponResultDto> messages = Arrays.asList(
+                createMessage("queued"),
+                null,
+                createMessage("rejected")
+        );
+
+        // when
+        List<CouponMessageOutcomeDto> actual = dispatcher.dispatchAll(messages);
+
+        // then
+        Assertions.assertThat(actual)
+                .extracting(CouponMessageOutcomeDto::getStatus)
+                .containsExactly(
+                        CouponMessageDeliveryStatus.QUEUED,
+                        CouponMessageDeliveryStatus.REJECTED,
+                        CouponMessageDeliveryStatus.REJECTED
+                );
+        Assertions.assertThat(actual.get(2).getReason()).isEqualTo("Coupon message queue is full");
+        Assertions.assertThat(meterRegistry.get("coupon.delivery.rejected").counter().count())
+                .isEqualTo(1);
+        release.countDown();
+        Mockito.verify(couponWebsocketMessageService, Mockito.timeout(5000))
+                .trySendGiveCouponResultMessage(messages.get(0));
+    }
+
+    @Test
+    @DisplayName("일괄 등록한 메시지를 하나도 큐에 넣지 못하면 전체를 거부한다.")
+    void dispatchAllQueueFullTest() throws Exception {
+        // given
+        CountDownLatch release = blockWorker();
+        dispatcher.dispatch(createMessage("queued"));
+        List<CouponResultDto> messages = List.of(createMessage("first"), createMessage("second"));
+
+        // when
+        ThrowingCallable dispatchAll = () -> dispatcher.dispatchAll(messages);
+
+        // then
+        Assertions.assertThatThrownBy(dispatchAll)
+                .isInstanceOf(CouponMessageQueueFullException.class)
+                .hasMessageContaining("first")
+                .extracting("retryAfter")
+                .isEqualTo(Duration.ofSeconds(1));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("종료 시 큐에 남은 메시지를 모두 전송한 뒤 종료하고 이후 메시지는 거부한다.")
+    void stopDrainsQueueTest() {
+        // given
+        Mockito.when(deliveryProperties.getQueueCapacity()).thenReturn(100);
+        dispatcher = new QueuedCouponMessageDispatcher(
+                couponWebsocketMessageService,
+                deliveryProperties,
+                new SimpleMeterRegistry()
+        );
+        dispatcher.start();
+        for (int i = 0; i < 100; i++) {
+            dispatcher.dispatch(createMessage("requestId" + i));
+        }
+
+        // when
+        dispatcher.stop();
+
+        // then
+        Mockito.verify(couponWebsocketMessageService, Mockito.times(100))
+                .trySendGiveCouponResultMessage(Mockito.any());
+        CouponResultDto late = createMessage("late");
+        Assertions.assertThatThrownBy(() -> dispatcher.dispatch(late))
+                .isInstanceOf(CouponMessageQueueFullException.class);
+    }
+
+    @Test
+    @DisplayName("종료 시 메시지 브로커와 WebSocket 핸들러보다 먼저 큐를 비우고, 웹 서버는 그 뒤에 종료된다.")
+    void stopOrderTest() {
+        // given
+        List<String> stopped = new CopyOnWriteArrayList<>();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource(
+                "test",
+                Map.of("socket.coupon.delivery.mode", "async")
+        ));
+        for (String name : List.of(
+                "subProtocolWebSocketHandler",
+                "simpleBrokerMessageHandler",
+                "stompBrokerRelayMessageHandler"
+        )) {
+            context.registerBean(
+                    name,
+                    RecordingLifecycle.class,
+                    () -> new RecordingLifecycle(name, SmartLifecycle.DEFAULT_PHASE, stopped)
+            );
+        }
+        context.registerBean(
+                "webServerStartStop",
+                RecordingLifecycle.class,
+                () -> new RecordingLifecycle("webServer", Integer.MAX_VALUE - 1, stopped)
+        );
+        context.registerBean(
+                "queuedCouponMessageDispatcher",
+                QueuedCouponMessageDispatcher.class,
+                () -> new QueuedCouponMessageDispatcher(
+                        couponWebsocketMessageService,
+                        deliveryProperties,
+                        new SimpleMeterRegistry()
+                ) {
+                    @Override
+                    public synchronized void stop() {
+                        super.stop();
+                        stopped.add("dispatcher");
+                    }
+                }
+        );
+        context.refresh();
+
+        // when
+        context.close();
+
+        // then
+        Assertions.assertThat(stopped)
+                .hasSize(5)
+                .startsWith("dispatcher")
+                .endsWith("webServer");
+    }
+
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            taken.countDown();
+            release.await();
+            return null;
+        }).when(couponWebsocketMessageService).trySendGiveCouponResultMessage(Mockito.any());
+        dispatcher.start();
+        dispatcher.dispatch(createMessage("inFlight"));
+        Assertions.assertThat(taken.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private CouponResultDto createMessage(String requestId) {
+        return new CouponResultDto(
+                CouponSocketRequestKind.GIVE,
+                requestId,
+                true,
+                null,
+                LocalDateTime.now()
+        );
+    }
+
+    @RequiredArgsConstructor
+    private static final class RecordingLifecycle implements SmartLifecycle {
+
+        private final String name;
+        private final int phase;
+        private final List<String> stopped;
+        private volatile boolean running;
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+            stopped.add(name);
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return phase;
+        }
+    }
+}